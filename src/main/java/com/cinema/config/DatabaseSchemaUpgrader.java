@@ -0,0 +1,138 @@
+package com.cinema.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Brings an existing PostgreSQL schema up to what the application relies on
+ * but Hibernate's {@code ddl-auto: update} cannot create or relax: id
+ * sequences that continue after the existing rows, the partial unique index
+ * that allows one active lock per seat and screening, and the nullable
+ * response and per-user primary key of checkout idempotency keys. Runs after
+ * Hibernate and the SQL scripts have initialized the schema; every step is
+ * idempotent. Other databases (H2 in tests) are left alone.
+ */
+@Component
+@DependsOnDatabaseInitialization
+@RequiredArgsConstructor
+@Slf4j
+public class DatabaseSchemaUpgrader {
+
+    /**
+     * Tables whose ids Hibernate allocates from {@code <table>_seq} in blocks
+     * of 50; they used to be identity columns.
+     */
+    private static final List<String> POOLED_ID_TABLES = List.of("bookings", "booking_seats", "seat_locks", "outbox");
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void upgrade() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+            connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            log.debug("Skipping schema upgrades on {}", database);
+            return;
+        }
+        alignIdSequences();
+        guardActiveSeatLocks();
+        allowPendingIdempotencyKeys();
+        scopeIdempotencyKeysToUsers();
+    }
+
+    /**
+     * Makes sure each pooled id sequence exists, steps by the allocation size
+     * and stands at or past the highest id in its table. A sequence created
+     * for a table that already has identity ids would otherwise hand out ids
+     * that are taken.
+     */
+    private void alignIdSequences() {
+        for (String table : POOLED_ID_TABLES) {
+            String sequence = table + "_seq";
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS %s INCREMENT BY %d".formatted(sequence, ID_ALLOCATION_SIZE));
+            jdbcTemplate.execute("ALTER SEQUENCE %s INCREMENT BY %d".formatted(sequence, ID_ALLOCATION_SIZE));
+            if (!tableExists(table)) {
+                continue;
+            }
+            jdbcTemplate.queryForObject("""
+                SELECT setval('%1$s', GREATEST((SELECT last_value FROM %1$s), (SELECT COALESCE(MAX(id), 0) FROM %2$s)))
+                """.formatted(sequence, table), Long.class);
+        }
+    }
+
+    /**
+     * Expires lapsed locks and releases all but the newest of duplicate
+     * active locks, which older versions could leave behind, before creating
+     * the index.
+     */
+    private void guardActiveSeatLocks() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("""
+            UPDATE seat_locks SET status = 'EXPIRED', updated_at = ?
+            WHERE status = 'ACTIVE' AND expires_at <= ?
+            """, now, now);
+        int duplicates = jdbcTemplate.update("""
+            UPDATE seat_locks l SET status = 'RELEASED', updated_at = ?
+            WHERE l.status = 'ACTIVE'
+              AND EXISTS (SELECT 1 FROM seat_locks n
+                          WHERE n.screening_id = l.screening_id
+                            AND n.seat_id = l.seat_id
+                            AND n.status = 'ACTIVE'
+                            AND n.id > l.id)
+            """, now);
+        if (duplicates > 0) {
+            log.warn("Released {} duplicate active seat locks", duplicates);
+        }
+        jdbcTemplate.execute("""
+            CREATE UNIQUE INDEX IF NOT EXISTS uk_seat_locks_active_seat
+            ON seat_locks (screening_id, seat_id) WHERE status = 'ACTIVE'
+            """);
+    }
+
+    /**
+     * Pending keys have no response yet; older versions created the column
+     * as {@code NOT NULL}.
+     */
+    private void allowPendingIdempotencyKeys() {
+        if (!tableExists("checkout_idempotency_keys")) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE checkout_idempotency_keys ALTER COLUMN response DROP NOT NULL");
+    }
+
+    /**
+     * Idempotency keys used to be unique across all users; the primary key
+     * now includes the username.
+     */
+    private void scopeIdempotencyKeysToUsers() {
+        if (!tableExists("checkout_idempotency_keys")) {
+            return;
+        }
+        List<String> globalKeys = jdbcTemplate.queryForList("""
+            SELECT conname FROM pg_constraint
+            WHERE conrelid = 'checkout_idempotency_keys'::regclass
+              AND contype = 'p'
+              AND array_length(conkey, 1) = 1
+            """, String.class);
+        for (String constraint : globalKeys) {
+            jdbcTemplate.execute("ALTER TABLE checkout_idempotency_keys DROP CONSTRAINT %s, ADD PRIMARY KEY (username, idempotency_key)"
+                .formatted(constraint));
+            log.info("Scoped checkout idempotency keys to their users");
+        }
+    }
+
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+    }
+}
@@ -0,0 +1,62 @@
+package com.cinema.config;
+
+import com.cinema.seating.AmqpSeatEventBus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Seat events between application nodes over RabbitMQ, enabled with
+ * {@code app.seating.events.transport=amqp}. Each node binds an exclusive,
+ * auto-deleted queue to a shared fanout exchange and consumes it with a
+ * single consumer, which keeps the events of each publisher in order.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.seating.events.transport", havingValue = "amqp")
+public class SeatEventAmqpConfig {
+
+    @Bean
+    public FanoutExchange seatEventExchange(@Value("${app.seating.events.exchange:cinema.seat-events}") String name) {
+        return new FanoutExchange(name, true, false);
+    }
+
+    @Bean
+    public AnonymousQueue seatEventQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding seatEventBinding(FanoutExchange seatEventExchange, AnonymousQueue seatEventQueue) {
+        return BindingBuilder.bind(seatEventQueue).to(seatEventExchange);
+    }
+
+    @Bean
+    public AmqpSeatEventBus seatEventBus(RabbitTemplate rabbitTemplate,
+                                         ObjectMapper objectMapper,
+                                         FanoutExchange seatEventExchange,
+                                         @Value("${app.seating.events.confirm-timeout-ms:5000}") long confirmTimeoutMillis) {
+        return new AmqpSeatEventBus(rabbitTemplate, objectMapper, seatEventExchange.getName(), confirmTimeoutMillis);
+    }
+
+    @Bean
+    public SimpleMessageListenerContainer seatEventListenerContainer(ConnectionFactory connectionFactory,
+                                                                     AnonymousQueue seatEventQueue,
+                                                                     AmqpSeatEventBus seatEventBus,
+                                                                     @Value("${app.seating.events.prefetch:250}") int prefetch) {
+        SimpleMessageListenerContainer container = new SimpleMessageListenerContainer(connectionFactory);
+        container.setQueues(seatEventQueue);
+        container.setMessageListener(seatEventBus);
+        container.setConcurrentConsumers(1);
+        container.setPrefetchCount(prefetch);
+        return container;
+    }
+}
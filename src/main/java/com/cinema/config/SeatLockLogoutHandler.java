@@ -0,0 +1,39 @@
+package com.cinema.config;
+
+import com.cinema.service.SeatReservationService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.logout.LogoutHandler;
+
+import java.util.List;
+
+/**
+ * Frees the seats held by the session that is logging out. Runs before the
+ * session is invalidated, while its id is still known; a failure is logged
+ * and left to the session sweep so it never blocks the logout.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class SeatLockLogoutHandler implements LogoutHandler {
+
+    private final ObjectProvider<SeatReservationService> seatReservationService;
+
+    @Override
+    public void logout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
+        HttpSession session = request.getSession(false);
+        SeatReservationService service = seatReservationService.getIfAvailable();
+        if (session == null || service == null) {
+            return;
+        }
+        try {
+            service.releaseSessionLocks(List.of(session.getId()));
+        } catch (RuntimeException ex) {
+            log.warn("Unable to release seat locks of session on logout", ex);
+        }
+    }
+}
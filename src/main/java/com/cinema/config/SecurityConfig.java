@@ -1,6 +1,8 @@
 package com.cinema.config;
 
+import com.cinema.service.SeatReservationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -24,14 +26,15 @@ import org.springframework.http.HttpStatus;
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    private final ObjectProvider<SeatReservationService> seatReservationService;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
             .authorizeHttpRequests(auth -> auth
                 // Public endpoints - Static resources and authentication pages
                 .requestMatchers("/", "/home", "/about", "/contact", "/css/**", "/js/**", "/images/**", "/login", "/register").permitAll()
-                // Public booking lookups (id and number)
-                .requestMatchers(HttpMethod.GET, "/api/v1/bookings/*").permitAll()
+                // Public booking lookup by number, which doubles as the ticket link
                 .requestMatchers(HttpMethod.GET, "/api/v1/bookings/number/**").permitAll()
                 // Booking endpoints must be authenticated for other operations
                 .requestMatchers("/api/v1/bookings/**", "/bookings/**").authenticated()
@@ -39,6 +42,9 @@ public class SecurityConfig {
                 // Public API Endpoints (GET only)
                 .requestMatchers(HttpMethod.GET, "/api/v1/movies/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/v1/screenings/**").permitAll()
+                // Actuator: health is public, everything else (metrics) is admin-only
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 // Swagger/OpenAPI restricted to admins (must be above catch-all GET rule)
                 .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**", "/api-docs/**").hasRole("ADMIN")
                 // Allow other GET requests for public access (will 404 if not found, not 401)
@@ -83,6 +89,7 @@ public class SecurityConfig {
             .logout(logout -> logout
                 .logoutUrl("/logout")
                 .logoutSuccessUrl("/login?logout=true")
+                .addLogoutHandler(new SeatLockLogoutHandler(seatReservationService))
                 .invalidateHttpSession(true)
                 .deleteCookies("JSESSIONID", "cinema-remember-me")
                 .permitAll()
@@ -0,0 +1,43 @@
+package com.cinema.controller.rest;
+
+import com.cinema.dto.SeatSubscriberStatsDTO;
+import com.cinema.dto.SeatSubscriberStatsDTO.ScreeningSubscribers;
+import com.cinema.seating.SeatSubscriptionRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Comparator;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/seating")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin Seating", description = "Admin endpoints for live seat-map activity")
+@SecurityRequirement(name = "bearerAuth")
+public class AdminSeatingRestController {
+
+    private final SeatSubscriptionRegistry subscriptionRegistry;
+
+    @GetMapping("/subscribers")
+    @Operation(summary = "Get live seat-map subscribers",
+               description = "Returns the number of clients currently watching the seat map of each screening")
+    public ResponseEntity<SeatSubscriberStatsDTO> getSubscribers() {
+        List<ScreeningSubscribers> screenings = subscriptionRegistry.subscriberCounts().entrySet().stream()
+            .map(entry -> new ScreeningSubscribers(entry.getKey(), entry.getValue()))
+            .sorted(Comparator.comparingInt(ScreeningSubscribers::subscribers).reversed()
+                .thenComparing(ScreeningSubscribers::screeningId))
+            .toList();
+        return ResponseEntity.ok(SeatSubscriberStatsDTO.builder()
+            .totalSubscribers(screenings.stream().mapToInt(ScreeningSubscribers::subscribers).sum())
+            .screenings(screenings)
+            .build());
+    }
+}
@@ -16,10 +16,15 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -53,32 +58,64 @@ public class BookingRestController {
         return ResponseEntity.ok(bookings);
     }
 
-    @Operation(summary = "Get booking by ID", description = "Retrieve a single booking by its ID")
+    @Operation(summary = "Get booking by ID", description = "Retrieve one of your bookings by its ID (any booking for admins)")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved booking"),
-        @ApiResponse(responseCode = "404", description = "Booking not found")
+        @ApiResponse(responseCode = "401", description = "Not authenticated"),
+        @ApiResponse(responseCode = "404", description = "Booking not found or owned by another user")
     })
     @GetMapping("/{id}")
     public ResponseEntity<BookingDTO> getBookingById(
-            @Parameter(description = "Booking ID") @PathVariable Long id) {
+            @Parameter(description = "Booking ID") @PathVariable Long id,
+            Authentication authentication) {
         
         log.info("GET /api/v1/bookings/{}", id);
         
-        BookingDTO booking = bookingService.getBookingById(id);
+        BookingDTO booking = bookingService.getBookingById(id, authentication.getName(), isAdmin(authentication));
         return ResponseEntity.ok(booking);
     }
 
-    @Operation(summary = "Get booking by booking number", description = "Retrieve a booking by its unique booking number")
+    @Operation(summary = "Get booking by booking number", description = "Retrieve a booking by its booking number; the number itself grants access unless it is one of the older, guessable ones")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved booking"),
+        @ApiResponse(responseCode = "404", description = "Booking not found or not visible to the requester")
+    })
     @GetMapping("/number/{bookingNumber}")
     public ResponseEntity<BookingDTO> getBookingByNumber(
-            @Parameter(description = "Booking number") @PathVariable String bookingNumber) {
+            @Parameter(description = "Booking number") @PathVariable String bookingNumber,
+            Authentication authentication) {
         
         log.info("GET /api/v1/bookings/number/{}", bookingNumber);
         
-        BookingDTO booking = bookingService.getBookingByBookingNumber(bookingNumber);
+        BookingDTO booking = bookingService.getBookingByBookingNumber(bookingNumber,
+            nameOf(authentication), isAdmin(authentication));
         return ResponseEntity.ok(booking);
     }
 
+    @Operation(summary = "Get booking QR code", description = "Returns the ticket QR code of a booking as PNG, visible like the booking itself")
+    @GetMapping(value = "/number/{bookingNumber}/qr", produces = MediaType.IMAGE_PNG_VALUE)
+    public ResponseEntity<byte[]> getBookingQrCode(
+            @Parameter(description = "Booking number") @PathVariable String bookingNumber,
+            @Parameter(description = "Image width and height in pixels") @RequestParam(required = false) Integer size,
+            Authentication authentication,
+            WebRequest webRequest) {
+
+        log.debug("GET /api/v1/bookings/number/{}/qr", bookingNumber);
+
+        // The image itself never changes, but a cancelled booking must stop yielding it,
+        // so clients revalidate every time and only skip the download.
+        byte[] png = bookingService.getBookingQrCode(bookingNumber, size, nameOf(authentication), isAdmin(authentication));
+        String eTag = "\"qr-" + DigestUtils.md5DigestAsHex(png) + "\"";
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .eTag(eTag)
+            .contentType(MediaType.IMAGE_PNG)
+            .body(png);
+    }
+
     @Operation(summary = "Get bookings by user", description = "Retrieve all bookings for a specific user")
     @GetMapping("/user/{userId}")
     public ResponseEntity<Page<BookingDTO>> getBookingsByUser(
@@ -145,7 +182,7 @@ public class BookingRestController {
     @PostMapping
     public ResponseEntity<BookingDTO> createBooking(
             @Valid @RequestBody BookingDTO bookingDTO,
-            org.springframework.security.core.Authentication authentication) {
+            Authentication authentication) {
         
         // Get user from authentication
         String username = authentication.getName();
@@ -166,13 +203,14 @@ public class BookingRestController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<BookingDTO> updateBooking(
             @Parameter(description = "Booking ID") @PathVariable Long id,
-            @Valid @RequestBody BookingDTO bookingDTO) {
+            @Valid @RequestBody BookingDTO bookingDTO,
+            Authentication authentication) {
         
         log.info("PUT /api/v1/bookings/{} - Updating booking", id);
         
         // For now, only admin can update basic booking info
         // Note: BookingService doesn't have updateBooking method, handle through service layer
-        BookingDTO booking = bookingService.getBookingById(id);
+        BookingDTO booking = bookingService.getBookingById(id, authentication.getName(), isAdmin(authentication));
         return ResponseEntity.ok(booking);
     }
 
@@ -210,4 +248,14 @@ public class BookingRestController {
         BookingDTO cancelledBooking = bookingService.cancelBooking(id, reason != null ? reason : "User requested");
         return ResponseEntity.ok(cancelledBooking);
     }
+
+    // Anonymous requests to the public lookups have no authentication.
+    private static String nameOf(Authentication authentication) {
+        return authentication != null ? authentication.getName() : null;
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication != null && authentication.getAuthorities().stream()
+            .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
 }
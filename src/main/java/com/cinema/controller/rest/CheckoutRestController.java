@@ -2,6 +2,7 @@ package com.cinema.controller.rest;
 
 import com.cinema.dto.CheckoutRequest;
 import com.cinema.dto.CheckoutResponse;
+import com.cinema.service.CheckoutIdempotencyService;
 import com.cinema.service.CheckoutService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -13,6 +14,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
@@ -25,19 +27,33 @@ import java.security.Principal;
 @Tag(name = "Checkout", description = "Finalize ticket purchase for a screening")
 public class CheckoutRestController {
 
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+
     private final CheckoutService checkoutService;
+    private final CheckoutIdempotencyService checkoutIdempotencyService;
 
-    @Operation(summary = "Complete checkout", description = "Captures payment details, confirms the booking, and returns a QR code")
+    @Operation(summary = "Complete checkout",
+        description = "Captures payment details, confirms the booking, and returns the URL of the ticket QR code. "
+            + "Requests repeating an Idempotency-Key get the original confirmation back instead of a second booking.")
     @PostMapping
     public ResponseEntity<CheckoutResponse> checkout(@PathVariable Long screeningId,
                                                      @Valid @RequestBody CheckoutRequest request,
+                                                     @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
                                                      HttpServletRequest servletRequest,
                                                      Principal principal) {
         if (principal == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Login required to checkout");
         }
         String sessionId = servletRequest.getSession(true).getId();
-        CheckoutResponse response = checkoutService.finalizeCheckout(screeningId, request, sessionId, principal.getName());
+        String username = principal.getName();
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(checkoutService.finalizeCheckout(screeningId, request, sessionId, username));
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        CheckoutResponse response = checkoutIdempotencyService.execute(idempotencyKey, username, screeningId,
+            () -> checkoutService.finalizeCheckout(screeningId, request, sessionId, username, idempotencyKey));
         return ResponseEntity.ok(response);
     }
 }
@@ -1,8 +1,12 @@
 package com.cinema.controller.rest;
 
+import com.cinema.dto.CompactSeatMapResponse;
+import com.cinema.dto.ScreeningAvailabilityDTO;
 import com.cinema.dto.ScreeningDTO;
+import com.cinema.dto.SeatLayoutResponse;
 import com.cinema.dto.SeatMapResponse;
 import com.cinema.service.ScreeningService;
+import com.cinema.service.SeatMapStreamService;
 import com.cinema.service.SeatReservationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,19 +17,26 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.security.Principal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/v1/screenings")
@@ -36,6 +47,10 @@ public class ScreeningRestController {
 
     private final ScreeningService screeningService;
     private final SeatReservationService seatReservationService;
+    private final SeatMapStreamService seatMapStreamService;
+
+    @Value("${app.seating.availability.max-age-seconds:5}")
+    private long availabilityMaxAgeSeconds;
 
     @Operation(summary = "Get all upcoming screenings", description = "Retrieve a paginated list of all upcoming screenings")
     @ApiResponses(value = {
@@ -60,15 +75,105 @@ public class ScreeningRestController {
         return ResponseEntity.ok(screenings);
     }
 
-    @Operation(summary = "Get seat map for screening", description = "Retrieve hall layout and occupied seats for a screening")
+    @Operation(summary = "Get availability of several screenings",
+        description = "Returns sold, held and free seat counts for up to 200 screenings. Responses may be cached for a few seconds")
+    @GetMapping("/availability")
+    public ResponseEntity<List<ScreeningAvailabilityDTO>> getAvailability(
+            @Parameter(description = "Comma-separated screening IDs") @RequestParam List<Long> ids) {
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.maxAge(availabilityMaxAgeSeconds, TimeUnit.SECONDS).cachePublic())
+            .body(seatReservationService.getAvailability(ids));
+    }
+
+    @Operation(summary = "Get seat map for screening",
+        description = "Retrieve hall layout and occupied seats for a screening. Supports If-None-Match: the ETag changes whenever the seat map does")
     @GetMapping("/{id}/seats")
     public ResponseEntity<SeatMapResponse> getSeatMap(@PathVariable Long id,
                                                       HttpServletRequest request,
+                                                      WebRequest webRequest,
                                                       Principal principal) {
         String sessionId = request.getSession(true).getId();
         String username = principal != null ? principal.getName() : null;
+        if (webRequest.checkNotModified(seatMapETag(seatReservationService.getSeatMapVersion(id), sessionId, username, ""))) {
+            return null;
+        }
         SeatMapResponse seatMap = seatReservationService.getSeatMap(id, sessionId, username);
-        return ResponseEntity.ok(seatMap);
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .eTag(seatMapETag(seatMap.getVersion(), sessionId, username, ""))
+            .body(seatMap);
+    }
+
+    @Operation(summary = "Stream seat map for screening",
+        description = "Server-Sent Events: a snapshot event, then a delta event per change, each with the seat-map version as id. "
+            + "Reconnecting with Last-Event-ID resumes with the missed deltas, or a new snapshot if they are no longer available")
+    @GetMapping(value = "/{id}/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSeatMap(@PathVariable Long id,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return seatMapStreamService.open(id, lastEventId);
+    }
+
+    @Operation(summary = "Get hall layout for screening",
+        description = "Retrieve the static seat layout that compact seat maps are packed against")
+    @GetMapping("/{id}/seats/layout")
+    public ResponseEntity<SeatLayoutResponse> getSeatLayout(@PathVariable Long id, WebRequest webRequest) {
+        SeatLayoutResponse layout = seatReservationService.getSeatLayout(id);
+        String eTag = "\"layout-" + Integer.toHexString(layout.getLayoutId()) + "\"";
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache().cachePublic())
+            .eTag(eTag)
+            .body(layout);
+    }
+
+    @Operation(summary = "Get compact seat map for screening",
+        description = "Seat states packed into two bits per seat against the layout from /seats/layout. "
+            + "Selected with ?format=compact or Accept: " + CompactSeatMapResponse.MEDIA_TYPE)
+    @GetMapping(value = "/{id}/seats", params = "format=compact")
+    public ResponseEntity<CompactSeatMapResponse> getCompactSeatMap(@PathVariable Long id,
+                                                                    HttpServletRequest request,
+                                                                    WebRequest webRequest,
+                                                                    Principal principal) {
+        String sessionId = request.getSession(true).getId();
+        String username = principal != null ? principal.getName() : null;
+        if (webRequest.checkNotModified(seatMapETag(seatReservationService.getSeatMapVersion(id), sessionId, username, "compact"))) {
+            return null;
+        }
+        CompactSeatMapResponse seatMap = seatReservationService.getCompactSeatMap(id, sessionId, username);
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .eTag(seatMapETag(seatMap.getVersion(), sessionId, username, "compact"))
+            .body(seatMap);
+    }
+
+    @Operation(hidden = true)
+    @GetMapping(value = "/{id}/seats", produces = CompactSeatMapResponse.MEDIA_TYPE)
+    public ResponseEntity<CompactSeatMapResponse> getCompactSeatMapByMediaType(@PathVariable Long id,
+                                                                               HttpServletRequest request,
+                                                                               WebRequest webRequest,
+                                                                               Principal principal) {
+        return getCompactSeatMap(id, request, webRequest, principal);
+    }
+
+    @Operation(summary = "Get binary seat map for screening",
+        description = "The compact seat map as raw bytes, selected with Accept: " + CompactSeatMapResponse.BINARY_MEDIA_TYPE)
+    @GetMapping(value = "/{id}/seats", produces = CompactSeatMapResponse.BINARY_MEDIA_TYPE)
+    public ResponseEntity<byte[]> getBinarySeatMap(@PathVariable Long id,
+                                                   HttpServletRequest request,
+                                                   WebRequest webRequest,
+                                                   Principal principal) {
+        String sessionId = request.getSession(true).getId();
+        String username = principal != null ? principal.getName() : null;
+        if (webRequest.checkNotModified(seatMapETag(seatReservationService.getSeatMapVersion(id), sessionId, username, "binary"))) {
+            return null;
+        }
+        CompactSeatMapResponse seatMap = seatReservationService.getCompactSeatMap(id, sessionId, username);
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .eTag(seatMapETag(seatMap.getVersion(), sessionId, username, "binary"))
+            .body(seatMap.toBytes());
     }
 
     @Operation(summary = "Get screening by ID", description = "Retrieve a single screening by its ID")
@@ -192,4 +297,16 @@ public class ScreeningRestController {
         screeningService.deleteScreening(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Every lock, release, booking or cancellation bumps the seat-map version,
+     * including changes to the requester's own holds, so the version alone
+     * decides freshness. The requester part only keeps one visitor's
+     * {@code selectedByYou} flags from validating another visitor's copy, and
+     * the variant keeps the representations apart.
+     */
+    private String seatMapETag(long version, String sessionId, String username, String variant) {
+        String tag = version + "-" + Integer.toHexString(Objects.hash(sessionId, username));
+        return "\"" + (variant.isEmpty() ? tag : tag + "-" + variant) + "\"";
+    }
 }
@@ -1,10 +1,14 @@
 package com.cinema.controller.rest;
 
 import com.cinema.dto.SeatStatusDTO;
+import com.cinema.entity.Seat;
 import com.cinema.service.SeatReservationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +21,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.security.Principal;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/screenings/{screeningId}/locks")
@@ -39,6 +44,33 @@ public class SeatReservationRestController {
         return ResponseEntity.ok(seatStatus);
     }
 
+    @Operation(summary = "Lock several seats at once",
+        description = "Locks all listed seats for the current session in one transaction, or none of them if any seat is unavailable")
+    @PostMapping("/batch")
+    public ResponseEntity<List<SeatStatusDTO>> lockSeats(@PathVariable Long screeningId,
+                                                         @Valid @RequestBody SeatBatchLockRequest request,
+                                                         HttpServletRequest servletRequest,
+                                                         Principal principal) {
+        String sessionId = servletRequest.getSession(true).getId();
+        String username = principal != null ? principal.getName() : null;
+        List<SeatStatusDTO> seatStatuses = seatReservationService.lockSeats(screeningId, request.seatIds(), sessionId, username);
+        return ResponseEntity.ok(seatStatuses);
+    }
+
+    @Operation(summary = "Lock the best available seats",
+        description = "Finds the best block of adjacent free seats for the party, closest to the centre of the hall, and locks it")
+    @PostMapping("/best-available")
+    public ResponseEntity<List<SeatStatusDTO>> lockBestAvailable(@PathVariable Long screeningId,
+                                                                 @Valid @RequestBody BestAvailableRequest request,
+                                                                 HttpServletRequest servletRequest,
+                                                                 Principal principal) {
+        String sessionId = servletRequest.getSession(true).getId();
+        String username = principal != null ? principal.getName() : null;
+        List<SeatStatusDTO> seatStatuses = seatReservationService.lockBestAvailable(
+            screeningId, request.partySize(), request.seatType(), sessionId, username);
+        return ResponseEntity.ok(seatStatuses);
+    }
+
     @Operation(summary = "Release a seat lock for the current session")
     @DeleteMapping("/{seatId}")
     public ResponseEntity<Void> releaseSeat(@PathVariable Long screeningId,
@@ -61,4 +93,8 @@ public class SeatReservationRestController {
     }
 
     public record SeatLockRequest(@NotNull Long seatId) {}
+
+    public record SeatBatchLockRequest(@NotEmpty List<@NotNull Long> seatIds) {}
+
+    public record BestAvailableRequest(@NotNull @Min(1) Integer partySize, Seat.SeatType seatType) {}
 }
@@ -3,11 +3,13 @@ package com.cinema.dto;
 import com.cinema.entity.TicketTypeName;
 import lombok.Builder;
 import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 
 import java.time.LocalDateTime;
 
 @Value
 @Builder
+@Jacksonized
 public class CartItemResponse {
     Long seatId;
     Integer rowNumber;
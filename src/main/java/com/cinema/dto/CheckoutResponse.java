@@ -2,15 +2,24 @@ package com.cinema.dto;
 
 import lombok.Builder;
 import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 
 import java.util.List;
 
 @Value
 @Builder
+@Jacksonized
 public class CheckoutResponse {
     String bookingNumber;
     Double totalPrice;
     String paymentReference;
     List<CartItemResponse> items;
+    String qrCodeUrl;
+
+    /**
+     * @deprecated Always {@code null}; the ticket QR code is no longer
+     * embedded in the response. Load the PNG from {@link #qrCodeUrl}.
+     */
+    @Deprecated
     String qrCodeImage;
 }
@@ -0,0 +1,46 @@
+package com.cinema.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Seat map packed against a {@link SeatLayoutResponse} with the same
+ * {@code layoutId}. {@code states} holds two bits per seat, four seats per
+ * byte starting from the lowest bits: 0 free, 1 held, 2 reserved, 3 sold.
+ * {@code ownHolds} has one bit per seat, set for the requester's own holds.
+ * Both are base64 strings in JSON.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class CompactSeatMapResponse {
+
+    public static final String MEDIA_TYPE = "application/vnd.cinema.seat-map.compact+json";
+    public static final String BINARY_MEDIA_TYPE = "application/vnd.cinema.seat-map.compact";
+
+    int holdMinutes;
+    long version;
+    int layoutId;
+    int seatCount;
+    byte[] states;
+    byte[] ownHolds;
+
+    /**
+     * Binary form: version (8 bytes), layoutId, seatCount and holdMinutes
+     * (4 bytes each, big-endian), followed by {@code states} and
+     * {@code ownHolds}.
+     */
+    public byte[] toBytes() {
+        return ByteBuffer.allocate(20 + states.length + ownHolds.length)
+            .putLong(version)
+            .putInt(layoutId)
+            .putInt(seatCount)
+            .putInt(holdMinutes)
+            .put(states)
+            .put(ownHolds)
+            .array();
+    }
+}
@@ -0,0 +1,20 @@
+package com.cinema.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Broadcast counterpart of {@link CompactSeatMapResponse}: the packed states of
+ * every seat as of {@code version}. Each update replaces the previous one, so
+ * a client only has to ignore updates older than the map it holds.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class CompactSeatMapUpdate {
+    Long screeningId;
+    long version;
+    int layoutId;
+    byte[] states;
+}
@@ -0,0 +1,21 @@
+package com.cinema.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Seat availability of a screening. {@code held} covers seats of pending
+ * bookings and, for screenings with a resident seat inventory, seats locked
+ * during selection.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class ScreeningAvailabilityDTO {
+    Long screeningId;
+    int totalSeats;
+    int sold;
+    int held;
+    int free;
+}
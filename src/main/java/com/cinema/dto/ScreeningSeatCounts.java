@@ -0,0 +1,8 @@
+package com.cinema.dto;
+
+/**
+ * Seat counters of a screening as read by
+ * {@code ScreeningRepository.findSeatCounts}.
+ */
+public record ScreeningSeatCounts(Long screeningId, Integer totalSeats, Integer sold, Integer held) {
+}
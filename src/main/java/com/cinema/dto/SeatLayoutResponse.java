@@ -0,0 +1,23 @@
+package com.cinema.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Static seat layout of a screening's hall as parallel arrays. The position of
+ * a seat in these arrays is its index in {@link CompactSeatMapResponse} and
+ * {@link CompactSeatMapUpdate}.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class SeatLayoutResponse {
+    Long hallId;
+    int rows;
+    int cols;
+    int layoutId;
+    long[] seatIds;
+    int[] rowNumbers;
+    int[] seatNumbers;
+}
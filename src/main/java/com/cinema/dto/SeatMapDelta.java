@@ -0,0 +1,22 @@
+package com.cinema.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Seats whose state changed between {@code fromVersion} (exclusive) and
+ * {@code version} (inclusive). A client whose seat map is older than
+ * {@code fromVersion} has missed an update and should reload the full map.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class SeatMapDelta {
+    Long screeningId;
+    long fromVersion;
+    long version;
+    List<SeatStatusDTO> seats;
+}
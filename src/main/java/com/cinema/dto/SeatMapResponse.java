@@ -13,5 +13,6 @@ public class SeatMapResponse {
     int rows;
     int cols;
     int holdMinutes;
+    long version;
     List<SeatStatusDTO> seats;
 }
@@ -0,0 +1,22 @@
+package com.cinema.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Live seat-map subscribers, in total and per watched screening (most
+ * watched first).
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class SeatSubscriberStatsDTO {
+    int totalSubscribers;
+    List<ScreeningSubscribers> screenings;
+
+    public record ScreeningSubscribers(Long screeningId, int subscribers) {
+    }
+}
@@ -19,7 +19,8 @@ import lombok.ToString;
 public class BookingSeat {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seats_seq")
+    @SequenceGenerator(name = "booking_seats_seq", sequenceName = "booking_seats_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,69 @@
+package com.cinema.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * A checkout claimed under the client's idempotency key. The key is inserted
+ * as {@code PENDING} before the checkout runs and completed with the response
+ * in the same transaction as the booking. The response is kept as JSON and
+ * returned as it was to repeats of the key. Keys are scoped to the user, so
+ * clients of different users cannot collide on or probe each other's keys.
+ */
+@Entity
+@IdClass(CheckoutIdempotencyKey.Key.class)
+@Table(name = "checkout_idempotency_keys", indexes = {
+    @Index(name = "idx_checkout_idempotency_keys_expires", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CheckoutIdempotencyKey {
+
+    @Id
+    @Column(name = "username", length = 100)
+    private String username;
+
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    @Column(name = "screening_id", nullable = false)
+    private Long screeningId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    @ColumnDefault("'COMPLETED'")
+    private IdempotencyStatus status;
+
+    @Column(name = "response", columnDefinition = "TEXT")
+    private String response;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public enum IdempotencyStatus {
+        PENDING,
+        COMPLETED
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private String username;
+        private String idempotencyKey;
+    }
+}
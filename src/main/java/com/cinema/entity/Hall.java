@@ -2,6 +2,7 @@
 
 package com.cinema.entity;
 
+import com.cinema.seating.HallLayoutInvalidator;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -19,6 +20,7 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EntityListeners(HallLayoutInvalidator.class)
 public class Hall {
 
     @Id
@@ -8,6 +8,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -55,6 +56,30 @@ public class Screening {
     @Builder.Default
     private Boolean active = true;
 
+    /**
+     * Seats of active bookings, kept up to date by relative updates from
+     * {@code ScreeningSeatCounter}; never written through the entity, so a
+     * stale copy cannot overwrite a concurrent change.
+     */
+    @Column(name = "seats_sold", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer seatsSold = 0;
+
+    @Column(name = "seats_held", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer seatsHeld = 0;
+
+    /**
+     * Seat-map version shared by all nodes, taken by every committed seat
+     * change; like the counters above it is only written by relative updates.
+     */
+    @Column(name = "seat_version", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Long seatVersion = 0L;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -2,6 +2,7 @@
 
 package com.cinema.entity;
 
+import com.cinema.seating.HallLayoutInvalidator;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -21,6 +22,7 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EntityListeners(HallLayoutInvalidator.class)
 public class Seat {
 
     @Id
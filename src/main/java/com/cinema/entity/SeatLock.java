@@ -13,7 +13,9 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "seat_locks")
+@Table(name = "seat_locks", indexes = {
+    @Index(name = "idx_seat_locks_screening_status", columnList = "screening_id, status, expires_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -23,7 +25,8 @@ import java.time.LocalDateTime;
 public class SeatLock {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seat_locks_seq")
+    @SequenceGenerator(name = "seat_locks_seq", sequenceName = "seat_locks_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
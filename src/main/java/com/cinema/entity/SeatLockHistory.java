@@ -0,0 +1,57 @@
+package com.cinema.entity;
+
+import com.cinema.entity.SeatLock.SeatLockStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Archived copy of a released or expired {@link SeatLock}. Rows keep the
+ * original lock id and plain seat/screening ids, so archiving never depends
+ * on the referenced rows still existing.
+ */
+@Entity
+@Table(name = "seat_lock_history", indexes = {
+    @Index(name = "idx_seat_lock_history_screening", columnList = "screening_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SeatLockHistory {
+
+    @Id
+    private Long id;
+
+    @Column(name = "seat_id", nullable = false)
+    private Long seatId;
+
+    @Column(name = "screening_id", nullable = false)
+    private Long screeningId;
+
+    @Column(name = "session_id", length = 100, nullable = false)
+    private String sessionId;
+
+    @Column(name = "username", length = 100)
+    private String username;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private SeatLockStatus status;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -22,4 +22,7 @@ public interface BookingSeatRepository extends JpaRepository<BookingSeat, Long>
 
     @Query("SELECT bs FROM BookingSeat bs WHERE bs.booking.screening.id = :screeningId AND bs.booking.status <> 'CANCELLED'")
     List<BookingSeat> findActiveSeatsByScreeningId(@Param("screeningId") Long screeningId);
+
+    @Query("SELECT COUNT(DISTINCT bs.seat.id) FROM BookingSeat bs WHERE bs.booking.screening.id = :screeningId AND bs.booking.status <> 'CANCELLED'")
+    long countActiveSeatsByScreeningId(@Param("screeningId") Long screeningId);
 }
@@ -1,14 +1,18 @@
 package com.cinema.repository;
 
+import com.cinema.dto.ScreeningSeatCounts;
 import com.cinema.entity.Screening;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -62,4 +66,35 @@ public interface ScreeningRepository extends JpaRepository<Screening, Long> {
         @Param("endDate") LocalDateTime endDate,
         Pageable pageable
     );
+
+    @Query("SELECT new com.cinema.dto.ScreeningSeatCounts(s.id, h.totalSeats, s.seatsSold, s.seatsHeld) " +
+           "FROM Screening s JOIN s.hall h WHERE s.id IN :ids")
+    List<ScreeningSeatCounts> findSeatCounts(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Screening s SET s.seatsSold = s.seatsSold + :sold, s.seatsHeld = s.seatsHeld + :held WHERE s.id = :screeningId")
+    int adjustSeatCounters(@Param("screeningId") Long screeningId, @Param("sold") int sold, @Param("held") int held);
+
+    @Query("SELECT s.seatVersion FROM Screening s WHERE s.id = :screeningId")
+    long findSeatVersion(@Param("screeningId") Long screeningId);
+
+    @Query("SELECT s.id FROM Screening s WHERE s.endTime > :now AND s.id > :afterId ORDER BY s.id")
+    List<Long> findUnfinishedIdsAfter(@Param("now") LocalDateTime now, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Recounts the sold and held seats of the given screenings and writes
+     * only the counters that drifted, each call in its own short transaction.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE screenings s SET seats_sold = c.sold, seats_held = c.held " +
+           "FROM (SELECT sc.id, " +
+           "COUNT(bs.id) FILTER (WHERE bs.seat_status = 'OCCUPIED') AS sold, " +
+           "COUNT(bs.id) FILTER (WHERE bs.seat_status <> 'OCCUPIED') AS held " +
+           "FROM screenings sc " +
+           "LEFT JOIN bookings b ON b.screening_id = sc.id AND b.status <> 'CANCELLED' " +
+           "LEFT JOIN booking_seats bs ON bs.booking_id = b.id " +
+           "WHERE sc.id IN (:ids) GROUP BY sc.id) c " +
+           "WHERE s.id = c.id AND (s.seats_sold <> c.sold OR s.seats_held <> c.held)", nativeQuery = true)
+    int recountSeatCounters(@Param("ids") Collection<Long> ids);
 }
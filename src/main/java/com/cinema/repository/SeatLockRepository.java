@@ -1,13 +1,15 @@
 package com.cinema.repository;
 
 import com.cinema.entity.SeatLock;
-import com.cinema.entity.SeatLock.SeatLockStatus;
+import com.cinema.seating.SeatLockExpiry;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -50,6 +52,29 @@ public interface SeatLockRepository extends JpaRepository<SeatLock, Long> {
                                               @Param("username") String username,
                                               @Param("now") LocalDateTime now);
 
-    List<SeatLock> findByStatusAndExpiresAtBefore(SeatLockStatus status, LocalDateTime timestamp);
+    @Query("SELECT sl FROM SeatLock sl WHERE sl.screening.id = :screeningId AND sl.status = 'ACTIVE' " +
+        "AND sl.expiresAt > :now AND (sl.sessionId = :sessionId OR sl.username = :username)")
+    List<SeatLock> findActiveLocksForOwner(@Param("screeningId") Long screeningId,
+                                           @Param("sessionId") String sessionId,
+                                           @Param("username") String username,
+                                           @Param("now") LocalDateTime now);
+
+    @Query("SELECT DISTINCT sl.screening.id FROM SeatLock sl WHERE sl.status = 'ACTIVE' AND sl.sessionId IN :sessionIds " +
+           "ORDER BY sl.screening.id")
+    List<Long> findScreeningIdsWithActiveLocksForSessions(@Param("sessionIds") Collection<String> sessionIds);
+
+    @Modifying
+    @Query("UPDATE SeatLock sl SET sl.status = 'RELEASED', sl.updatedAt = :now WHERE sl.status = 'ACTIVE' " +
+        "AND sl.sessionId IN :sessionIds")
+    int releaseSessionLocks(@Param("sessionIds") Collection<String> sessionIds, @Param("now") LocalDateTime now);
+
+    @Query("SELECT new com.cinema.seating.SeatLockExpiry(sl.screening.id, sl.seat.id, sl.expiresAt) " +
+        "FROM SeatLock sl WHERE sl.status = 'ACTIVE'")
+    List<SeatLockExpiry> findPendingExpiries();
+
+    @Query("SELECT COUNT(DISTINCT sl.seat.id) FROM SeatLock sl WHERE sl.screening.id = :screeningId " +
+        "AND sl.status = 'ACTIVE' AND sl.expiresAt > :now")
+    long countActiveLockedSeats(@Param("screeningId") Long screeningId,
+                                @Param("now") LocalDateTime now);
 
 }
@@ -0,0 +1,83 @@
+package com.cinema.repository.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Claims and completes checkout idempotency keys with explicit statements, so
+ * the primary key on {@code checkout_idempotency_keys} decides which request
+ * runs a checkout across all nodes. Every statement is scoped to the user the
+ * key belongs to.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CheckoutIdempotencyKeyJdbcRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the user's key as {@code PENDING} until {@code pendingUntil},
+     * first dropping an expired entry of the same user and key. Returns
+     * {@code false} when a live entry already holds the key.
+     */
+    public boolean claim(String key, String username, Long screeningId, LocalDateTime now, LocalDateTime pendingUntil) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("key", key)
+            .addValue("username", username)
+            .addValue("screeningId", screeningId)
+            .addValue("now", Timestamp.valueOf(now))
+            .addValue("pendingUntil", Timestamp.valueOf(pendingUntil));
+        jdbcTemplate.update("""
+            DELETE FROM checkout_idempotency_keys
+            WHERE username = :username AND idempotency_key = :key AND expires_at <= :now
+            """, params);
+        try {
+            jdbcTemplate.update("""
+                INSERT INTO checkout_idempotency_keys
+                    (idempotency_key, username, screening_id, status, created_at, expires_at)
+                VALUES (:key, :username, :screeningId, 'PENDING', :now, :pendingUntil)
+                """, params);
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Stores the response of the claimed key. Returns {@code false} when the
+     * key is no longer pending, e.g. because the claim lapsed and another
+     * request took it over.
+     */
+    public boolean complete(String key, String username, String response, LocalDateTime expiresAt) {
+        return jdbcTemplate.update("""
+            UPDATE checkout_idempotency_keys
+            SET status = 'COMPLETED', response = :response, expires_at = :expiresAt
+            WHERE username = :username AND idempotency_key = :key AND status = 'PENDING'
+            """,
+            new MapSqlParameterSource()
+                .addValue("key", key)
+                .addValue("username", username)
+                .addValue("response", response)
+                .addValue("expiresAt", Timestamp.valueOf(expiresAt))) == 1;
+    }
+
+    /**
+     * Drops the pending claim of a checkout that failed, so the key can be
+     * retried.
+     */
+    public void release(String key, String username) {
+        jdbcTemplate.update("""
+            DELETE FROM checkout_idempotency_keys
+            WHERE username = :username AND idempotency_key = :key AND status = 'PENDING'
+            """,
+            new MapSqlParameterSource()
+                .addValue("key", key)
+                .addValue("username", username));
+    }
+}
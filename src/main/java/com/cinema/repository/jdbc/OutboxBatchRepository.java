@@ -0,0 +1,59 @@
+package com.cinema.repository.jdbc;
+
+import com.cinema.entity.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Drains {@code outbox} in bounded batches. A batch is locked with
+ * {@code SKIP LOCKED}, so several nodes can drain concurrently without
+ * handing out the same rows, and deleted only after it has been published.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxBatchRepository {
+
+    private static final RowMapper<OutboxEvent> ROW_MAPPER = (rs, rowNum) -> OutboxEvent.builder()
+        .id(rs.getLong("id"))
+        .aggregateType(rs.getString("aggregate_type"))
+        .aggregateId(rs.getLong("aggregate_id"))
+        .eventType(rs.getString("event_type"))
+        .payload(rs.getString("payload"))
+        .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+        .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Hands the oldest {@code batchSize} unlocked events to {@code publisher}
+     * and deletes them once it returns, all in one transaction; when the
+     * publisher throws, the rows stay and are published again later. Returns
+     * how many events were published.
+     */
+    @Transactional
+    public int drainBatch(int batchSize, Consumer<List<OutboxEvent>> publisher) {
+        List<OutboxEvent> events = jdbcTemplate.query("""
+            SELECT id, aggregate_type, aggregate_id, event_type, payload, created_at
+            FROM outbox
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """,
+            new MapSqlParameterSource("limit", batchSize),
+            ROW_MAPPER);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        publisher.accept(events);
+        jdbcTemplate.update("DELETE FROM outbox WHERE id IN (:ids)",
+            new MapSqlParameterSource("ids", events.stream().map(OutboxEvent::getId).toList()));
+        return events.size();
+    }
+}
@@ -0,0 +1,56 @@
+package com.cinema.repository.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves terminal seat locks (released or expired) from {@code seat_locks} to
+ * {@code seat_lock_history}, one bounded batch per call.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SeatLockArchiveRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Archives up to {@code batchSize} locks that reached a terminal state
+     * before {@code cutoff} and returns how many were moved.
+     */
+    @Transactional
+    public int archiveBatch(LocalDateTime cutoff, int batchSize, LocalDateTime archivedAt) {
+        List<Long> ids = jdbcTemplate.queryForList("""
+            SELECT id FROM seat_locks
+            WHERE status <> 'ACTIVE'
+              AND COALESCE(updated_at, created_at) < :cutoff
+            ORDER BY id
+            LIMIT :limit
+            """,
+            new MapSqlParameterSource()
+                .addValue("cutoff", Timestamp.valueOf(cutoff))
+                .addValue("limit", batchSize),
+            Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("ids", ids)
+            .addValue("archivedAt", Timestamp.valueOf(archivedAt));
+        jdbcTemplate.update("""
+            INSERT INTO seat_lock_history
+                (id, seat_id, screening_id, session_id, username, status, expires_at, created_at, updated_at, archived_at)
+            SELECT id, seat_id, screening_id, session_id, username, status, expires_at, created_at, updated_at, :archivedAt
+            FROM seat_locks
+            WHERE id IN (:ids)
+            """, params);
+        return jdbcTemplate.update("DELETE FROM seat_locks WHERE id IN (:ids)", params);
+    }
+}
@@ -0,0 +1,89 @@
+package com.cinema.repository.jdbc;
+
+import com.cinema.seating.SeatLockExpiry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Expires lapsed seat locks with set-based updates that report the locks
+ * they expired, so callers free and broadcast exactly those seats.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SeatLockExpiryRepository {
+
+    private static final RowMapper<SeatLockExpiry> ROW_MAPPER = (rs, rowNum) -> new SeatLockExpiry(
+        rs.getLong("screening_id"),
+        rs.getLong("seat_id"),
+        rs.getTimestamp("expires_at").toLocalDateTime());
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Expires every active lock that has lapsed by {@code now}.
+     */
+    public List<SeatLockExpiry> expireAll(LocalDateTime now) {
+        return jdbcTemplate.query("""
+            UPDATE seat_locks SET status = 'EXPIRED', updated_at = :now
+            WHERE status = 'ACTIVE'
+              AND expires_at <= :now
+            RETURNING screening_id, seat_id, expires_at
+            """,
+            new MapSqlParameterSource("now", Timestamp.valueOf(now)),
+            ROW_MAPPER);
+    }
+
+    /**
+     * Expires the lapsed active locks of the given seats of one screening,
+     * so new locks on them do not collide with the unique index on active
+     * locks before the expiry run gets to them.
+     */
+    public int expireLapsed(Long screeningId, Collection<Long> seatIds, LocalDateTime now) {
+        if (seatIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update("""
+            UPDATE seat_locks SET status = 'EXPIRED', updated_at = :now
+            WHERE status = 'ACTIVE'
+              AND expires_at <= :now
+              AND screening_id = :screeningId
+              AND seat_id IN (:seatIds)
+            """,
+            new MapSqlParameterSource()
+                .addValue("now", Timestamp.valueOf(now))
+                .addValue("screeningId", screeningId)
+                .addValue("seatIds", seatIds));
+    }
+
+    /**
+     * Expires the active locks of the given seats that have lapsed by
+     * {@code now}; locks extended since they were scheduled are skipped.
+     */
+    public List<SeatLockExpiry> expireDue(Collection<SeatLockExpiry> due, LocalDateTime now) {
+        if (due.isEmpty()) {
+            return List.of();
+        }
+        List<Object[]> seats = due.stream()
+            .map(expiry -> new Object[] {expiry.screeningId(), expiry.seatId()})
+            .toList();
+        return jdbcTemplate.query("""
+            UPDATE seat_locks SET status = 'EXPIRED', updated_at = :now
+            WHERE status = 'ACTIVE'
+              AND expires_at <= :now
+              AND (screening_id, seat_id) IN (:seats)
+            RETURNING screening_id, seat_id, expires_at
+            """,
+            new MapSqlParameterSource()
+                .addValue("now", Timestamp.valueOf(now))
+                .addValue("seats", seats),
+            ROW_MAPPER);
+    }
+}
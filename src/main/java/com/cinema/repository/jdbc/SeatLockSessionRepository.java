@@ -0,0 +1,51 @@
+package com.cinema.repository.jdbc;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Matches seat locks against the Spring Session JDBC store. The store deletes
+ * expired sessions without publishing events, so sessions that ended are
+ * found by their absence from the session table.
+ */
+@Repository
+public class SeatLockSessionRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final String sessionTable;
+
+    public SeatLockSessionRepository(NamedParameterJdbcTemplate jdbcTemplate,
+                                     @Value("${spring.session.jdbc.table-name:SPRING_SESSION}") String sessionTable) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sessionTable = sessionTable;
+    }
+
+    /**
+     * Returns up to {@code limit} sessions that still hold active locks but
+     * are expired or gone from the session store. Locks created after
+     * {@code createdBefore} are skipped, because a new session is only
+     * written to the store when its first request completes.
+     */
+    public List<String> findEndedSessionIds(LocalDateTime createdBefore, LocalDateTime now, int limit) {
+        return jdbcTemplate.queryForList("""
+            SELECT DISTINCT l.session_id FROM seat_locks l
+            WHERE l.status = 'ACTIVE'
+              AND l.created_at < :createdBefore
+              AND NOT EXISTS (
+                  SELECT 1 FROM %s s
+                  WHERE s.session_id = l.session_id AND s.expiry_time > :nowMillis)
+            LIMIT :limit
+            """.formatted(sessionTable),
+            new MapSqlParameterSource()
+                .addValue("createdBefore", Timestamp.valueOf(createdBefore))
+                .addValue("nowMillis", Timestamp.valueOf(now).getTime())
+                .addValue("limit", limit),
+            String.class);
+    }
+}
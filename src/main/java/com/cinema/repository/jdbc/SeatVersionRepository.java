@@ -0,0 +1,33 @@
+package com.cinema.repository.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Hands out the seat-map versions of screenings from their counter in the
+ * {@code screenings} table.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SeatVersionRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Increments the screening's seat-map version and returns the new value
+     * in one statement. The row stays locked until the transaction ends, so
+     * callers take the version as late as they can.
+     */
+    public long next(Long screeningId) {
+        Long version = jdbcTemplate.queryForObject("""
+            UPDATE screenings SET seat_version = seat_version + 1
+            WHERE id = :screeningId
+            RETURNING seat_version
+            """,
+            new MapSqlParameterSource("screeningId", screeningId),
+            Long.class);
+        return version;
+    }
+}
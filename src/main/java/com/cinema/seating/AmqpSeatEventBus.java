@@ -0,0 +1,84 @@
+package com.cinema.seating;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * {@link SeatEventBus} over a RabbitMQ fanout exchange. Every node consumes
+ * the exchange through its own exclusive queue, so each event reaches all
+ * nodes. Events travel as plain JSON without type headers. Batches are sent
+ * on one channel and, with simple publisher confirms enabled, only count as
+ * published once the broker has confirmed them.
+ */
+@Slf4j
+public class AmqpSeatEventBus implements SeatEventBus, MessageListener {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final String exchange;
+    private final long confirmTimeoutMillis;
+    private final List<Consumer<SeatEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    public AmqpSeatEventBus(RabbitTemplate rabbitTemplate, ObjectMapper objectMapper, String exchange, long confirmTimeoutMillis) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.objectMapper = objectMapper;
+        this.exchange = exchange;
+        this.confirmTimeoutMillis = confirmTimeoutMillis;
+    }
+
+    @Override
+    public void publish(SeatEvent event) {
+        publishAll(List.of(event));
+    }
+
+    @Override
+    public void publishAll(List<SeatEvent> events) {
+        List<Message> messages = events.stream().map(this::toMessage).toList();
+        boolean confirms = rabbitTemplate.getConnectionFactory().isSimplePublisherConfirms();
+        rabbitTemplate.invoke(operations -> {
+            messages.forEach(message -> operations.send(exchange, "", message));
+            if (confirms) {
+                operations.waitForConfirmsOrDie(confirmTimeoutMillis);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void subscribe(Consumer<SeatEvent> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void onMessage(Message message) {
+        SeatEvent event;
+        try {
+            event = objectMapper.readValue(message.getBody(), SeatEvent.class);
+        } catch (IOException ex) {
+            // Redelivering a message that cannot be read would not help.
+            log.warn("Dropping unreadable seat event: {}", ex.getMessage());
+            return;
+        }
+        listeners.forEach(listener -> listener.accept(event));
+    }
+
+    private Message toMessage(SeatEvent event) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setMessageId(Long.toString(event.id()));
+        try {
+            return new Message(objectMapper.writeValueAsBytes(event), properties);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unable to serialize seat event for screening " + event.screeningId(), ex);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.cinema.seating;
+
+import com.cinema.entity.Seat.SeatType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds the best blocks of adjacent free seats for a party. The search runs
+ * once over the hall layout and an availability snapshot of the same order,
+ * scoring every window of consecutive seats in a row by its distance from the
+ * ideal row and the centre of the row, plus a penalty for each seat that is
+ * not of the preferred type. Wheelchair spaces are only offered when they are
+ * asked for.
+ */
+@Component
+public class BestSeatFinder {
+
+    private static final double TYPE_MISMATCH_PENALTY = 2.0;
+
+    private final double idealRowRatio;
+    private final double rowWeight;
+    private final int maxCandidates;
+
+    public BestSeatFinder(@Value("${app.seating.best-available.ideal-row-ratio:0.5}") double idealRowRatio,
+                          @Value("${app.seating.best-available.row-weight:1.5}") double rowWeight,
+                          @Value("${app.seating.best-available.candidates:5}") int maxCandidates) {
+        this.idealRowRatio = idealRowRatio;
+        this.rowWeight = rowWeight;
+        this.maxCandidates = Math.max(1, maxCandidates);
+    }
+
+    /**
+     * Returns up to the configured number of blocks, best first, each as the
+     * seat ids from left to right. Later candidates are fallbacks for when a
+     * better block is taken before it can be locked.
+     */
+    public List<List<Long>> find(HallLayout layout, boolean[] available, int partySize, SeatType preferred) {
+        double idealRow = 1 + (layout.getRows() - 1) * idealRowRatio;
+        double idealSeat = (layout.getCols() + 1) / 2.0;
+
+        double[] bestScores = new double[maxCandidates];
+        int[] bestStarts = new int[maxCandidates];
+        Arrays.fill(bestScores, Double.MAX_VALUE);
+        int found = 0;
+
+        int runStart = 0;
+        for (int i = 0; i < layout.size(); i++) {
+            if (!available[i] || !isOffered(layout.seatType(i), preferred)) {
+                runStart = i + 1;
+                continue;
+            }
+            if (i > runStart && !isNextTo(layout, i - 1, i)) {
+                runStart = i;
+            }
+            int start = i - partySize + 1;
+            if (start < runStart) {
+                continue;
+            }
+            double score = score(layout, start, partySize, preferred, idealRow, idealSeat);
+            if (found < maxCandidates) {
+                found++;
+            } else if (score >= bestScores[maxCandidates - 1]) {
+                continue;
+            }
+            int slot = found - 1;
+            while (slot > 0 && bestScores[slot - 1] > score) {
+                bestScores[slot] = bestScores[slot - 1];
+                bestStarts[slot] = bestStarts[slot - 1];
+                slot--;
+            }
+            bestScores[slot] = score;
+            bestStarts[slot] = start;
+        }
+
+        List<List<Long>> blocks = new ArrayList<>(found);
+        for (int c = 0; c < found; c++) {
+            List<Long> block = new ArrayList<>(partySize);
+            for (int i = bestStarts[c]; i < bestStarts[c] + partySize; i++) {
+                block.add(layout.seatId(i));
+            }
+            blocks.add(block);
+        }
+        return blocks;
+    }
+
+    private double score(HallLayout layout, int start, int partySize, SeatType preferred, double idealRow, double idealSeat) {
+        int end = start + partySize - 1;
+        double blockCentre = (layout.seatNumber(start) + layout.seatNumber(end)) / 2.0;
+        double score = rowWeight * Math.abs(layout.rowNumber(start) - idealRow) + Math.abs(blockCentre - idealSeat);
+        if (preferred != null) {
+            for (int i = start; i <= end; i++) {
+                if (layout.seatType(i) != preferred) {
+                    score += TYPE_MISMATCH_PENALTY;
+                }
+            }
+        }
+        return score;
+    }
+
+    private boolean isOffered(SeatType type, SeatType preferred) {
+        return type != SeatType.WHEELCHAIR || preferred == SeatType.WHEELCHAIR;
+    }
+
+    private boolean isNextTo(HallLayout layout, int left, int right) {
+        return layout.rowNumber(left) == layout.rowNumber(right)
+            && layout.seatNumber(left) + 1 == layout.seatNumber(right);
+    }
+}
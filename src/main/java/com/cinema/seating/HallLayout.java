@@ -0,0 +1,112 @@
+package com.cinema.seating;
+
+import com.cinema.entity.Hall;
+import com.cinema.entity.Seat;
+import com.cinema.entity.Seat.SeatType;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable seat layout of a hall: the active seats as parallel arrays,
+ * sorted by row and seat number. Positions in these arrays are the seat
+ * indexes used by {@link SeatInventory}, so every screening in the hall
+ * shares one copy of the layout.
+ */
+public final class HallLayout {
+
+    private final Long hallId;
+    private final int rows;
+    private final int cols;
+    private final long[] seatIds;
+    private final int[] rowNumbers;
+    private final int[] seatNumbers;
+    private final SeatType[] seatTypes;
+    private final Map<Long, Integer> indexBySeatId;
+    private final int fingerprint;
+
+    private HallLayout(Long hallId, int rows, int cols, List<Seat> seats) {
+        this.hallId = hallId;
+        this.rows = rows;
+        this.cols = cols;
+
+        List<Seat> sorted = seats.stream()
+            .sorted(Comparator.comparing(Seat::getRowNumber).thenComparing(Seat::getSeatNumber))
+            .toList();
+        int size = sorted.size();
+        this.seatIds = new long[size];
+        this.rowNumbers = new int[size];
+        this.seatNumbers = new int[size];
+        this.seatTypes = new SeatType[size];
+        Map<Long, Integer> index = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            Seat seat = sorted.get(i);
+            seatIds[i] = seat.getId();
+            rowNumbers[i] = seat.getRowNumber();
+            seatNumbers[i] = seat.getSeatNumber();
+            seatTypes[i] = seat.getSeatType();
+            index.put(seat.getId(), i);
+        }
+        this.indexBySeatId = Map.copyOf(index);
+        this.fingerprint = Objects.hash(hallId, rows, cols,
+            Arrays.hashCode(seatIds), Arrays.hashCode(rowNumbers), Arrays.hashCode(seatNumbers));
+    }
+
+    public static HallLayout of(Hall hall, List<Seat> seats) {
+        return new HallLayout(hall.getId(), hall.getRowsCount(), hall.getSeatsPerRow(), seats);
+    }
+
+    public Long getHallId() {
+        return hallId;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int size() {
+        return seatIds.length;
+    }
+
+    /**
+     * Identifies this version of the layout. Packed seat states are only
+     * meaningful against the layout they were packed with, so clients that
+     * cache the layout compare fingerprints to detect a change.
+     */
+    public int fingerprint() {
+        return fingerprint;
+    }
+
+    public long seatId(int index) {
+        return seatIds[index];
+    }
+
+    public int rowNumber(int index) {
+        return rowNumbers[index];
+    }
+
+    public int seatNumber(int index) {
+        return seatNumbers[index];
+    }
+
+    public SeatType seatType(int index) {
+        return seatTypes[index];
+    }
+
+    /**
+     * Returns the position of the seat in the layout, or {@code -1} when the
+     * seat is not an active seat of this hall.
+     */
+    public int indexOf(Long seatId) {
+        Integer index = seatId != null ? indexBySeatId.get(seatId) : null;
+        return index != null ? index : -1;
+    }
+}
@@ -0,0 +1,43 @@
+package com.cinema.seating;
+
+import com.cinema.entity.Hall;
+import com.cinema.repository.SeatRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Hall layouts keyed by hall id. Layouts change only when seats or halls are
+ * edited, so an entry lives until {@link HallLayoutInvalidator} reports such
+ * a change.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HallLayoutCache {
+
+    private final SeatRepository seatRepository;
+
+    private final ConcurrentMap<Long, HallLayout> layouts = new ConcurrentHashMap<>();
+
+    public HallLayout get(Hall hall) {
+        return layouts.computeIfAbsent(hall.getId(), hallId -> {
+            HallLayout layout = HallLayout.of(hall, seatRepository.findByHallIdAndActiveTrue(hallId));
+            log.debug("Cached layout of hall {} ({} seats)", hallId, layout.size());
+            return layout;
+        });
+    }
+
+    public void invalidate(Long hallId) {
+        if (hallId != null && layouts.remove(hallId) != null) {
+            log.info("Invalidated cached layout of hall {}", hallId);
+        }
+    }
+
+    public int size() {
+        return layouts.size();
+    }
+}
@@ -0,0 +1,64 @@
+package com.cinema.seating;
+
+import com.cinema.entity.Hall;
+import com.cinema.entity.Seat;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on {@link Hall} and {@link Seat} that drops the cached layout
+ * of the affected hall, together with the seat inventories built on it. The
+ * drop is repeated after the transaction completes so a reader that reloaded
+ * the layout in between cannot keep the pre-commit state.
+ */
+@Component
+public class HallLayoutInvalidator {
+
+    private final ObjectProvider<HallLayoutCache> layoutCache;
+    private final ObjectProvider<SeatInventoryEngine> inventoryEngine;
+
+    public HallLayoutInvalidator(ObjectProvider<HallLayoutCache> layoutCache,
+                                 ObjectProvider<SeatInventoryEngine> inventoryEngine) {
+        this.layoutCache = layoutCache;
+        this.inventoryEngine = inventoryEngine;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onLayoutChange(Object entity) {
+        Long hallId = hallIdOf(entity);
+        if (hallId == null) {
+            return;
+        }
+        invalidate(hallId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(hallId);
+                }
+            });
+        }
+    }
+
+    private void invalidate(Long hallId) {
+        layoutCache.ifAvailable(cache -> cache.invalidate(hallId));
+        inventoryEngine.ifAvailable(engine -> engine.evictHall(hallId));
+    }
+
+    private Long hallIdOf(Object entity) {
+        if (entity instanceof Hall hall) {
+            return hall.getId();
+        }
+        if (entity instanceof Seat seat && seat.getHall() != null) {
+            return seat.getHall().getId();
+        }
+        return null;
+    }
+}
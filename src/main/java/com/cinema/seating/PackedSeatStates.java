@@ -0,0 +1,34 @@
+package com.cinema.seating;
+
+/**
+ * Seat states of a screening packed in {@link HallLayout} order. Each seat
+ * takes two bits of {@code states} (four seats per byte, lowest bits first)
+ * holding one of the {@code CODE_*} values; {@code ownHolds} has one bit per
+ * seat (eight per byte, lowest bit first) set for the requester's own holds.
+ */
+public record PackedSeatStates(byte[] states, byte[] ownHolds) {
+
+    public static final int CODE_FREE = 0;
+    public static final int CODE_HELD = 1;
+    public static final int CODE_RESERVED = 2;
+    public static final int CODE_SOLD = 3;
+
+    static PackedSeatStates forSeats(int size) {
+        return new PackedSeatStates(new byte[(size + 3) / 4], new byte[(size + 7) / 8]);
+    }
+
+    public int code(int index) {
+        return (states[index >> 2] >> ((index & 3) << 1)) & 3;
+    }
+
+    public boolean isOwnHold(int index) {
+        return (ownHolds[index >> 3] & (1 << (index & 7))) != 0;
+    }
+
+    void set(int index, int code, boolean ownHold) {
+        states[index >> 2] |= (byte) (code << ((index & 3) << 1));
+        if (ownHold) {
+            ownHolds[index >> 3] |= (byte) (1 << (index & 7));
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.cinema.seating;
+
+import com.cinema.dto.CompactSeatMapUpdate;
+import com.cinema.dto.SeatMapDelta;
+import com.cinema.service.SeatStatusNotifierService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces seat-map broadcasts per screening. Marking a screening dirty
+ * schedules a single flush after the configured window; further changes in
+ * that window ride along with it, so a burst of locks produces one delta
+ * instead of one message per lock. At most one flush per screening is ever
+ * queued, which keeps the work queue bounded by the number of screenings.
+ * Each flush also publishes the packed states of the whole map for clients
+ * subscribed to the compact topic.
+ * <p>
+ * Changes arrive as {@link SeatMapChangedEvent}s after their transaction has
+ * committed; the committing thread only queues the flush, which then runs on
+ * the dispatcher's own executor. The time from the change to its broadcast is
+ * recorded as {@code seating.broadcast.lag}.
+ * <p>
+ * Screenings without subscribers are skipped before anything is computed;
+ * their changes are still picked up by the next delta once somebody
+ * subscribes, and new subscribers load the full map first anyway.
+ */
+@Component
+@Slf4j
+public class SeatBroadcastDispatcher {
+
+    private final SeatInventoryEngine inventoryEngine;
+    private final SeatStatusNotifierService seatStatusNotifier;
+    private final SeatSubscriptionRegistry subscriptions;
+    private final long windowMillis;
+    private final ScheduledThreadPoolExecutor executor;
+    // Screening id to the time of the oldest change not yet broadcast.
+    private final Map<Long, Instant> pending = new ConcurrentHashMap<>();
+
+    private final Counter requested;
+    private final Counter coalesced;
+    private final Counter emitted;
+    private final Counter unwatched;
+    private final Timer lag;
+
+    public SeatBroadcastDispatcher(SeatInventoryEngine inventoryEngine,
+                                   SeatStatusNotifierService seatStatusNotifier,
+                                   SeatSubscriptionRegistry subscriptions,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.seating.broadcast.coalesce-window-ms:150}") long windowMillis,
+                                   @Value("${app.seating.broadcast.threads:2}") int threads) {
+        this.inventoryEngine = inventoryEngine;
+        this.seatStatusNotifier = seatStatusNotifier;
+        this.subscriptions = subscriptions;
+        this.windowMillis = windowMillis;
+        this.executor = new ScheduledThreadPoolExecutor(threads, new CustomizableThreadFactory("seat-broadcast-"));
+        this.requested = meterRegistry.counter("seating.broadcast.requested");
+        this.coalesced = meterRegistry.counter("seating.broadcast.coalesced");
+        this.emitted = meterRegistry.counter("seating.broadcast.emitted");
+        this.unwatched = meterRegistry.counter("seating.broadcast.unwatched");
+        this.lag = Timer.builder("seating.broadcast.lag")
+            .description("Time from a committed seat change to its broadcast")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        Gauge.builder("seating.broadcast.pending", pending, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Runs after the publishing transaction commits; changes made outside a
+     * transaction are broadcast right away.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatMapChanged(SeatMapChangedEvent event) {
+        markDirty(event.screeningId(), event.occurredAt());
+    }
+
+    public void markDirty(Long screeningId) {
+        markDirty(screeningId, Instant.now());
+    }
+
+    void markDirty(Long screeningId, Instant changedAt) {
+        requested.increment();
+        if (!subscriptions.hasSubscribers(screeningId)) {
+            unwatched.increment();
+            return;
+        }
+        if (pending.putIfAbsent(screeningId, changedAt) != null) {
+            coalesced.increment();
+            return;
+        }
+        try {
+            executor.schedule(() -> flush(screeningId), windowMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            pending.remove(screeningId);
+            log.warn("Seat broadcast for screening {} rejected", screeningId, ex);
+        }
+    }
+
+    void flush(Long screeningId) {
+        // Cleared before publishing so a change made during the flush schedules the next one.
+        Instant changedAt = pending.remove(screeningId);
+        try {
+            SeatInventory inventory = inventoryEngine.find(screeningId).orElse(null);
+            if (inventory == null || !subscriptions.hasSubscribers(screeningId)) {
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            SeatMapDelta delta = inventory.publishDelta(now);
+            if (delta == null) {
+                return;
+            }
+            if (changedAt != null) {
+                lag.record(Duration.between(changedAt, Instant.now()));
+            }
+            seatStatusNotifier.broadcast(screeningId, delta);
+            // Packed after the delta, so the states are at least as recent as its version.
+            seatStatusNotifier.broadcastCompact(screeningId, CompactSeatMapUpdate.builder()
+                .screeningId(screeningId)
+                .version(delta.getVersion())
+                .layoutId(inventory.getLayout().fingerprint())
+                .states(inventory.packStates(null, null, now).states())
+                .build());
+            emitted.increment();
+        } catch (RuntimeException ex) {
+            log.warn("Failed to publish seat update for screening {}", screeningId, ex);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
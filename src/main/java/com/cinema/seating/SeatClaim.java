@@ -0,0 +1,19 @@
+package com.cinema.seating;
+
+/**
+ * Result of an in-memory claim attempt on a seat. {@code previous} is the hold
+ * that was replaced by a successful claim so it can be restored on rollback.
+ */
+public record SeatClaim(Outcome outcome, SeatHold previous) {
+
+    public enum Outcome {
+        CLAIMED,
+        EXTENDED,
+        RESERVED,
+        TAKEN
+    }
+
+    public boolean isWon() {
+        return outcome == Outcome.CLAIMED || outcome == Outcome.EXTENDED;
+    }
+}
@@ -0,0 +1,37 @@
+package com.cinema.seating;
+
+import com.cinema.seating.SeatMapChangedEvent.Change;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A seat change as exchanged between application nodes. It carries the
+ * resulting state of each changed seat rather than the operation, so applying
+ * it is idempotent. {@code id} is the id of the outbox row the event was
+ * published from; {@code origin} identifies the node that made the change,
+ * and {@code version} is the seat-map version its transaction took, which
+ * receivers use to drop events delivered more than once.
+ */
+public record SeatEvent(long id,
+                        String origin,
+                        Long screeningId,
+                        long version,
+                        Change change,
+                        List<SeatSnapshot> seats,
+                        Set<String> owners,
+                        Instant occurredAt) {
+
+    public SeatEvent withId(long id) {
+        return new SeatEvent(id, origin, screeningId, version, change, seats, owners, occurredAt);
+    }
+
+    /**
+     * Booking state ({@code 0} free, {@code 1} reserved, {@code 2} sold) and
+     * current hold of one seat as of the seat-map {@code version} at which it
+     * changed; {@code hold} is {@code null} when the seat is not held.
+     */
+    public record SeatSnapshot(Long seatId, long version, int bookingState, SeatHold hold) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.cinema.seating;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Transport that fans seat events out to every application node, including
+ * the one that published them.
+ */
+public interface SeatEventBus {
+
+    void publish(SeatEvent event);
+
+    /**
+     * Publishes the events in order and returns only once the transport has
+     * accepted all of them.
+     */
+    default void publishAll(List<SeatEvent> events) {
+        events.forEach(this::publish);
+    }
+
+    void subscribe(Consumer<SeatEvent> listener);
+}
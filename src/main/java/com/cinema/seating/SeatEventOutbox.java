@@ -0,0 +1,130 @@
+package com.cinema.seating;
+
+import com.cinema.entity.OutboxEvent;
+import com.cinema.repository.OutboxEventRepository;
+import com.cinema.repository.jdbc.OutboxBatchRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Transactional outbox for seat events. Events are appended to
+ * {@code outbox} in the transaction that made the change, so they are
+ * published exactly when that transaction commits, and are never lost when
+ * the node stops before publishing. A poller drains the table in batches
+ * onto the {@link SeatEventBus}; delivery is at least once, and receivers
+ * drop duplicates by seat-map version.
+ */
+@Component
+@Slf4j
+public class SeatEventOutbox {
+
+    private static final String AGGREGATE_TYPE = "screening";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxBatchRepository outboxBatchRepository;
+    private final ObjectMapper objectMapper;
+    private final SeatEventBus bus;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    private final Counter appended;
+    private final Counter published;
+    private final Timer publishDelay;
+
+    public SeatEventOutbox(OutboxEventRepository outboxEventRepository,
+                           OutboxBatchRepository outboxBatchRepository,
+                           ObjectMapper objectMapper,
+                           ObjectProvider<SeatEventBus> bus,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.seating.events.outbox.batch-size:500}") int batchSize,
+                           @Value("${app.seating.events.outbox.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxBatchRepository = outboxBatchRepository;
+        this.objectMapper = objectMapper;
+        this.bus = bus.getIfAvailable();
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.appended = meterRegistry.counter("seating.events.outbox.appended");
+        this.published = meterRegistry.counter("seating.events.outbox.published");
+        this.publishDelay = Timer.builder("seating.events.outbox.delay")
+            .description("Time seat events wait in the outbox before they are published")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Whether events are published at all; without a bus nothing is written.
+     */
+    public boolean isEnabled() {
+        return bus != null;
+    }
+
+    /**
+     * Adds the event to the outbox, in the caller's transaction when there
+     * is one.
+     */
+    public void append(SeatEvent event) {
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateType(AGGREGATE_TYPE)
+                .aggregateId(event.screeningId())
+                .eventType(event.change().name())
+                .payload(objectMapper.writeValueAsString(event))
+                .createdAt(LocalDateTime.now())
+                .build());
+            appended.increment();
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unable to serialize seat event for screening " + event.screeningId(), ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.seating.events.outbox.poll-ms:100}")
+    public void drain() {
+        if (bus == null) {
+            return;
+        }
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                if (outboxBatchRepository.drainBatch(batchSize, this::publish) < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Failed to publish seat events from the outbox, retrying on the next poll", ex);
+        }
+    }
+
+    private void publish(List<OutboxEvent> rows) {
+        LocalDateTime now = LocalDateTime.now();
+        List<SeatEvent> events = rows.stream().map(this::toEvent).filter(Objects::nonNull).toList();
+        bus.publishAll(events);
+        published.increment(events.size());
+        rows.forEach(row -> publishDelay.record(Duration.between(row.getCreatedAt(), now)));
+    }
+
+    /**
+     * Returns {@code null} for a row that cannot be read, which is then
+     * dropped with its batch instead of blocking the outbox.
+     */
+    private SeatEvent toEvent(OutboxEvent row) {
+        try {
+            return objectMapper.readValue(row.getPayload(), SeatEvent.class).withId(row.getId());
+        } catch (JsonProcessingException ex) {
+            log.error("Dropping unreadable seat event {} from the outbox: {}", row.getId(), ex.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.cinema.seating;
+
+import com.cinema.seating.SeatEvent.SeatSnapshot;
+import com.cinema.seating.SeatMapChangedEvent.Change;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Keeps the seat inventories of several application nodes in step. Just
+ * before a change commits, it takes the screening's next seat-map version
+ * and writes the change to the {@link SeatEventOutbox} with that version and
+ * the resulting state of the changed seats; events from other nodes are
+ * applied to the local inventory, acknowledged under their version and
+ * broadcast to this node's own subscribers through the
+ * {@link SeatBroadcastDispatcher}.
+ * <p>
+ * The outbox delivers at least once, so events whose version the inventory
+ * already has are dropped, and a seat snapshot older than the seat's last
+ * change is ignored when events arrive out of order. Without a bus (a single node) only the version is
+ * taken; the periodic reconcile of {@link SeatInventoryEngine} still repairs
+ * any change or version a node missed.
+ */
+@Component
+@Slf4j
+public class SeatEventRelay {
+
+    private final SeatInventoryEngine inventoryEngine;
+    private final SeatBroadcastDispatcher dispatcher;
+    private final SeatEventOutbox outbox;
+    private final String origin = UUID.randomUUID().toString();
+
+    private final Counter received;
+    private final Counter duplicates;
+    private final Timer lag;
+
+    public SeatEventRelay(SeatInventoryEngine inventoryEngine,
+                          SeatBroadcastDispatcher dispatcher,
+                          SeatEventOutbox outbox,
+                          ObjectProvider<SeatEventBus> bus,
+                          MeterRegistry meterRegistry) {
+        this.inventoryEngine = inventoryEngine;
+        this.dispatcher = dispatcher;
+        this.outbox = outbox;
+        this.received = meterRegistry.counter("seating.events.received");
+        this.duplicates = meterRegistry.counter("seating.events.duplicates");
+        this.lag = Timer.builder("seating.events.lag")
+            .description("Time from a seat change on another node to its arrival here")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        SeatEventBus eventBus = bus.getIfAvailable();
+        if (eventBus != null) {
+            eventBus.subscribe(this::onRemoteEvent);
+            log.info("Relaying seat events as node {}", origin);
+        }
+    }
+
+    /**
+     * Runs inside the changing transaction, so the version and the outbox row
+     * commit or roll back with the change itself. Everything that needs no
+     * version is done first, since taking it locks the screening's version
+     * counter until commit.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onSeatMapChanged(SeatMapChangedEvent change) {
+        if (!outbox.isEnabled()) {
+            inventoryEngine.commitVersion(change.screeningId());
+            return;
+        }
+        SeatInventory inventory = inventoryEngine.find(change.screeningId()).orElse(null);
+        long version = inventoryEngine.commitVersion(change.screeningId());
+        List<SeatSnapshot> seats = inventory == null ? List.of() : change.seatIds().stream()
+            .map(seatId -> inventory.snapshot(seatId, version))
+            .filter(Objects::nonNull)
+            .toList();
+        outbox.append(new SeatEvent(0, origin, change.screeningId(), version, change.change(),
+            seats, change.owners(), change.occurredAt()));
+    }
+
+    void onRemoteEvent(SeatEvent event) {
+        if (origin.equals(event.origin())) {
+            return;
+        }
+        received.increment();
+        SeatInventory inventory = inventoryEngine.find(event.screeningId()).orElse(null);
+        if (inventory != null && inventory.hasVersion(event.version())) {
+            duplicates.increment();
+            return;
+        }
+        lag.record(Duration.between(event.occurredAt(), Instant.now()));
+        if (inventory != null) {
+            apply(inventory, event);
+            inventory.acknowledge(event.version());
+        }
+        dispatcher.markDirty(event.screeningId(), event.occurredAt());
+    }
+
+    private void apply(SeatInventory inventory, SeatEvent event) {
+        event.seats().forEach(inventory::apply);
+        if (!event.owners().isEmpty()) {
+            inventory.releaseSessions(event.owners());
+        }
+        if (event.change() == Change.EXPIRED && event.seats().isEmpty()) {
+            inventory.releaseLapsed(LocalDateTime.now());
+        }
+    }
+
+    String origin() {
+        return origin;
+    }
+}
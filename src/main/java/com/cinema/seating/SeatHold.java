@@ -0,0 +1,22 @@
+package com.cinema.seating;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable view of an active seat lock as kept by {@link SeatInventory}.
+ * {@code owner} is the {@link SeatOwnerTokens owner token} of the session
+ * that holds the seat, never the session id itself.
+ */
+public record SeatHold(String owner, String username, LocalDateTime expiresAt) {
+
+    public boolean isActive(LocalDateTime now) {
+        return expiresAt.isAfter(now);
+    }
+
+    public boolean isOwnedBy(String requesterOwner, String requesterUsername) {
+        if (owner.equals(requesterOwner)) {
+            return true;
+        }
+        return requesterUsername != null && requesterUsername.equals(username);
+    }
+}
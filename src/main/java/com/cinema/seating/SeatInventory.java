@@ -0,0 +1,505 @@
+package com.cinema.seating;
+
+import com.cinema.dto.SeatMapDelta;
+import com.cinema.dto.SeatStatusDTO;
+import com.cinema.dto.SeatStatusDTO.SeatState;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Resident seat state for a single screening. Seats are addressed by their
+ * position in the shared {@link HallLayout} (row, then seat number); the
+ * booking state and the active hold of each position live in atomic arrays so
+ * concurrent claims on the same seat are resolved with a compare-and-set
+ * instead of a database round trip. Every change stamps the seat with the
+ * next value of a local sequence, which lets subscribers be sent only the
+ * seats that changed since the previous update. The database remains the
+ * durable record; this structure is rebuilt from it by
+ * {@link SeatInventoryLoader}.
+ * <p>
+ * The seat-map version is not local: it is the screening's counter in the
+ * database, taken by every committed change, so all nodes agree on it.
+ * {@link #version()} is the highest version up to which every change has
+ * been acknowledged; versions acknowledged out of order wait until the ones
+ * before them arrive. Each seat also remembers the version of the last change
+ * to it, so a snapshot from another node that arrives after a newer change to
+ * the same seat is ignored.
+ */
+public class SeatInventory {
+
+    static final int FREE = 0;
+    static final int RESERVED = 1;
+    static final int SOLD = 2;
+
+    private final Long screeningId;
+    private final HallLayout layout;
+    private final LocalDateTime endTime;
+
+    private final AtomicIntegerArray bookingStates;
+    private final AtomicReferenceArray<SeatHold> holds;
+
+    private final Object versionLock = new Object();
+    private final long[] changedAt;
+    private final long[] seatVersions;
+    private long sequence;
+    private long publishedSequence;
+    private long version;
+    private long publishedVersion;
+    private final NavigableSet<Long> ahead = new TreeSet<>();
+
+    public SeatInventory(Long screeningId, HallLayout layout, LocalDateTime endTime) {
+        this.screeningId = screeningId;
+        this.layout = layout;
+        this.endTime = endTime;
+
+        int size = layout.size();
+        this.bookingStates = new AtomicIntegerArray(size);
+        this.holds = new AtomicReferenceArray<>(size);
+        this.changedAt = new long[size];
+        this.seatVersions = new long[size];
+    }
+
+    public Long getScreeningId() {
+        return screeningId;
+    }
+
+    public Long getHallId() {
+        return layout.getHallId();
+    }
+
+    public HallLayout getLayout() {
+        return layout;
+    }
+
+    public int getRows() {
+        return layout.getRows();
+    }
+
+    public int getCols() {
+        return layout.getCols();
+    }
+
+    public int size() {
+        return layout.size();
+    }
+
+    public boolean isFinishedBy(LocalDateTime now) {
+        return endTime != null && endTime.isBefore(now);
+    }
+
+    public boolean contains(Long seatId) {
+        return layout.indexOf(seatId) >= 0;
+    }
+
+    /**
+     * Claims the seat for the requester of {@code candidate}. A free seat or a
+     * lapsed hold is taken over, a hold owned by the same requester is
+     * extended, anything else loses without side effects.
+     */
+    public SeatClaim claim(Long seatId, SeatHold candidate, LocalDateTime now) {
+        int index = requireIndex(seatId);
+        while (true) {
+            if (bookingStates.get(index) != FREE) {
+                return new SeatClaim(SeatClaim.Outcome.RESERVED, null);
+            }
+            SeatHold current = holds.get(index);
+            boolean held = current != null && current.isActive(now);
+            if (held && !current.isOwnedBy(candidate.owner(), candidate.username())) {
+                return new SeatClaim(SeatClaim.Outcome.TAKEN, current);
+            }
+            if (holds.compareAndSet(index, current, candidate)) {
+                // A booking may have landed between the state check and the swap.
+                if (bookingStates.get(index) != FREE) {
+                    holds.compareAndSet(index, candidate, current);
+                    return new SeatClaim(SeatClaim.Outcome.RESERVED, null);
+                }
+                touch(index);
+                return new SeatClaim(held ? SeatClaim.Outcome.EXTENDED : SeatClaim.Outcome.CLAIMED, current);
+            }
+        }
+    }
+
+    /**
+     * Restores the hold that {@code claimed} replaced, unless the seat has been
+     * claimed again in the meantime.
+     */
+    public void revert(Long seatId, SeatHold claimed, SeatHold previous) {
+        int index = indexOf(seatId);
+        if (index >= 0 && holds.compareAndSet(index, claimed, previous)) {
+            touch(index);
+        }
+    }
+
+    public void hold(Long seatId, SeatHold hold) {
+        int index = indexOf(seatId);
+        if (index >= 0) {
+            holds.set(index, hold);
+            touch(index);
+        }
+    }
+
+    /**
+     * Clears the hold when it belongs to the requester and returns it, or
+     * {@code null} when nothing was released.
+     */
+    public SeatHold release(Long seatId, String owner, String username) {
+        int index = indexOf(seatId);
+        if (index < 0) {
+            return null;
+        }
+        SeatHold current = holds.get(index);
+        if (current != null && current.isOwnedBy(owner, username) && holds.compareAndSet(index, current, null)) {
+            touch(index);
+            return current;
+        }
+        return null;
+    }
+
+    public void releaseLapsed(Long seatId, LocalDateTime now) {
+        int index = indexOf(seatId);
+        if (index >= 0) {
+            releaseLapsed(index, now);
+        }
+    }
+
+    public void releaseLapsed(LocalDateTime now) {
+        for (int i = 0; i < layout.size(); i++) {
+            releaseLapsed(i, now);
+        }
+    }
+
+    /**
+     * Clears every hold owned by one of the given session owners, whether or
+     * not it is still active, and returns the released holds by seat id.
+     */
+    public Map<Long, SeatHold> releaseSessions(Set<String> owners) {
+        Map<Long, SeatHold> released = new LinkedHashMap<>();
+        for (int i = 0; i < layout.size(); i++) {
+            SeatHold current = holds.get(i);
+            if (current != null && owners.contains(current.owner()) && holds.compareAndSet(i, current, null)) {
+                touch(i);
+                released.put(layout.seatId(i), current);
+            }
+        }
+        return released;
+    }
+
+    private void releaseLapsed(int index, LocalDateTime now) {
+        SeatHold current = holds.get(index);
+        if (current != null && !current.isActive(now) && holds.compareAndSet(index, current, null)) {
+            touch(index);
+        }
+    }
+
+    /**
+     * Current booking state and hold of the seat as changed at
+     * {@code version}, or {@code null} when the seat is not part of this
+     * screening. The seat is recorded as changed at that version.
+     */
+    public SeatEvent.SeatSnapshot snapshot(Long seatId, long version) {
+        int index = indexOf(seatId);
+        if (index < 0) {
+            return null;
+        }
+        synchronized (versionLock) {
+            seatVersions[index] = Math.max(seatVersions[index], version);
+        }
+        return new SeatEvent.SeatSnapshot(seatId, version, bookingStates.get(index), holds.get(index));
+    }
+
+    /**
+     * Overwrites the seat with a state taken on another node, unless the seat
+     * has already changed at the snapshot's version or a later one.
+     */
+    public void apply(SeatEvent.SeatSnapshot snapshot) {
+        int index = indexOf(snapshot.seatId());
+        if (index < 0) {
+            return;
+        }
+        synchronized (versionLock) {
+            if (snapshot.version() <= seatVersions[index]) {
+                return;
+            }
+            seatVersions[index] = snapshot.version();
+        }
+        int previousState = bookingStates.getAndSet(index, snapshot.bookingState());
+        SeatHold previousHold = holds.getAndSet(index, snapshot.hold());
+        if (previousState != snapshot.bookingState() || !Objects.equals(previousHold, snapshot.hold())) {
+            touch(index);
+        }
+    }
+
+    /**
+     * Sets the booking state of the seat and returns the previous state so the
+     * change can be undone.
+     */
+    public int markReserved(Long seatId, boolean sold) {
+        return setBookingState(seatId, sold ? SOLD : RESERVED);
+    }
+
+    public int markFree(Long seatId) {
+        return setBookingState(seatId, FREE);
+    }
+
+    public void restoreBookingState(Long seatId, int state) {
+        setBookingState(seatId, state);
+    }
+
+    public boolean isReserved(Long seatId) {
+        int index = indexOf(seatId);
+        return index >= 0 && bookingStates.get(index) != FREE;
+    }
+
+    public SeatHold activeHold(Long seatId, LocalDateTime now) {
+        int index = indexOf(seatId);
+        if (index < 0) {
+            return null;
+        }
+        SeatHold hold = holds.get(index);
+        return hold != null && hold.isActive(now) ? hold : null;
+    }
+
+    /**
+     * Snapshot of the seats that are neither booked nor held, in layout order.
+     */
+    public boolean[] availability(LocalDateTime now) {
+        boolean[] available = new boolean[layout.size()];
+        for (int i = 0; i < available.length; i++) {
+            SeatHold hold = holds.get(i);
+            available[i] = bookingStates.get(i) == FREE && (hold == null || !hold.isActive(now));
+        }
+        return available;
+    }
+
+    public int activeHoldCount(LocalDateTime now) {
+        int count = 0;
+        for (int i = 0; i < layout.size(); i++) {
+            SeatHold hold = holds.get(i);
+            if (hold != null && hold.isActive(now)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int reservedCount() {
+        int count = 0;
+        for (int i = 0; i < layout.size(); i++) {
+            if (bookingStates.get(i) != FREE) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public SeatStatusDTO seatStatus(Long seatId, String owner, String username, LocalDateTime now) {
+        int index = indexOf(seatId);
+        return index >= 0 ? toStatus(index, owner, username, now) : null;
+    }
+
+    public List<SeatStatusDTO> seatStatuses(String owner, String username, LocalDateTime now) {
+        List<SeatStatusDTO> statuses = new ArrayList<>(layout.size());
+        for (int i = 0; i < layout.size(); i++) {
+            statuses.add(toStatus(i, owner, username, now));
+        }
+        return statuses;
+    }
+
+    /**
+     * Packs the current seat states into two bits per seat plus an own-hold
+     * bitmask for the given requester, for clients that already hold the
+     * {@link HallLayout}.
+     */
+    public PackedSeatStates packStates(String owner, String username, LocalDateTime now) {
+        PackedSeatStates packed = PackedSeatStates.forSeats(layout.size());
+        for (int i = 0; i < layout.size(); i++) {
+            int state = bookingStates.get(i);
+            if (state != FREE) {
+                packed.set(i, state == SOLD ? PackedSeatStates.CODE_SOLD : PackedSeatStates.CODE_RESERVED, false);
+                continue;
+            }
+            SeatHold hold = holds.get(i);
+            if (hold != null && hold.isActive(now)) {
+                packed.set(i, PackedSeatStates.CODE_HELD, hold.isOwnedBy(owner, username));
+            }
+        }
+        return packed;
+    }
+
+    public long version() {
+        synchronized (versionLock) {
+            return version;
+        }
+    }
+
+    /**
+     * Sets the version the freshly loaded state was read at; the load itself
+     * is not a change to publish.
+     */
+    public void startAt(long loadedVersion) {
+        synchronized (versionLock) {
+            version = loadedVersion;
+            publishedVersion = loadedVersion;
+            publishedSequence = sequence;
+            Arrays.fill(seatVersions, loadedVersion);
+        }
+    }
+
+    /**
+     * Takes over the published version of the inventory this one replaces
+     * and marks every seat as changed, so the next published delta brings
+     * subscribers in line with the freshly loaded state.
+     */
+    public void continueFrom(SeatInventory previous) {
+        long previousPublished;
+        synchronized (previous.versionLock) {
+            previousPublished = previous.publishedVersion;
+        }
+        synchronized (versionLock) {
+            publishedVersion = Math.min(previousPublished, version);
+            publishedSequence = sequence;
+            Arrays.fill(changedAt, ++sequence);
+        }
+    }
+
+    /**
+     * Whether the changes of {@code version} have already been applied.
+     */
+    public boolean hasVersion(long version) {
+        synchronized (versionLock) {
+            return version <= this.version || ahead.contains(version);
+        }
+    }
+
+    /**
+     * Records that the change with the given version has been applied.
+     */
+    public void acknowledge(long version) {
+        synchronized (versionLock) {
+            if (version <= this.version) {
+                return;
+            }
+            if (version != this.version + 1) {
+                ahead.add(version);
+                return;
+            }
+            this.version = version;
+            while (ahead.remove(this.version + 1)) {
+                this.version++;
+            }
+        }
+    }
+
+    /**
+     * Whether a later version has been acknowledged while an earlier one is
+     * still missing.
+     */
+    public boolean hasVersionGap() {
+        synchronized (versionLock) {
+            return !ahead.isEmpty();
+        }
+    }
+
+    /**
+     * Returns the seats changed since the previous call, or {@code null} when
+     * the version has not moved since. Seats are reported with their current
+     * state, so a change that lands while the delta is built is at worst sent
+     * twice.
+     */
+    public SeatMapDelta publishDelta(LocalDateTime now) {
+        long from;
+        long to;
+        long fromSequence;
+        long[] stamps;
+        synchronized (versionLock) {
+            from = publishedVersion;
+            to = version;
+            if (to == from) {
+                return null;
+            }
+            fromSequence = publishedSequence;
+            publishedVersion = to;
+            publishedSequence = sequence;
+            stamps = changedAt.clone();
+        }
+        List<SeatStatusDTO> changed = new ArrayList<>();
+        for (int i = 0; i < stamps.length; i++) {
+            if (stamps[i] > fromSequence) {
+                changed.add(toStatus(i, null, null, now));
+            }
+        }
+        return SeatMapDelta.builder()
+            .screeningId(screeningId)
+            .fromVersion(from)
+            .version(to)
+            .seats(changed)
+            .build();
+    }
+
+    private SeatStatusDTO toStatus(int index, String owner, String username, LocalDateTime now) {
+        SeatStatusDTO.SeatStatusDTOBuilder builder = SeatStatusDTO.builder()
+            .seatId(layout.seatId(index))
+            .rowNumber(layout.rowNumber(index))
+            .seatNumber(layout.seatNumber(index));
+
+        int state = bookingStates.get(index);
+        if (state != FREE) {
+            return builder
+                .status(state == SOLD ? SeatState.SOLD : SeatState.BOOKED)
+                .selectedByYou(false)
+                .lockExpiresAt(null)
+                .build();
+        }
+
+        SeatHold hold = holds.get(index);
+        if (hold == null || !hold.isActive(now)) {
+            return builder.status(SeatState.FREE).selectedByYou(false).lockExpiresAt(null).build();
+        }
+        return builder
+            .status(SeatState.BOOKED)
+            .selectedByYou(hold.isOwnedBy(owner, username))
+            .lockExpiresAt(hold.expiresAt())
+            .build();
+    }
+
+    private int setBookingState(Long seatId, int state) {
+        int index = indexOf(seatId);
+        if (index < 0) {
+            return FREE;
+        }
+        int previous = bookingStates.getAndSet(index, state);
+        if (previous != state) {
+            touch(index);
+        }
+        return previous;
+    }
+
+    private void touch(int index) {
+        synchronized (versionLock) {
+            changedAt[index] = ++sequence;
+        }
+    }
+
+    private int requireIndex(Long seatId) {
+        int index = indexOf(seatId);
+        if (index < 0) {
+            throw new IllegalArgumentException("Seat " + seatId + " is not part of screening " + screeningId);
+        }
+        return index;
+    }
+
+    private int indexOf(Long seatId) {
+        return layout.indexOf(seatId);
+    }
+}
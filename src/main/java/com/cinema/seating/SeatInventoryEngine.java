@@ -0,0 +1,215 @@
+package com.cinema.seating;
+
+import com.cinema.entity.Screening;
+import com.cinema.repository.BookingSeatRepository;
+import com.cinema.repository.ScreeningRepository;
+import com.cinema.repository.SeatLockRepository;
+import com.cinema.repository.jdbc.SeatVersionRepository;
+import com.cinema.seating.SeatMapChangedEvent.Change;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps one {@link SeatInventory} per active screening so seat-map reads are
+ * answered from memory. Inventories are loaded lazily (and warmed up for the
+ * upcoming screenings on startup), updated in place by the reservation and
+ * booking services (with the change undone if the surrounding transaction
+ * rolls back), and rebuilt whenever a periodic comparison with the database
+ * shows drift or a seat-map version has gone missing.
+ * <p>
+ * Seat-map versions come from the screening's counter in the database,
+ * incremented in the transaction of every change, so they are the same on
+ * every node and survive restarts.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeatInventoryEngine {
+
+    private final SeatInventoryLoader loader;
+    private final ScreeningRepository screeningRepository;
+    private final SeatLockRepository seatLockRepository;
+    private final BookingSeatRepository bookingSeatRepository;
+    private final SeatVersionRepository seatVersionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ConcurrentMap<Long, SeatInventory> inventories = new ConcurrentHashMap<>();
+    private final Set<Long> suspected = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.seating.inventory.warmup-hours:24}")
+    private int warmupHours;
+
+    /**
+     * Returns the resident inventory, loading it first if needed. The load
+     * runs outside the map, so a slow query never blocks other screenings;
+     * when two requests load the same screening at once, the first one to
+     * finish wins and the other copy is dropped.
+     */
+    public SeatInventory get(Long screeningId) {
+        SeatInventory inventory = inventories.get(screeningId);
+        if (inventory != null) {
+            return inventory;
+        }
+        SeatInventory loaded = loader.load(screeningId);
+        SeatInventory raced = inventories.putIfAbsent(screeningId, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    public Optional<SeatInventory> find(Long screeningId) {
+        return Optional.ofNullable(inventories.get(screeningId));
+    }
+
+    public void evict(Long screeningId) {
+        if (inventories.remove(screeningId) != null) {
+            log.debug("Evicted seat inventory for screening {}", screeningId);
+        }
+        suspected.remove(screeningId);
+    }
+
+    /**
+     * Evicts the inventory once the surrounding transaction completes, for
+     * changes to the screening itself (hall, times, deletion) that the
+     * resident copy cannot follow. Without a transaction it is evicted at once.
+     */
+    public void evictAfterCommit(Long screeningId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(screeningId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(screeningId);
+            }
+        });
+    }
+
+    public void evictHall(Long hallId) {
+        inventories.forEach((screeningId, inventory) -> {
+            if (hallId.equals(inventory.getHallId())) {
+                evict(screeningId);
+            }
+        });
+    }
+
+    /**
+     * Takes the next seat-map version of the screening in the current
+     * transaction (or a new one) and acknowledges it on the resident
+     * inventory once that transaction commits. The row lock taken by the
+     * increment orders the changes of a screening across all nodes and is
+     * held until commit, so this is meant to be the last write of the
+     * transaction.
+     */
+    @Transactional
+    public long commitVersion(Long screeningId) {
+        long version = seatVersionRepository.next(screeningId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                // Ahead of the listeners that broadcast the change.
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCommit() {
+                acknowledge(screeningId, version);
+            }
+        });
+        return version;
+    }
+
+    public void acknowledge(Long screeningId, long version) {
+        SeatInventory inventory = inventories.get(screeningId);
+        if (inventory != null) {
+            inventory.acknowledge(version);
+        }
+    }
+
+    /**
+     * Runs {@code undo} if the surrounding transaction does not commit, so an
+     * in-memory change never outlives the database write it mirrors.
+     */
+    public void onRollback(Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    undo.run();
+                }
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (warmupHours <= 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Screening screening : screeningRepository.findByActiveTrueAndStartTimeBetween(now, now.plusHours(warmupHours), Pageable.unpaged())) {
+            try {
+                get(screening.getId());
+            } catch (RuntimeException ex) {
+                log.warn("Unable to warm up seat inventory for screening {}", screening.getId(), ex);
+            }
+        }
+        log.info("Seat inventory warmed up for {} screenings", inventories.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.seating.inventory.reconcile-interval-ms:30000}")
+    public void reconcile() {
+        LocalDateTime now = LocalDateTime.now();
+        inventories.forEach((screeningId, inventory) -> {
+            if (inventory.isFinishedBy(now)) {
+                evict(screeningId);
+                return;
+            }
+            long lockedSeats = seatLockRepository.countActiveLockedSeats(screeningId, now);
+            long reservedSeats = bookingSeatRepository.countActiveSeatsByScreeningId(screeningId);
+            boolean drifted = lockedSeats != inventory.activeHoldCount(now)
+                || reservedSeats != inventory.reservedCount()
+                || inventory.hasVersionGap();
+            if (!drifted) {
+                suspected.remove(screeningId);
+                return;
+            }
+            // A single mismatch can be a write or an event that is still in flight; rebuild only if it persists.
+            if (suspected.add(screeningId)) {
+                return;
+            }
+            log.warn("Seat inventory for screening {} drifted from the database, rebuilding", screeningId);
+            suspected.remove(screeningId);
+            try {
+                // A new version moves subscribers, here and on other nodes, past whatever they were sent.
+                eventPublisher.publishEvent(SeatMapChangedEvent.of(screeningId, Change.REFRESHED, List.of()));
+                SeatInventory rebuilt = loader.load(screeningId);
+                rebuilt.continueFrom(inventory);
+                inventories.replace(screeningId, inventory, rebuilt);
+            } catch (RuntimeException ex) {
+                log.warn("Unable to rebuild seat inventory for screening {}", screeningId, ex);
+                evict(screeningId);
+            }
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.cinema.seating;
+
+import com.cinema.entity.BookingSeat;
+import com.cinema.entity.Hall;
+import com.cinema.entity.Screening;
+import com.cinema.entity.SeatLock;
+import com.cinema.exception.ResourceNotFoundException;
+import com.cinema.repository.BookingSeatRepository;
+import com.cinema.repository.ScreeningRepository;
+import com.cinema.repository.SeatLockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeatInventoryLoader {
+
+    private final ScreeningRepository screeningRepository;
+    private final HallLayoutCache layoutCache;
+    private final BookingSeatRepository bookingSeatRepository;
+    private final SeatLockRepository seatLockRepository;
+    private final SeatOwnerTokens ownerTokens;
+
+    @Transactional(readOnly = true)
+    public SeatInventory load(Long screeningId) {
+        Screening screening = screeningRepository.findById(screeningId)
+            .orElseThrow(() -> new ResourceNotFoundException("Screening", "id", screeningId));
+        Hall hall = screening.getHall();
+        // Read before the seats, so the state is at least as recent as the version.
+        long version = screeningRepository.findSeatVersion(screeningId);
+
+        SeatInventory inventory = new SeatInventory(screeningId, layoutCache.get(hall), screening.getEndTime());
+
+        for (BookingSeat bookingSeat : bookingSeatRepository.findActiveSeatsByScreeningId(screeningId)) {
+            Long seatId = bookingSeat.getSeat().getId();
+            if (!inventory.isReserved(seatId)) {
+                inventory.markReserved(seatId, bookingSeat.getSeatStatus() == BookingSeat.SeatStatus.OCCUPIED);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (SeatLock lock : seatLockRepository.findActiveLocksByScreening(screeningId, now)) {
+            Long seatId = lock.getSeat().getId();
+            SeatHold current = inventory.activeHold(seatId, now);
+            if (current == null || lock.getExpiresAt().isAfter(current.expiresAt())) {
+                inventory.hold(seatId, new SeatHold(ownerTokens.of(lock.getSessionId()), lock.getUsername(), lock.getExpiresAt()));
+            }
+        }
+
+        inventory.startAt(version);
+        log.debug("Loaded seat inventory for screening {} ({} seats)", screeningId, inventory.size());
+        return inventory;
+    }
+}
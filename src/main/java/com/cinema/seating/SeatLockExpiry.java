@@ -0,0 +1,9 @@
+package com.cinema.seating;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending expiry of a seat lock as tracked by {@link SeatLockExpiryWheel}.
+ */
+public record SeatLockExpiry(Long screeningId, Long seatId, LocalDateTime expiresAt) {
+}
@@ -0,0 +1,96 @@
+package com.cinema.seating;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Hashed timing wheel for seat-lock expiries. Each lock is filed under the
+ * tick at which it lapses, so advancing the wheel only touches the slots
+ * that came due instead of scanning every lock. Deadlines further away than
+ * one revolution simply stay in their slot until a later pass finds them due.
+ * Stale entries (a lock that was extended or released in the meantime) are
+ * harmless: expiring them is guarded by the lock's current expiry time.
+ */
+@Component
+public class SeatLockExpiryWheel {
+
+    private final long tickMillis;
+    private final ArrayDeque<SeatLockExpiry>[] slots;
+    private long lastTick = Long.MIN_VALUE;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public SeatLockExpiryWheel(@Value("${app.seating.expiry.tick-ms:1000}") long tickMillis,
+                               @Value("${app.seating.expiry.wheel-size:512}") int wheelSize) {
+        this.tickMillis = tickMillis;
+        this.slots = new ArrayDeque[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            slots[i] = new ArrayDeque<>();
+        }
+    }
+
+    public synchronized void schedule(SeatLockExpiry expiry) {
+        long tick = ceilTick(expiry.expiresAt());
+        if (lastTick != Long.MIN_VALUE && tick <= lastTick) {
+            // Its slot has already been passed; pick it up on the next advance.
+            tick = lastTick + 1;
+        }
+        slots[slotOf(tick)].add(expiry);
+        size++;
+    }
+
+    /**
+     * Moves the wheel up to {@code now} and returns the expiries that came due.
+     */
+    public synchronized List<SeatLockExpiry> advance(LocalDateTime now) {
+        long nowTick = floorTick(now);
+        if (lastTick == Long.MIN_VALUE) {
+            lastTick = nowTick - 1;
+        }
+        if (nowTick <= lastTick) {
+            return List.of();
+        }
+        long ticks = Math.min(nowTick - lastTick, slots.length);
+        List<SeatLockExpiry> due = new ArrayList<>();
+        for (long tick = nowTick - ticks + 1; tick <= nowTick; tick++) {
+            Iterator<SeatLockExpiry> entries = slots[slotOf(tick)].iterator();
+            while (entries.hasNext()) {
+                SeatLockExpiry expiry = entries.next();
+                if (!expiry.expiresAt().isAfter(now)) {
+                    entries.remove();
+                    due.add(expiry);
+                }
+            }
+        }
+        lastTick = nowTick;
+        size -= due.size();
+        return due;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private int slotOf(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.length);
+    }
+
+    private long floorTick(LocalDateTime time) {
+        return Math.floorDiv(toEpochMillis(time), tickMillis);
+    }
+
+    private long ceilTick(LocalDateTime time) {
+        return -Math.floorDiv(-toEpochMillis(time), tickMillis);
+    }
+
+    private long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,38 @@
+package com.cinema.seating;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Published whenever the seats of a screening change. Listeners receive it
+ * only once the transaction that made the change has committed, so nothing
+ * that is later rolled back is ever broadcast. {@code seatIds} lists the
+ * seats that changed when they are known, and {@code owners} the
+ * {@link SeatOwnerTokens owner tokens} of the sessions whose holds were all
+ * released.
+ */
+public record SeatMapChangedEvent(Long screeningId,
+                                  Instant occurredAt,
+                                  Change change,
+                                  List<Long> seatIds,
+                                  Set<String> owners) {
+
+    public enum Change {
+        LOCKED,
+        RELEASED,
+        EXPIRED,
+        BOOKED,
+        CANCELLED,
+        REFRESHED
+    }
+
+    public static SeatMapChangedEvent of(Long screeningId, Change change, Collection<Long> seatIds) {
+        return new SeatMapChangedEvent(screeningId, Instant.now(), change, List.copyOf(seatIds), Set.of());
+    }
+
+    public static SeatMapChangedEvent sessionsEnded(Long screeningId, Set<String> owners) {
+        return new SeatMapChangedEvent(screeningId, Instant.now(), Change.RELEASED, List.of(), Set.copyOf(owners));
+    }
+}
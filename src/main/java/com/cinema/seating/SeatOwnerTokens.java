@@ -0,0 +1,67 @@
+package com.cinema.seating;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Derives the opaque owner token a seat hold is kept under from the HTTP
+ * session id. Holds travel to other nodes in seat events and the outbox, so
+ * they must not carry the session id itself, which would let anyone who can
+ * read them take over the session. The token is a keyed hash: every node
+ * derives the same token from the same session with the shared
+ * {@code app.seating.owner-token-key}, and nobody without the key can derive
+ * it at all.
+ */
+@Component
+@Slf4j
+public class SeatOwnerTokens {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int TOKEN_BYTES = 16;
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+
+    public SeatOwnerTokens(@Value("${app.seating.owner-token-key:}") String key) {
+        byte[] secret;
+        if (key == null || key.isBlank()) {
+            secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+            log.warn("app.seating.owner-token-key is not set; seat holds are only recognised on the node that created them");
+        } else {
+            secret = key.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * The owner token of the session, or {@code null} for no session.
+     */
+    public String of(String sessionId) {
+        if (sessionId == null) {
+            return null;
+        }
+        byte[] digest = macs.get().doFinal(sessionId.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, TOKEN_BYTES));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Unable to initialise " + ALGORITHM, ex);
+        }
+    }
+}
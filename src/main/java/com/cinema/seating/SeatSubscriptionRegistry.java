@@ -0,0 +1,115 @@
+package com.cinema.seating;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Counts the live subscriptions to the seat topics of each screening, so
+ * seat updates are only computed for screenings somebody is watching. Both
+ * the delta and the compact topic count as watching. STOMP subscriptions are
+ * followed through the session events; other transports register their
+ * subscribers through {@link #subscribe} and {@link #unsubscribe}.
+ */
+@Component
+public class SeatSubscriptionRegistry {
+
+    private static final Pattern SEAT_TOPIC = Pattern.compile("^/topic/screenings/(\\d+)/seats(?:/compact)?$");
+
+    // Session id to its seat subscriptions (subscription id to screening id).
+    private final ConcurrentMap<String, ConcurrentMap<String, Long>> sessions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Integer> counts = new ConcurrentHashMap<>();
+
+    public SeatSubscriptionRegistry(MeterRegistry meterRegistry) {
+        Gauge.builder("seating.subscribers", this, SeatSubscriptionRegistry::totalSubscribers)
+            .description("Live subscriptions to seat-map updates")
+            .register(meterRegistry);
+        Gauge.builder("seating.subscribed.screenings", counts, Map::size)
+            .description("Screenings with at least one seat-map subscriber")
+            .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Long screeningId = screeningIdOf(accessor.getDestination());
+        if (screeningId != null && accessor.getSessionId() != null && accessor.getSubscriptionId() != null) {
+            subscribe(accessor.getSessionId(), accessor.getSubscriptionId(), screeningId);
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        if (accessor.getSessionId() != null && accessor.getSubscriptionId() != null) {
+            unsubscribe(accessor.getSessionId(), accessor.getSubscriptionId());
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        ConcurrentMap<String, Long> subscriptions = sessions.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::decrement);
+        }
+    }
+
+    public void subscribe(String sessionId, String subscriptionId, Long screeningId) {
+        Long previous = sessions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>())
+            .put(subscriptionId, screeningId);
+        if (previous != null) {
+            decrement(previous);
+        }
+        counts.merge(screeningId, 1, Integer::sum);
+    }
+
+    public void unsubscribe(String sessionId, String subscriptionId) {
+        ConcurrentMap<String, Long> subscriptions = sessions.get(sessionId);
+        Long screeningId = subscriptions != null ? subscriptions.remove(subscriptionId) : null;
+        if (screeningId != null) {
+            decrement(screeningId);
+        }
+        if (subscriptions != null && subscriptions.isEmpty()) {
+            sessions.remove(sessionId, subscriptions);
+        }
+    }
+
+    public boolean hasSubscribers(Long screeningId) {
+        return counts.containsKey(screeningId);
+    }
+
+    public int subscriberCount(Long screeningId) {
+        return counts.getOrDefault(screeningId, 0);
+    }
+
+    public Map<Long, Integer> subscriberCounts() {
+        return Map.copyOf(counts);
+    }
+
+    public int totalSubscribers() {
+        return counts.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private void decrement(Long screeningId) {
+        counts.computeIfPresent(screeningId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+
+    static Long screeningIdOf(String destination) {
+        if (destination == null) {
+            return null;
+        }
+        Matcher matcher = SEAT_TOPIC.matcher(destination);
+        return matcher.matches() ? Long.valueOf(matcher.group(1)) : null;
+    }
+}
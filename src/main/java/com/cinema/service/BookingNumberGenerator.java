@@ -0,0 +1,28 @@
+package com.cinema.service;
+
+/**
+ * Source of booking numbers for new bookings. The implementation is chosen
+ * with {@code app.booking.number.format}; numbers already issued keep
+ * resolving whatever format is active, since lookups go by the stored value.
+ */
+public interface BookingNumberGenerator {
+
+    String next();
+
+    /**
+     * Canonical form of a booking number as a customer typed or scanned it.
+     * Numbers this generator could not have produced are returned unchanged.
+     */
+    default String normalize(String bookingNumber) {
+        return bookingNumber;
+    }
+
+    /**
+     * Whether the stored number is hard enough to guess to let anyone who
+     * presents it see the booking, like a ticket link. Numbers of other
+     * formats are assumed to be.
+     */
+    default boolean isUnguessable(String bookingNumber) {
+        return true;
+    }
+}
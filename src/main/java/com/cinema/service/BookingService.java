@@ -13,6 +13,7 @@ import com.cinema.repository.ScreeningRepository;
 import com.cinema.repository.SeatRepository;
 import com.cinema.repository.TicketTypeRepository;
 import com.cinema.repository.UserRepository;
+import com.cinema.service.ScreeningSeatCounter.SeatCounts;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -23,6 +24,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -36,6 +38,9 @@ public class BookingService {
     private final SeatRepository seatRepository;
     private final TicketTypeRepository ticketTypeRepository;
     private final SeatReservationService seatReservationService;
+    private final ScreeningSeatCounter screeningSeatCounter;
+    private final BookingNumberGenerator bookingNumberGenerator;
+    private final QrCodeService qrCodeService;
 
     @Transactional(readOnly = true)
     public Page<BookingDTO> getAllBookings(Pageable pageable) {
@@ -43,20 +48,45 @@ public class BookingService {
         return bookingRepository.findAll(pageable).map(this::convertToDto);
     }
 
+    /**
+     * The booking with the given id, if {@code username} owns it or the
+     * requester is an admin. Ids are sequential, so they never grant access
+     * on their own.
+     */
     @Transactional(readOnly = true)
-    public BookingDTO getBookingById(Long id) {
+    public BookingDTO getBookingById(Long id, String username, boolean admin) {
         log.debug("Fetching booking by id: {}", id);
         Booking booking = bookingRepository.findById(id)
+            .filter(found -> isVisible(found, username, admin, false))
             .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", id));
         return convertToDto(booking);
     }
 
+    /**
+     * The booking with the given number. An unguessable number works like a
+     * ticket link and is enough on its own; other numbers are treated like
+     * ids.
+     */
     @Transactional(readOnly = true)
-    public BookingDTO getBookingByBookingNumber(String bookingNumber) {
+    public BookingDTO getBookingByBookingNumber(String bookingNumber, String username, boolean admin) {
         log.debug("Fetching booking by booking number: {}", bookingNumber);
-        Booking booking = bookingRepository.findByBookingNumber(bookingNumber)
-            .orElseThrow(() -> new ResourceNotFoundException("Booking", "bookingNumber", bookingNumber));
-        return convertToDto(booking);
+        return convertToDto(findVisibleByBookingNumber(bookingNumber, username, admin));
+    }
+
+    /**
+     * The booking's QR code as PNG, visible on the same terms as the booking.
+     * Rendered codes are cached by {@link QrCodeService}, but the booking is
+     * checked on every request, so a cancelled booking no longer yields a
+     * ticket.
+     */
+    @Transactional(readOnly = true)
+    public byte[] getBookingQrCode(String bookingNumber, Integer size, String username, boolean admin) {
+        Booking booking = findVisibleByBookingNumber(bookingNumber, username, admin);
+        if (booking.getStatus() == Booking.BookingStatus.CANCELLED
+                || booking.getStatus() == Booking.BookingStatus.EXPIRED) {
+            throw new IllegalStateException("Booking " + booking.getBookingNumber() + " has no valid ticket");
+        }
+        return qrCodeService.renderPng(booking.getBookingNumber(), size);
     }
 
     @Transactional(readOnly = true)
@@ -144,6 +174,7 @@ public class BookingService {
 
         // Create booking
         Booking booking = Booking.builder()
+            .bookingNumber(bookingNumberGenerator.next())
             .user(user)
             .screening(screening)
             .customerEmail(bookingDTO.getCustomerEmail())
@@ -201,6 +232,9 @@ public class BookingService {
         log.info("Booking created successfully with id: {} and booking number: {}", 
             savedBooking.getId(), savedBooking.getBookingNumber());
 
+        screeningSeatCounter.record(savedBooking, SeatCounts.NONE);
+        seatReservationService.syncBookingSeats(savedBooking);
+
         return convertToDto(savedBooking);
     }
 
@@ -213,6 +247,7 @@ public class BookingService {
         if (!booking.getStatus().equals(Booking.BookingStatus.PENDING)) {
             throw new IllegalStateException("Only pending bookings can be confirmed");
         }
+        SeatCounts before = SeatCounts.of(booking);
 
         booking.setStatus(Booking.BookingStatus.CONFIRMED);
         booking.setPaymentMethod(paymentMethod);
@@ -223,9 +258,10 @@ public class BookingService {
 
         Booking confirmedBooking = bookingRepository.save(booking);
         log.info("Booking confirmed successfully: {}", confirmedBooking.getId());
+        screeningSeatCounter.record(confirmedBooking, before);
 
-        // Broadcast seat status changes to all connected clients
-        seatReservationService.broadcastSeatMap(confirmedBooking.getScreening().getId());
+        // Apply seat status changes to the seat inventory and broadcast them to all connected clients
+        seatReservationService.syncBookingSeats(confirmedBooking);
 
         return convertToDto(confirmedBooking);
     }
@@ -239,14 +275,16 @@ public class BookingService {
         if (booking.getStatus().equals(Booking.BookingStatus.CANCELLED)) {
             throw new IllegalStateException("Booking is already cancelled");
         }
+        SeatCounts before = SeatCounts.of(booking);
 
         booking.setStatus(Booking.BookingStatus.CANCELLED);
         booking.getBookingSeats().forEach(bs -> bs.setSeatStatus(BookingSeat.SeatStatus.AVAILABLE));
         Booking cancelledBooking = bookingRepository.save(booking);
         log.info("Booking cancelled successfully: {}", cancelledBooking.getId());
+        screeningSeatCounter.record(cancelledBooking, before);
 
-        // Broadcast seat status changes to all connected clients
-        seatReservationService.broadcastSeatMap(cancelledBooking.getScreening().getId());
+        // Apply seat status changes to the seat inventory and broadcast them to all connected clients
+        seatReservationService.syncBookingSeats(cancelledBooking);
 
         return convertToDto(cancelledBooking);
     }
@@ -254,14 +292,43 @@ public class BookingService {
     @Transactional
     public void deleteBooking(Long id) {
         log.info("Deleting booking with id: {}", id);
-        if (!bookingRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Booking", "id", id);
-        }
+        Booking booking = bookingRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", id));
+        screeningSeatCounter.recordRemoval(booking);
+        seatReservationService.releaseBookingSeats(booking);
         bookingRepository.deleteById(id);
         log.info("Booking deleted successfully: {}", id);
     }
 
     // Mapping methods
+    private Booking findByBookingNumber(String bookingNumber) {
+        // Numbers issued before the current format are stored as typed, so try those first.
+        return bookingRepository.findByBookingNumber(bookingNumber)
+            .or(() -> {
+                String normalized = bookingNumberGenerator.normalize(bookingNumber);
+                return normalized.equals(bookingNumber) ? Optional.empty() : bookingRepository.findByBookingNumber(normalized);
+            })
+            .orElseThrow(() -> new ResourceNotFoundException("Booking", "bookingNumber", bookingNumber));
+    }
+
+    private Booking findVisibleByBookingNumber(String bookingNumber, String username, boolean admin) {
+        Booking booking = findByBookingNumber(bookingNumber);
+        if (!isVisible(booking, username, admin, bookingNumberGenerator.isUnguessable(booking.getBookingNumber()))) {
+            throw new ResourceNotFoundException("Booking", "bookingNumber", bookingNumber);
+        }
+        return booking;
+    }
+
+    /**
+     * The one rule for looking up a single booking: its owner and admins
+     * always see it, anyone else only by presenting an unguessable
+     * reference. Hidden bookings are reported as missing rather than
+     * forbidden, so guessed ids and numbers are not confirmed.
+     */
+    private static boolean isVisible(Booking booking, String username, boolean admin, boolean unguessableReference) {
+        return admin || unguessableReference || booking.getUser().getUsername().equals(username);
+    }
+
     private BookingDTO convertToDto(Booking booking) {
         return BookingDTO.builder()
             .id(booking.getId())
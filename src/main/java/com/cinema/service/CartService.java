@@ -46,7 +46,18 @@ public class CartService {
             log.debug("Cart requested for screening {} but session holds {}", screeningId, sessionCart.getScreeningId());
             return emptyResponse(screeningId);
         }
-        refreshLocks(screeningId, sessionId, username);
+        return reconcile(screeningId, findLocksForOwner(screeningId, sessionId, username));
+    }
+
+    /**
+     * Drops the items whose seats are no longer locked and returns what is
+     * left, given the owner's active locks keyed by seat id.
+     */
+    public CartResponse reconcile(Long screeningId, Map<Long, SeatLock> locks) {
+        if (!screeningMatchesSession(screeningId)) {
+            return emptyResponse(screeningId);
+        }
+        refreshLocks(locks);
         if (sessionCart.getScreeningId() == null || sessionCart.getItems().isEmpty()) {
             return emptyResponse(screeningId);
         }
@@ -170,8 +181,7 @@ public class CartService {
         }
     }
 
-    private void refreshLocks(Long screeningId, String sessionId, String username) {
-        Map<Long, SeatLock> locks = findLocksForOwner(screeningId, sessionId, username);
+    private void refreshLocks(Map<Long, SeatLock> locks) {
         Iterator<Map.Entry<Long, CartItem>> iterator = sessionCart.getItems().entrySet().iterator();
         while (iterator.hasNext()) {
             Map.Entry<Long, CartItem> entry = iterator.next();
@@ -0,0 +1,221 @@
+package com.cinema.service;
+
+import com.cinema.dto.CheckoutResponse;
+import com.cinema.entity.CheckoutIdempotencyKey;
+import com.cinema.entity.CheckoutIdempotencyKey.IdempotencyStatus;
+import com.cinema.entity.CheckoutIdempotencyKey.Key;
+import com.cinema.exception.DuplicateResourceException;
+import com.cinema.repository.CheckoutIdempotencyKeyRepository;
+import com.cinema.repository.jdbc.CheckoutIdempotencyKeyJdbcRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Makes checkout safe to retry. A checkout sent with an idempotency key runs
+ * at most once: the key is claimed in the {@code checkout_idempotency_keys}
+ * table before the checkout starts, its response is stored with the booking,
+ * and repeats of the key within the TTL get that response back instead of a
+ * second booking. Keys are scoped to the user who sent them. Repeats that
+ * arrive on the same node while the first request is still running wait for
+ * it; repeats on other nodes are refused with a conflict until it finishes.
+ * Recent keys are kept in a bounded in-memory map in front of the table.
+ */
+@Service
+@Slf4j
+public class CheckoutIdempotencyService {
+
+    private final CheckoutIdempotencyKeyRepository repository;
+    private final CheckoutIdempotencyKeyJdbcRepository claims;
+    private final ObjectMapper objectMapper;
+    private final int ttlMinutes;
+    private final int pendingSeconds;
+    private final Map<Key, StoredCheckout> recent;
+    private final ConcurrentMap<Key, RunningCheckout> running = new ConcurrentHashMap<>();
+    private final Counter replays;
+
+    public CheckoutIdempotencyService(CheckoutIdempotencyKeyRepository repository,
+                                      CheckoutIdempotencyKeyJdbcRepository claims,
+                                      ObjectMapper objectMapper,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.checkout.idempotency.ttl-minutes:1440}") int ttlMinutes,
+                                      @Value("${app.checkout.idempotency.pending-seconds:300}") int pendingSeconds,
+                                      @Value("${app.checkout.idempotency.cache-size:10000}") int cacheSize) {
+        this.repository = repository;
+        this.claims = claims;
+        this.objectMapper = objectMapper;
+        this.ttlMinutes = ttlMinutes;
+        this.pendingSeconds = pendingSeconds;
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, StoredCheckout> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        this.replays = meterRegistry.counter("checkout.idempotent.replays");
+    }
+
+    /**
+     * Runs {@code checkout} unless the key already produced a response, which
+     * is then returned as it was. {@code checkout} must hand the key to
+     * {@link #record} in its transaction.
+     */
+    public CheckoutResponse execute(String key, String username, Long screeningId, Supplier<CheckoutResponse> checkout) {
+        CheckoutResponse replay = find(key, username, screeningId);
+        if (replay != null) {
+            return replay;
+        }
+        Key owned = new Key(username, key);
+        RunningCheckout mine = new RunningCheckout(screeningId, new CompletableFuture<>());
+        RunningCheckout other = running.putIfAbsent(owned, mine);
+        if (other != null) {
+            checkScreening(key, other.screeningId(), screeningId);
+            log.debug("Checkout with idempotency key {} is already running, waiting for it", key);
+            replays.increment();
+            return await(other.result());
+        }
+        try {
+            CheckoutResponse response = claimAndRun(key, username, screeningId, checkout);
+            mine.result().complete(response);
+            return response;
+        } catch (RuntimeException ex) {
+            mine.result().completeExceptionally(ex);
+            throw ex;
+        } finally {
+            running.remove(owned, mine);
+        }
+    }
+
+    /**
+     * Completes the claimed key with the response, in the caller's
+     * transaction, so the key is completed exactly when the booking exists.
+     * Fails, rolling the booking back, when the claim has been lost.
+     */
+    public void record(String key, String username, Long screeningId, CheckoutResponse response) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unable to serialize checkout response for idempotency key " + key, ex);
+        }
+        if (!claims.complete(key, username, json, expiry(LocalDateTime.now()))) {
+            throw new IllegalStateException("Idempotency key " + key + " is no longer claimed by this checkout");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.checkout.idempotency.purge-interval-ms:600000}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = repository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired checkout idempotency keys", purged);
+        }
+    }
+
+    /**
+     * Claims the key in the database and runs the checkout, or replays the
+     * response of the request that holds the key. The claim is dropped again
+     * when the checkout fails.
+     */
+    private CheckoutResponse claimAndRun(String key, String username, Long screeningId, Supplier<CheckoutResponse> checkout) {
+        // The first request may have finished between the lookup and the claim.
+        CheckoutResponse finished = find(key, username, screeningId);
+        if (finished != null) {
+            return finished;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (!claims.claim(key, username, screeningId, now, now.plusSeconds(pendingSeconds))) {
+            finished = find(key, username, screeningId);
+            if (finished != null) {
+                return finished;
+            }
+            repository.findById(new Key(username, key)).ifPresent(entry ->
+                checkScreening(key, entry.getScreeningId(), screeningId));
+            throw new DuplicateResourceException("Checkout with idempotency key " + key + " is still in progress");
+        }
+        CheckoutResponse response;
+        try {
+            response = checkout.get();
+        } catch (RuntimeException ex) {
+            claims.release(key, username);
+            throw ex;
+        }
+        recent.put(new Key(username, key), new StoredCheckout(screeningId, response, expiry(LocalDateTime.now())));
+        return response;
+    }
+
+    private CheckoutResponse find(String key, String username, Long screeningId) {
+        LocalDateTime now = LocalDateTime.now();
+        Key owned = new Key(username, key);
+        StoredCheckout stored = recent.get(owned);
+        if (stored == null) {
+            stored = repository.findById(owned)
+                .filter(entry -> entry.getStatus() == IdempotencyStatus.COMPLETED)
+                .filter(entry -> entry.getExpiresAt().isAfter(now))
+                .map(this::toStored)
+                .orElse(null);
+            if (stored != null) {
+                recent.put(owned, stored);
+            }
+        }
+        if (stored == null || !stored.expiresAt().isAfter(now)) {
+            return null;
+        }
+        checkScreening(key, stored.screeningId(), screeningId);
+        log.debug("Replaying checkout {} for idempotency key {}", stored.response().getBookingNumber(), key);
+        replays.increment();
+        return stored.response();
+    }
+
+    private void checkScreening(String key, Long claimedScreeningId, Long screeningId) {
+        if (!claimedScreeningId.equals(screeningId)) {
+            throw new IllegalArgumentException("Idempotency key " + key + " was already used for another checkout");
+        }
+    }
+
+    private StoredCheckout toStored(CheckoutIdempotencyKey entry) {
+        try {
+            CheckoutResponse response = objectMapper.readValue(entry.getResponse(), CheckoutResponse.class);
+            return new StoredCheckout(entry.getScreeningId(), response, entry.getExpiresAt());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unable to read stored checkout for idempotency key " + entry.getIdempotencyKey(), ex);
+        }
+    }
+
+    private CheckoutResponse await(CompletableFuture<CheckoutResponse> result) {
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private LocalDateTime expiry(LocalDateTime from) {
+        return from.plusMinutes(ttlMinutes);
+    }
+
+    private record StoredCheckout(Long screeningId, CheckoutResponse response, LocalDateTime expiresAt) {
+    }
+
+    private record RunningCheckout(Long screeningId, CompletableFuture<CheckoutResponse> result) {
+    }
+}
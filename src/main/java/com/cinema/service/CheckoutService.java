@@ -19,19 +19,34 @@ import com.cinema.repository.SeatLockRepository;
 import com.cinema.repository.SeatRepository;
 import com.cinema.repository.TicketTypeRepository;
 import com.cinema.repository.UserRepository;
+import com.cinema.service.ScreeningSeatCounter.SeatCounts;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+/**
+ * Turns the session cart into a confirmed booking. Checkout runs as a fixed
+ * sequence of stages, each timed as {@code checkout.stage} tagged with its
+ * name, and issues the same number of queries whatever the party size: one
+ * for the owner's locks, one each for all seats and all ticket types, and
+ * one batch for the booking seats.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -46,58 +61,140 @@ public class CheckoutService {
     private final SeatLockRepository seatLockRepository;
     private final UserRepository userRepository;
     private final SeatReservationService seatReservationService;
+    private final ScreeningSeatCounter screeningSeatCounter;
     private final QrCodeService qrCodeService;
+    private final CheckoutIdempotencyService checkoutIdempotencyService;
+    private final BookingNumberGenerator bookingNumberGenerator;
+    private final MeterRegistry meterRegistry;
 
     @Transactional
     public CheckoutResponse finalizeCheckout(Long screeningId,
                                               CheckoutRequest request,
                                               String sessionId,
                                               String username) {
+        return finalizeCheckout(screeningId, request, sessionId, username, null);
+    }
+
+    /**
+     * Completes checkout and, when an idempotency key is given, stores the
+     * response under it in the booking's transaction.
+     */
+    @Transactional
+    public CheckoutResponse finalizeCheckout(Long screeningId,
+                                              CheckoutRequest request,
+                                              String sessionId,
+                                              String username,
+                                              String idempotencyKey) {
         if (username == null || username.isBlank()) {
             throw new IllegalStateException("Login required to complete checkout");
         }
 
-        CartResponse snapshot = cartService.getCart(screeningId, sessionId, username);
-        if (snapshot.getItems().isEmpty()) {
-            throw new IllegalStateException("Cannot finalize checkout with an empty cart");
+        CheckedCart cart = stage("cart", () -> checkCart(screeningId, sessionId, username));
+        BookingEntities entities = stage("load", () -> loadEntities(screeningId, username, cart.items()));
+        Booking savedBooking = stage("persist", () -> persistBooking(request, cart, entities));
+        stage("inventory", () -> {
+            screeningSeatCounter.record(savedBooking, SeatCounts.NONE);
+            seatReservationService.syncBookingSeats(savedBooking);
+            seatReservationService.releaseLocks(screeningId, cart.locks());
+        });
+        stage("confirm", () -> qrCodeService.prerenderAfterCommit(savedBooking.getBookingNumber()));
+
+        DistributionSummary.builder("checkout.seats")
+            .description("Seats per completed checkout")
+            .register(meterRegistry)
+            .record(cart.items().size());
+        CheckoutResponse response = CheckoutResponse.builder()
+            .bookingNumber(savedBooking.getBookingNumber())
+            .paymentReference(savedBooking.getPaymentReference())
+            .totalPrice(savedBooking.getTotalPrice())
+            .items(cart.snapshot().getItems())
+            .qrCodeUrl("/api/v1/bookings/number/" + savedBooking.getBookingNumber() + "/qr")
+            .build();
+        if (idempotencyKey != null) {
+            checkoutIdempotencyService.record(idempotencyKey, username, screeningId, response);
+        }
+        clearCartAfterCommit();
+        return response;
+    }
+
+    /**
+     * Empties the cart once the booking has committed; a checkout that fails
+     * at any point, including the commit, leaves the cart for a retry.
+     */
+    private void clearCartAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            sessionCart.clear();
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                sessionCart.clear();
+            }
+        });
+    }
+
+    /**
+     * Loads the owner's locks once, drops cart items whose lock lapsed and
+     * makes sure every remaining item is still locked.
+     */
+    private CheckedCart checkCart(Long screeningId, String sessionId, String username) {
         if (sessionCart.getScreeningId() == null || !sessionCart.getScreeningId().equals(screeningId)) {
             throw new IllegalStateException("Cart is bound to another screening");
         }
+        Map<Long, SeatLock> locks = seatLockRepository.findActiveLocksForOwner(screeningId, sessionId, username, LocalDateTime.now())
+            .stream()
+            .collect(Collectors.toMap(lock -> lock.getSeat().getId(), Function.identity(),
+                (first, second) -> sessionId.equals(first.getSessionId()) ? first : second));
+        CartResponse snapshot = cartService.reconcile(screeningId, locks);
+        if (snapshot.getItems().isEmpty()) {
+            throw new IllegalStateException("Cannot finalize checkout with an empty cart");
+        }
+        validateLocks(locks.keySet(), sessionCart.getItems().keySet());
+        return new CheckedCart(snapshot, List.copyOf(sessionCart.getItems().values()), locks.values());
+    }
 
+    private BookingEntities loadEntities(Long screeningId, String username, List<CartItem> items) {
         Screening screening = screeningRepository.findById(screeningId)
             .orElseThrow(() -> new ResourceNotFoundException("Screening", "id", screeningId));
         User user = userRepository.findByUsername(username)
             .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+        Map<Long, Seat> seats = seatRepository.findAllById(items.stream().map(CartItem::getSeatId).toList()).stream()
+            .collect(Collectors.toMap(Seat::getId, Function.identity()));
+        Map<Long, TicketType> ticketTypes = ticketTypeRepository.findAllById(
+                items.stream().map(CartItem::getTicketTypeId).collect(Collectors.toSet())).stream()
+            .collect(Collectors.toMap(TicketType::getId, Function.identity()));
+        items.forEach(item -> {
+            if (!seats.containsKey(item.getSeatId())) {
+                throw new ResourceNotFoundException("Seat", "id", item.getSeatId());
+            }
+            if (!ticketTypes.containsKey(item.getTicketTypeId())) {
+                throw new ResourceNotFoundException("TicketType", "id", item.getTicketTypeId());
+            }
+        });
+        return new BookingEntities(screening, user, seats, ticketTypes);
+    }
 
-        Map<Long, SeatLock> activeLocks = loadLocksForOwner(screeningId, sessionId, username);
-        validateLocks(activeLocks.keySet(), sessionCart.getItems().keySet());
-
+    /**
+     * Saves the booking with its seats; the seats are written by cascade when
+     * the booking is flushed. Ids come from pooled sequences, so Hibernate
+     * can batch those inserts ({@code hibernate.jdbc.batch_size} with
+     * {@code order_inserts}) instead of a round trip per seat.
+     */
+    private Booking persistBooking(CheckoutRequest request, CheckedCart cart, BookingEntities entities) {
         Booking booking = Booking.builder()
-            .user(user)
-            .screening(screening)
-            .customerEmail(resolveCustomerEmail(request, user))
+            .bookingNumber(bookingNumberGenerator.next())
+            .user(entities.user())
+            .screening(entities.screening())
+            .customerEmail(resolveCustomerEmail(request, entities.user()))
             .customerPhone(request.customerPhone())
             .paymentMethod(request.paymentMethod())
             .paymentReference(buildPaymentReference())
-            .totalPrice(snapshot.getSubtotal())
+            .totalPrice(cart.snapshot().getSubtotal())
             .status(Booking.BookingStatus.CONFIRMED)
             .build();
-
-        sessionCart.getItems().values().forEach(item -> booking.getBookingSeats().add(buildBookingSeat(item, booking)));
-
-        Booking savedBooking = bookingRepository.save(booking);
-        seatReservationService.releaseAll(screeningId, sessionId);
-        seatReservationService.broadcastSeatMap(screeningId);
-        sessionCart.clear();
-
-        return CheckoutResponse.builder()
-            .bookingNumber(savedBooking.getBookingNumber())
-            .paymentReference(savedBooking.getPaymentReference())
-            .totalPrice(savedBooking.getTotalPrice())
-            .items(snapshot.getItems())
-            .qrCodeImage(qrCodeService.generateBookingCode(savedBooking.getBookingNumber()))
-            .build();
+        cart.items().forEach(item -> booking.getBookingSeats().add(buildBookingSeat(item, booking, entities)));
+        return bookingRepository.saveAndFlush(booking);
     }
 
     private void validateLocks(Set<Long> locks, Set<Long> seatsInCart) {
@@ -111,16 +208,11 @@ public class CheckoutService {
         });
     }
 
-    private BookingSeat buildBookingSeat(CartItem cartItem, Booking booking) {
-        Seat seat = seatRepository.findById(cartItem.getSeatId())
-            .orElseThrow(() -> new ResourceNotFoundException("Seat", "id", cartItem.getSeatId()));
-        TicketType ticketType = ticketTypeRepository.findById(cartItem.getTicketTypeId())
-            .orElseThrow(() -> new ResourceNotFoundException("TicketType", "id", cartItem.getTicketTypeId()));
-
+    private BookingSeat buildBookingSeat(CartItem cartItem, Booking booking, BookingEntities entities) {
         return BookingSeat.builder()
             .booking(booking)
-            .seat(seat)
-            .ticketType(ticketType)
+            .seat(entities.seats().get(cartItem.getSeatId()))
+            .ticketType(entities.ticketTypes().get(cartItem.getTicketTypeId()))
             .price(cartItem.getPrice())
             .seatStatus(BookingSeat.SeatStatus.OCCUPIED)
             .build();
@@ -137,15 +229,28 @@ public class CheckoutService {
         return "PAY-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
 
-    private Map<Long, SeatLock> loadLocksForOwner(Long screeningId, String sessionId, String username) {
-        Map<Long, SeatLock> locks = seatLockRepository.findActiveLocksForSession(screeningId, sessionId, LocalDateTime.now()).stream()
-            .collect(Collectors.toMap(lock -> lock.getSeat().getId(), Function.identity()));
-        if (username != null && !username.isBlank()) {
-            List<SeatLock> userLocks = seatLockRepository.findActiveLocksForUsername(screeningId, username, LocalDateTime.now());
-            if (userLocks != null) {
-                userLocks.forEach(lock -> locks.putIfAbsent(lock.getSeat().getId(), lock));
-            }
-        }
-        return locks;
+    private <T> T stage(String name, Supplier<T> work) {
+        return stageTimer(name).record(work);
+    }
+
+    private void stage(String name, Runnable work) {
+        stageTimer(name).record(work);
+    }
+
+    private Timer stageTimer(String name) {
+        return Timer.builder("checkout.stage")
+            .description("Time spent in each stage of checkout")
+            .tag("stage", name)
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+    }
+
+    private record CheckedCart(CartResponse snapshot, List<CartItem> items, Collection<SeatLock> locks) {
+    }
+
+    private record BookingEntities(Screening screening,
+                                   User user,
+                                   Map<Long, Seat> seats,
+                                   Map<Long, TicketType> ticketTypes) {
     }
 }
@@ -3,43 +3,133 @@ package com.cinema.service;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.EncodeHintType;
 import com.google.zxing.WriterException;
-import com.google.zxing.client.j2se.MatrixToImageWriter;
-import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.util.Base64;
+import java.util.Collections;
 import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Renders booking QR codes as PNG. Rendered codes are kept in a bounded LRU
+ * cache keyed by booking number and size, since a ticket is shown many times
+ * over. Checkout only queues the rendering of a new booking's code after
+ * commit; clients load the image from the booking's QR endpoint.
+ */
 @Service
 @Slf4j
 public class QrCodeService {
 
-    @Value("${app.ticketing.qr.size:280}")
-    private int qrSize;
+    static final int MIN_SIZE = 64;
+    static final int MAX_SIZE = 1024;
 
-    public String generateBookingCode(String bookingNumber) {
+    private final int defaultSize;
+    private final Map<RenderKey, byte[]> rendered;
+    private final ThreadPoolExecutor executor;
+    private final Counter hits;
+    private final Counter misses;
+
+    public QrCodeService(MeterRegistry meterRegistry,
+                         @Value("${app.ticketing.qr.size:280}") int defaultSize,
+                         @Value("${app.ticketing.qr.cache-size:2048}") int cacheSize,
+                         @Value("${app.ticketing.qr.prerender-queue:256}") int prerenderQueue) {
+        this.defaultSize = defaultSize;
+        this.rendered = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RenderKey, byte[]> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        // A full queue drops the job; the endpoint renders the code on demand instead.
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(prerenderQueue), new CustomizableThreadFactory("qr-render-"),
+            new ThreadPoolExecutor.DiscardPolicy());
+        this.hits = meterRegistry.counter("ticketing.qr.cache", "result", "hit");
+        this.misses = meterRegistry.counter("ticketing.qr.cache", "result", "miss");
+    }
+
+    /**
+     * Returns the PNG for the booking number, rendering it on a cache miss.
+     * A {@code null} size stands for the configured default.
+     */
+    public byte[] renderPng(String bookingNumber, Integer size) {
+        RenderKey key = keyOf(bookingNumber, size);
+        byte[] png = rendered.get(key);
+        if (png != null) {
+            hits.increment();
+            return png;
+        }
+        misses.increment();
+        png = encode(key);
+        rendered.put(key, png);
+        return png;
+    }
+
+    boolean isRendered(String bookingNumber, Integer size) {
+        return rendered.containsKey(keyOf(bookingNumber, size));
+    }
+
+    /**
+     * Renders the default-size code in the background once the current
+     * transaction commits, so the first display is already a cache hit.
+     */
+    public void prerenderAfterCommit(String bookingNumber) {
+        Runnable submit = () -> executor.execute(() -> {
+            try {
+                renderPng(bookingNumber, null);
+            } catch (RuntimeException ex) {
+                log.warn("Failed to prerender QR code for booking {}", bookingNumber, ex);
+            }
+        });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit.run();
+                }
+            });
+        } else {
+            submit.run();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private RenderKey keyOf(String bookingNumber, Integer size) {
+        int pixels = size != null ? size : defaultSize;
+        if (pixels < MIN_SIZE || pixels > MAX_SIZE) {
+            throw new IllegalArgumentException("QR code size must be between " + MIN_SIZE + " and " + MAX_SIZE + " pixels");
+        }
+        return new RenderKey(bookingNumber, pixels);
+    }
+
+    private byte[] encode(RenderKey key) {
         try {
             Map<EncodeHintType, Object> hints = new EnumMap<>(EncodeHintType.class);
             hints.put(EncodeHintType.MARGIN, 1);
-
-            BitMatrix matrix = new QRCodeWriter()
-                .encode(bookingNumber, BarcodeFormat.QR_CODE, qrSize, qrSize, hints);
-            BufferedImage image = MatrixToImageWriter.toBufferedImage(matrix);
-            try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-                ImageIO.write(image, "PNG", baos);
-                return Base64.getEncoder().encodeToString(baos.toByteArray());
-            }
-        } catch (WriterException | IOException ex) {
-            log.error("Failed to generate QR code for booking {}", bookingNumber, ex);
+            return QrPngWriter.write(new QRCodeWriter()
+                .encode(key.bookingNumber(), BarcodeFormat.QR_CODE, key.size(), key.size(), hints));
+        } catch (WriterException ex) {
+            log.error("Failed to generate QR code for booking {}", key.bookingNumber(), ex);
             throw new IllegalStateException("Unable to generate QR code", ex);
         }
     }
+
+    private record RenderKey(String bookingNumber, int size) {
+    }
 }
@@ -0,0 +1,81 @@
+package com.cinema.service;
+
+import com.google.zxing.common.BitMatrix;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a QR bit matrix straight to a 1-bit grayscale PNG, one bit per
+ * pixel with dark modules as 0. This skips the 32-bit {@code BufferedImage}
+ * and the {@code ImageIO} plugin lookup, and the output is a fraction of
+ * the size of a true-colour PNG.
+ */
+final class QrPngWriter {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private QrPngWriter() {
+    }
+
+    static byte[] write(BitMatrix matrix) {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        int stride = (width + 7) / 8 + 1;
+        // Each scanline starts with filter type 0 (none), which the zeroed array already holds.
+        byte[] scanlines = new byte[stride * height];
+        for (int y = 0; y < height; y++) {
+            int row = y * stride + 1;
+            for (int x = 0; x < width; x++) {
+                if (!matrix.get(x, y)) {
+                    scanlines[row + (x >> 3)] |= (byte) (0x80 >>> (x & 7));
+                }
+            }
+        }
+
+        ByteArrayOutputStream png = new ByteArrayOutputStream(scanlines.length / 4 + 64);
+        png.writeBytes(SIGNATURE);
+        writeChunk(png, "IHDR", ByteBuffer.allocate(13)
+            .putInt(width)
+            .putInt(height)
+            .put((byte) 1)  // bit depth
+            .put((byte) 0)  // grayscale
+            .put((byte) 0)  // deflate
+            .put((byte) 0)  // adaptive filtering
+            .put((byte) 0)  // no interlace
+            .array());
+        writeChunk(png, "IDAT", deflate(scanlines));
+        writeChunk(png, "IEND", new byte[0]);
+        return png.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 16);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void writeChunk(ByteArrayOutputStream png, String type, byte[] data) {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        png.writeBytes(ByteBuffer.allocate(4).putInt(data.length).array());
+        png.writeBytes(typeBytes);
+        png.writeBytes(data);
+        png.writeBytes(ByteBuffer.allocate(4).putInt((int) crc.getValue()).array());
+    }
+}
@@ -0,0 +1,101 @@
+package com.cinema.service;
+
+import com.cinema.entity.Booking;
+import com.cinema.entity.BookingSeat;
+import com.cinema.repository.ScreeningRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Maintains the sold and held seat counters of screenings, so listings can
+ * report availability without loading bookings. Booking changes apply the
+ * difference between the booking's seat counts before and after the change
+ * in the same transaction; a periodic recount of the upcoming screenings
+ * fills in the counters for existing data and corrects any drift. The
+ * recount walks the screenings in small batches, each committed on its own,
+ * and only writes the rows whose counters are off, so it never holds many
+ * screening rows locked at once.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ScreeningSeatCounter {
+
+    private final ScreeningRepository screeningRepository;
+
+    @Value("${app.seating.counters.recount-batch-size:200}")
+    private int recountBatchSize;
+
+    /**
+     * Seats a booking takes from a screening: occupied seats are sold, the
+     * others are held until the booking is confirmed or cancelled.
+     */
+    public record SeatCounts(int sold, int held) {
+
+        public static final SeatCounts NONE = new SeatCounts(0, 0);
+
+        public static SeatCounts of(Booking booking) {
+            if (booking.getStatus() == Booking.BookingStatus.CANCELLED) {
+                return NONE;
+            }
+            int sold = 0;
+            int held = 0;
+            for (BookingSeat bookingSeat : booking.getBookingSeats()) {
+                if (bookingSeat.getSeatStatus() == BookingSeat.SeatStatus.OCCUPIED) {
+                    sold++;
+                } else {
+                    held++;
+                }
+            }
+            return new SeatCounts(sold, held);
+        }
+    }
+
+    @Transactional
+    public void record(Booking booking, SeatCounts before) {
+        SeatCounts after = SeatCounts.of(booking);
+        int sold = after.sold() - before.sold();
+        int held = after.held() - before.held();
+        if (sold == 0 && held == 0) {
+            return;
+        }
+        screeningRepository.adjustSeatCounters(booking.getScreening().getId(), sold, held);
+    }
+
+    @Transactional
+    public void recordRemoval(Booking booking) {
+        SeatCounts counts = SeatCounts.of(booking);
+        if (counts.sold() != 0 || counts.held() != 0) {
+            screeningRepository.adjustSeatCounters(booking.getScreening().getId(), -counts.sold(), -counts.held());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.seating.counters.recount-interval-ms:3600000}")
+    public void recount() {
+        LocalDateTime now = LocalDateTime.now();
+        Pageable batch = PageRequest.of(0, recountBatchSize);
+        long afterId = 0;
+        int corrected = 0;
+        List<Long> ids;
+        do {
+            ids = screeningRepository.findUnfinishedIdsAfter(now, afterId, batch);
+            if (ids.isEmpty()) {
+                break;
+            }
+            corrected += screeningRepository.recountSeatCounters(ids);
+            afterId = ids.get(ids.size() - 1);
+        } while (ids.size() == recountBatchSize);
+        if (corrected > 0) {
+            log.info("Corrected drifted seat counters of {} screenings", corrected);
+        }
+    }
+}
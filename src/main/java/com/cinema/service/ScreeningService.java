@@ -8,6 +8,7 @@ import com.cinema.exception.ResourceNotFoundException;
 import com.cinema.repository.HallRepository;
 import com.cinema.repository.MovieRepository;
 import com.cinema.repository.ScreeningRepository;
+import com.cinema.seating.SeatInventoryEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -27,6 +28,7 @@ public class ScreeningService {
     private final ScreeningRepository screeningRepository;
     private final MovieRepository movieRepository;
     private final HallRepository hallRepository;
+    private final SeatInventoryEngine inventoryEngine;
 
     @Transactional(readOnly = true)
     public Page<ScreeningDTO> getAllActiveScreenings(Pageable pageable) {
@@ -162,6 +164,8 @@ public class ScreeningService {
         updateEntityFromDto(existingScreening, screeningDTO);
 
         Screening updatedScreening = screeningRepository.save(existingScreening);
+        // The resident seat inventory keeps the hall layout and end time it was loaded with.
+        inventoryEngine.evictAfterCommit(id);
         log.info("Screening updated successfully: {}", updatedScreening.getId());
 
         return convertToDto(updatedScreening);
@@ -174,6 +178,7 @@ public class ScreeningService {
             .orElseThrow(() -> new ResourceNotFoundException("Screening", "id", id));
         screening.setActive(false);
         screeningRepository.save(screening);
+        inventoryEngine.evictAfterCommit(id);
         log.info("Screening cancelled successfully: {}", id);
     }
 
@@ -184,6 +189,7 @@ public class ScreeningService {
             throw new ResourceNotFoundException("Screening", "id", id);
         }
         screeningRepository.deleteById(id);
+        inventoryEngine.evictAfterCommit(id);
         log.info("Screening deleted successfully: {}", id);
     }
 
@@ -200,11 +206,7 @@ public class ScreeningService {
             .endTime(screening.getEndTime())
             .basePrice(screening.getBasePrice())
             .active(screening.getActive())
-            .availableSeats(screening.getHall().getTotalSeats() - 
-                (screening.getBookings() != null ? 
-                    screening.getBookings().stream()
-                        .mapToInt(b -> b.getBookingSeats().size())
-                        .sum() : 0))
+            .availableSeats(screening.getHall().getTotalSeats() - screening.getSeatsSold() - screening.getSeatsHeld())
             .createdAt(screening.getCreatedAt())
             .build();
     }
@@ -0,0 +1,50 @@
+package com.cinema.service;
+
+import com.cinema.repository.jdbc.SeatLockArchiveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keeps {@code seat_locks} small by moving released and expired locks to
+ * {@code seat_lock_history} once they are older than the retention window.
+ * Each batch commits on its own, and a run stops after a fixed number of
+ * batches so a large backlog is worked off over several runs.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeatLockArchiver {
+
+    private final SeatLockArchiveRepository archiveRepository;
+
+    @Value("${app.seating.archive.retention-hours:24}")
+    private int retentionHours;
+
+    @Value("${app.seating.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.seating.archive.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(fixedDelayString = "${app.seating.archive.interval-ms:300000}")
+    public void archiveTerminalLocks() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusHours(retentionHours);
+        int archived = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int moved = archiveRepository.archiveBatch(cutoff, batchSize, now);
+            archived += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            log.info("Archived {} terminal seat locks older than {}", archived, cutoff);
+        }
+    }
+}
@@ -1,20 +1,83 @@
 package com.cinema.service;
 
+import com.cinema.repository.SeatLockRepository;
+import com.cinema.repository.jdbc.SeatLockSessionRepository;
+import com.cinema.seating.SeatLockExpiry;
+import com.cinema.seating.SeatLockExpiryWheel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class SeatLockCleanupService {
 
     private final SeatReservationService seatReservationService;
+    private final SeatLockExpiryWheel expiryWheel;
+    private final SeatLockRepository seatLockRepository;
+    private final SeatLockSessionRepository seatLockSessionRepository;
+
+    @Value("${app.seating.session-sweep.grace-seconds:60}")
+    private int sessionGraceSeconds;
+
+    @Value("${app.seating.session-sweep.batch-size:500}")
+    private int sessionBatchSize;
+
+    /**
+     * Re-files the expiry of every lock that is still active in the database,
+     * so holds created before a restart lapse on time.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverPendingExpiries() {
+        List<SeatLockExpiry> pending = seatLockRepository.findPendingExpiries();
+        pending.forEach(expiryWheel::schedule);
+        log.info("Recovered {} pending seat lock expiries", pending.size());
+    }
 
+    @Scheduled(fixedRateString = "${app.seating.expiry.tick-ms:1000}")
+    public void expireDueLocks() {
+        List<SeatLockExpiry> due = expiryWheel.advance(LocalDateTime.now());
+        if (due.isEmpty()) {
+            return;
+        }
+        try {
+            seatReservationService.expireLocks(due);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to expire {} seat locks, retrying on the next tick", due.size(), ex);
+            due.forEach(expiryWheel::schedule);
+        }
+    }
+
+    /**
+     * Safety net for expiries the wheel never saw, e.g. locks written by
+     * another application node.
+     */
     @Scheduled(fixedDelayString = "${app.seating.cleanup-interval-ms:60000}")
     public void cleanupExpiredLocks() {
         log.trace("Running seat lock cleanup");
         seatReservationService.expireLocks();
     }
+
+    /**
+     * Releases the locks of sessions that expired or were deleted from the
+     * session store. The JDBC session repository publishes no expiry events,
+     * so ended sessions are picked up by comparing the two tables.
+     */
+    @Scheduled(fixedDelayString = "${app.seating.session-sweep.interval-ms:60000}")
+    public void releaseEndedSessionLocks() {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> sessionIds = seatLockSessionRepository.findEndedSessionIds(
+            now.minusSeconds(sessionGraceSeconds), now, sessionBatchSize);
+        if (!sessionIds.isEmpty()) {
+            seatReservationService.releaseSessionLocks(sessionIds);
+        }
+    }
 }
@@ -0,0 +1,286 @@
+package com.cinema.service;
+
+import com.cinema.seating.SeatSubscriptionRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Server-Sent Events streams of the seat map, for clients that cannot use
+ * STOMP. A stream starts with a {@code snapshot} event and continues with
+ * the same {@code delta} payloads as the STOMP topic; every event carries the
+ * seat-map version as its id. A client that reconnects with
+ * {@code Last-Event-ID} is sent only the deltas it missed when they are still
+ * in the replay buffer, and a fresh snapshot otherwise.
+ * <p>
+ * Streams are asynchronous servlet requests, so an idle stream holds no
+ * request thread; they are kept alive by periodic heartbeat comments.
+ * Events are queued per stream and written by a small pool of sender
+ * threads, so a slow client never blocks the broadcast threads. A stream
+ * whose queue overflows is completed; the client reconnects with its last
+ * event id and catches up from the replay buffer or a fresh snapshot.
+ */
+@Component
+@Slf4j
+public class SeatMapStreamService {
+
+    private static final String SUBSCRIPTION_ID = "sse";
+
+    private final SeatReservationService seatReservationService;
+    private final SeatSubscriptionRegistry subscriptions;
+    private final long timeoutMillis;
+    private final long retryMillis;
+    private final int replaySize;
+    private final Duration replayRetention;
+    private final int queueSize;
+    private final ThreadPoolExecutor sender;
+    private final Counter overflows;
+
+    private final ConcurrentMap<Long, Set<Stream>> streams = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Deque<StreamedDelta>> history = new ConcurrentHashMap<>();
+
+    public SeatMapStreamService(SeatReservationService seatReservationService,
+                                SeatSubscriptionRegistry subscriptions,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.seating.sse.timeout-ms:1800000}") long timeoutMillis,
+                                @Value("${app.seating.sse.retry-ms:3000}") long retryMillis,
+                                @Value("${app.seating.sse.replay-size:32}") int replaySize,
+                                @Value("${app.seating.sse.replay-retention-seconds:300}") long replayRetentionSeconds,
+                                @Value("${app.seating.sse.send-threads:4}") int sendThreads,
+                                @Value("${app.seating.sse.queue-size:64}") int queueSize) {
+        this.seatReservationService = seatReservationService;
+        this.subscriptions = subscriptions;
+        this.timeoutMillis = timeoutMillis;
+        this.retryMillis = retryMillis;
+        this.replaySize = replaySize;
+        this.replayRetention = Duration.ofSeconds(replayRetentionSeconds);
+        this.queueSize = queueSize;
+        // A stream has at most one drain task queued, so the task queue is bounded by the open streams.
+        this.sender = new ThreadPoolExecutor(sendThreads, sendThreads, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), new CustomizableThreadFactory("seat-sse-"));
+        this.overflows = meterRegistry.counter("seating.sse.overflows");
+        Gauge.builder("seating.sse.streams", this, SeatMapStreamService::openStreams)
+            .description("Open seat-map event streams")
+            .register(meterRegistry);
+    }
+
+    public SseEmitter open(Long screeningId, String lastEventId) {
+        long version = seatReservationService.getSeatMapVersion(screeningId);
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Stream stream = new Stream(screeningId, "sse-" + UUID.randomUUID(), emitter, queueSize);
+
+        // Registered before the initial events, so no delta published meanwhile is lost.
+        streams.compute(screeningId, (id, screeningStreams) -> {
+            Set<Stream> updated = screeningStreams != null ? screeningStreams : ConcurrentHashMap.newKeySet();
+            updated.add(stream);
+            return updated;
+        });
+        subscriptions.subscribe(stream.id(), SUBSCRIPTION_ID, screeningId);
+        emitter.onCompletion(() -> close(stream));
+        emitter.onTimeout(() -> close(stream));
+        emitter.onError(ex -> close(stream));
+
+        List<StreamedDelta> missed = missedDeltas(screeningId, parseVersion(lastEventId), version);
+        if (missed != null) {
+            missed.forEach(delta -> send(stream, deltaEvent(delta)));
+        } else {
+            send(stream, SseEmitter.event()
+                .name("snapshot")
+                .id(Long.toString(version))
+                .reconnectTime(retryMillis)
+                .data(seatReservationService.getSeatMap(screeningId, null, null), MediaType.APPLICATION_JSON));
+        }
+        return emitter;
+    }
+
+    /**
+     * Sends an already serialized delta to every stream of the screening and
+     * keeps it for clients that resume.
+     */
+    public void publish(Long screeningId, long fromVersion, long version, byte[] payload) {
+        StreamedDelta delta = new StreamedDelta(fromVersion, version, payload, Instant.now());
+        Deque<StreamedDelta> recent = history.computeIfAbsent(screeningId, id -> new ArrayDeque<>());
+        synchronized (recent) {
+            recent.addLast(delta);
+            while (recent.size() > replaySize) {
+                recent.removeFirst();
+            }
+        }
+        Set<Stream> screeningStreams = streams.get(screeningId);
+        if (screeningStreams != null) {
+            screeningStreams.forEach(stream -> send(stream, deltaEvent(delta)));
+        }
+    }
+
+    public int openStreams() {
+        return streams.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdown();
+    }
+
+    /**
+     * Keeps idle streams from being closed by proxies and detects clients
+     * that went away, and drops replay buffers nobody can resume from.
+     */
+    @Scheduled(fixedRateString = "${app.seating.sse.heartbeat-ms:15000}")
+    public void heartbeat() {
+        streams.values().forEach(screeningStreams ->
+            screeningStreams.forEach(stream -> send(stream, SseEmitter.event().comment("heartbeat"))));
+        streams.keySet().forEach(screeningId ->
+            streams.computeIfPresent(screeningId, (id, screeningStreams) -> screeningStreams.isEmpty() ? null : screeningStreams));
+
+        Instant cutoff = Instant.now().minus(replayRetention);
+        history.entrySet().removeIf(entry -> {
+            Deque<StreamedDelta> recent = entry.getValue();
+            synchronized (recent) {
+                StreamedDelta last = recent.peekLast();
+                return !streams.containsKey(entry.getKey()) && (last == null || last.publishedAt().isBefore(cutoff));
+            }
+        });
+    }
+
+    /**
+     * The deltas after {@code lastVersion} up to the current version, an
+     * empty list when the client is up to date, or {@code null} when the
+     * buffer does not cover the gap and a snapshot is needed.
+     */
+    private List<StreamedDelta> missedDeltas(Long screeningId, Long lastVersion, long currentVersion) {
+        if (lastVersion == null) {
+            return null;
+        }
+        if (lastVersion == currentVersion) {
+            return List.of();
+        }
+        Deque<StreamedDelta> recent = history.get(screeningId);
+        if (recent == null) {
+            return null;
+        }
+        List<StreamedDelta> missed = new ArrayList<>();
+        synchronized (recent) {
+            for (StreamedDelta delta : recent) {
+                if (delta.version() > lastVersion) {
+                    missed.add(delta);
+                }
+            }
+        }
+        boolean covered = !missed.isEmpty()
+            && missed.get(0).fromVersion() <= lastVersion
+            && missed.get(missed.size() - 1).version() == currentVersion;
+        return covered ? missed : null;
+    }
+
+    private SseEmitter.SseEventBuilder deltaEvent(StreamedDelta delta) {
+        return SseEmitter.event()
+            .name("delta")
+            .id(Long.toString(delta.version()))
+            .data(delta.payload(), MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Queues the event for the stream and schedules a drain unless one is
+     * already pending; only one drain runs per stream, which keeps its events
+     * in order.
+     */
+    private void send(Stream stream, SseEmitter.SseEventBuilder event) {
+        if (!stream.pending().offer(event)) {
+            overflows.increment();
+            log.debug("Closing seat-map stream of screening {}: {} events pending", stream.screeningId(), queueSize);
+            close(stream);
+            stream.pending().clear();
+            stream.emitter().complete();
+            return;
+        }
+        scheduleDrain(stream);
+    }
+
+    private void scheduleDrain(Stream stream) {
+        if (!stream.draining().compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sender.execute(() -> drain(stream));
+        } catch (RejectedExecutionException ex) {
+            stream.draining().set(false);
+            close(stream);
+        }
+    }
+
+    private void drain(Stream stream) {
+        SseEmitter.SseEventBuilder event;
+        while ((event = stream.pending().poll()) != null) {
+            try {
+                stream.emitter().send(event);
+            } catch (IOException | IllegalStateException ex) {
+                log.debug("Closing seat-map stream of screening {}: {}", stream.screeningId(), ex.getMessage());
+                close(stream);
+                stream.pending().clear();
+                stream.emitter().completeWithError(ex);
+                break;
+            }
+        }
+        stream.draining().set(false);
+        // An event queued after the last poll but before the flag was cleared found a drain in progress.
+        if (!stream.pending().isEmpty()) {
+            scheduleDrain(stream);
+        }
+    }
+
+    private void close(Stream stream) {
+        Set<Stream> screeningStreams = streams.get(stream.screeningId());
+        if (screeningStreams != null && screeningStreams.remove(stream)) {
+            subscriptions.unsubscribe(stream.id(), SUBSCRIPTION_ID);
+        }
+    }
+
+    private static Long parseVersion(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(lastEventId.trim());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private record Stream(Long screeningId, String id, SseEmitter emitter,
+                          BlockingQueue<SseEmitter.SseEventBuilder> pending, AtomicBoolean draining) {
+
+        Stream(Long screeningId, String id, SseEmitter emitter, int queueSize) {
+            this(screeningId, id, emitter, new ArrayBlockingQueue<>(queueSize), new AtomicBoolean());
+        }
+    }
+
+    private record StreamedDelta(long fromVersion, long version, byte[] payload, Instant publishedAt) {
+    }
+}
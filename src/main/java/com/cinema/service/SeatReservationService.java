@@ -1,31 +1,52 @@
 package com.cinema.service;
 
+import com.cinema.dto.CompactSeatMapResponse;
+import com.cinema.dto.ScreeningAvailabilityDTO;
+import com.cinema.dto.ScreeningSeatCounts;
+import com.cinema.dto.SeatLayoutResponse;
 import com.cinema.dto.SeatMapResponse;
 import com.cinema.dto.SeatStatusDTO;
-import com.cinema.dto.SeatStatusDTO.SeatState;
-import com.cinema.entity.BookingSeat;
-import com.cinema.entity.BookingSeat.SeatStatus;
+import com.cinema.entity.Booking;
 import com.cinema.entity.Screening;
+import com.cinema.entity.BookingSeat.SeatStatus;
 import com.cinema.entity.Seat;
 import com.cinema.entity.SeatLock;
 import com.cinema.entity.SeatLock.SeatLockStatus;
 import com.cinema.exception.ResourceNotFoundException;
-import com.cinema.repository.BookingSeatRepository;
 import com.cinema.repository.ScreeningRepository;
 import com.cinema.repository.SeatLockRepository;
 import com.cinema.repository.SeatRepository;
+import com.cinema.repository.jdbc.SeatLockExpiryRepository;
+import com.cinema.seating.BestSeatFinder;
+import com.cinema.seating.HallLayout;
+import com.cinema.seating.PackedSeatStates;
+import com.cinema.seating.SeatClaim;
+import com.cinema.seating.SeatHold;
+import com.cinema.seating.SeatInventory;
+import com.cinema.seating.SeatInventoryEngine;
+import com.cinema.seating.SeatLockExpiry;
+import com.cinema.seating.SeatLockExpiryWheel;
+import com.cinema.seating.SeatMapChangedEvent;
+import com.cinema.seating.SeatMapChangedEvent.Change;
+import com.cinema.seating.SeatOwnerTokens;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.function.Function;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,57 +56,224 @@ public class SeatReservationService {
 
     private final ScreeningRepository screeningRepository;
     private final SeatRepository seatRepository;
-    private final BookingSeatRepository bookingSeatRepository;
     private final SeatLockRepository seatLockRepository;
-    private final SeatStatusNotifierService seatStatusNotifier;
+    private final SeatLockExpiryRepository seatLockExpiryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SeatInventoryEngine inventoryEngine;
+    private final SeatLockExpiryWheel expiryWheel;
+    private final BestSeatFinder bestSeatFinder;
+    private final SeatOwnerTokens ownerTokens;
 
     @Value("${app.seating.lock-duration-minutes:10}")
     private int lockDurationMinutes;
 
-    @Transactional(readOnly = true)
+    @Value("${app.seating.max-seats-per-request:10}")
+    private int maxSeatsPerRequest;
+
+    @Value("${app.seating.availability.max-ids:200}")
+    private int maxAvailabilityIds;
+
     public SeatMapResponse getSeatMap(Long screeningId, String sessionId, String username) {
-        Screening screening = getScreening(screeningId);
-        List<SeatStatusDTO> seats = buildSeatStatuses(screening, sessionId, username);
+        SeatInventory inventory = inventoryEngine.get(screeningId);
+        // Read the version first: the statuses are at least that recent, and later deltas are idempotent.
+        long version = inventory.version();
         return SeatMapResponse.builder()
-            .rows(screening.getHall().getRowsCount())
-            .cols(screening.getHall().getSeatsPerRow())
+            .rows(inventory.getRows())
+            .cols(inventory.getCols())
+            .holdMinutes(lockDurationMinutes)
+            .version(version)
+            .seats(inventory.seatStatuses(ownerTokens.of(sessionId), username, LocalDateTime.now()))
+            .build();
+    }
+
+    public SeatLayoutResponse getSeatLayout(Long screeningId) {
+        HallLayout layout = inventoryEngine.get(screeningId).getLayout();
+        int size = layout.size();
+        long[] seatIds = new long[size];
+        int[] rowNumbers = new int[size];
+        int[] seatNumbers = new int[size];
+        for (int i = 0; i < size; i++) {
+            seatIds[i] = layout.seatId(i);
+            rowNumbers[i] = layout.rowNumber(i);
+            seatNumbers[i] = layout.seatNumber(i);
+        }
+        return SeatLayoutResponse.builder()
+            .hallId(layout.getHallId())
+            .rows(layout.getRows())
+            .cols(layout.getCols())
+            .layoutId(layout.fingerprint())
+            .seatIds(seatIds)
+            .rowNumbers(rowNumbers)
+            .seatNumbers(seatNumbers)
+            .build();
+    }
+
+    public CompactSeatMapResponse getCompactSeatMap(Long screeningId, String sessionId, String username) {
+        SeatInventory inventory = inventoryEngine.get(screeningId);
+        long version = inventory.version();
+        PackedSeatStates packed = inventory.packStates(ownerTokens.of(sessionId), username, LocalDateTime.now());
+        return CompactSeatMapResponse.builder()
             .holdMinutes(lockDurationMinutes)
-            .seats(seats)
+            .version(version)
+            .layoutId(inventory.getLayout().fingerprint())
+            .seatCount(inventory.size())
+            .states(packed.states())
+            .ownHolds(packed.ownHolds())
             .build();
     }
 
+    /**
+     * Availability of many screenings from one query over the seat counters,
+     * plus the selection locks of the screenings whose inventory is resident.
+     * Unknown ids are left out; the rest keep the requested order.
+     */
+    @Transactional(readOnly = true)
+    public List<ScreeningAvailabilityDTO> getAvailability(Collection<Long> screeningIds) {
+        List<Long> requested = List.copyOf(new LinkedHashSet<>(screeningIds));
+        if (requested.size() > maxAvailabilityIds) {
+            throw new IllegalArgumentException("Cannot query more than " + maxAvailabilityIds + " screenings at once");
+        }
+        if (requested.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ScreeningSeatCounts> counts = screeningRepository.findSeatCounts(requested).stream()
+            .collect(Collectors.toMap(ScreeningSeatCounts::screeningId, c -> c));
+        return requested.stream()
+            .map(counts::get)
+            .filter(Objects::nonNull)
+            .map(c -> {
+                int locked = inventoryEngine.find(c.screeningId())
+                    .map(inventory -> inventory.activeHoldCount(now))
+                    .orElse(0);
+                int held = c.held() + locked;
+                return ScreeningAvailabilityDTO.builder()
+                    .screeningId(c.screeningId())
+                    .totalSeats(c.totalSeats())
+                    .sold(c.sold())
+                    .held(held)
+                    .free(Math.max(0, c.totalSeats() - c.sold() - held))
+                    .build();
+            })
+            .toList();
+    }
+
+    public long getSeatMapVersion(Long screeningId) {
+        return inventoryEngine.get(screeningId).version();
+    }
+
     @Transactional
     public SeatStatusDTO lockSeat(Long screeningId, Long seatId, String sessionId, String username) {
-        Screening screening = getScreening(screeningId);
-        Seat seat = getSeatForScreening(seatId, screening);
+        return lockSeats(screeningId, List.of(seatId), sessionId, username).get(0);
+    }
+
+    /**
+     * Locks all requested seats or none of them. Seats are claimed in memory
+     * first; if any of them is unavailable the claims made so far are undone
+     * before the database is touched. The new locks are written together and
+     * subscribers receive a single seat-map update. The unique index on
+     * active locks decides races with other nodes: a lock that cannot be
+     * inserted loses the claim and rolls the whole request back.
+     */
+    @Transactional
+    public List<SeatStatusDTO> lockSeats(Long screeningId, Collection<Long> seatIds, String sessionId, String username) {
+        List<Long> requested = List.copyOf(new LinkedHashSet<>(seatIds));
+        if (requested.isEmpty()) {
+            throw new IllegalArgumentException("At least one seat must be selected");
+        }
+        if (requested.size() > maxSeatsPerRequest) {
+            throw new IllegalArgumentException("Cannot lock more than " + maxSeatsPerRequest + " seats at once");
+        }
+
+        SeatInventory inventory = inventoryEngine.get(screeningId);
+        for (Long seatId : requested) {
+            if (!inventory.contains(seatId)) {
+                assertSeatBelongsToHall(seatId, inventory.getHallId());
+                throw new IllegalStateException("Seat is not available for booking");
+            }
+        }
 
         LocalDateTime now = LocalDateTime.now();
-        assertSeatIsAvailable(screeningId, seatId);
-
-        Optional<SeatLock> existingLock = seatLockRepository.findActiveLock(screeningId, seatId, now);
-        if (existingLock.isPresent()) {
-            SeatLock lock = existingLock.get();
-            if (isSameRequester(lock, sessionId, username)) {
-                lock.setExpiresAt(now.plusMinutes(lockDurationMinutes));
-                log.debug("Extending lock {} for seat {}", lock.getId(), seatId);
-                return buildSeatStatus(seat, Map.of(), Map.of(seat.getId(), lock), sessionId, username);
+        SeatHold hold = new SeatHold(ownerTokens.of(sessionId), username, now.plusMinutes(lockDurationMinutes));
+        Map<Long, SeatClaim> claims = claimAll(inventory, requested, hold, now);
+        return applyClaims(screeningId, inventory, requested, claims, sessionId, hold, now);
+    }
+
+    /**
+     * Finds the best block of {@code partySize} adjacent free seats and locks
+     * it. If another requester takes part of the block first, the next best
+     * block is tried.
+     */
+    @Transactional
+    public List<SeatStatusDTO> lockBestAvailable(Long screeningId, int partySize, Seat.SeatType seatType,
+                                                 String sessionId, String username) {
+        if (partySize < 1) {
+            throw new IllegalArgumentException("At least one seat must be selected");
+        }
+        if (partySize > maxSeatsPerRequest) {
+            throw new IllegalArgumentException("Cannot lock more than " + maxSeatsPerRequest + " seats at once");
+        }
+
+        SeatInventory inventory = inventoryEngine.get(screeningId);
+        LocalDateTime now = LocalDateTime.now();
+        SeatHold hold = new SeatHold(ownerTokens.of(sessionId), username, now.plusMinutes(lockDurationMinutes));
+        for (List<Long> block : bestSeatFinder.find(inventory.getLayout(), inventory.availability(now), partySize, seatType)) {
+            Map<Long, SeatClaim> claims;
+            try {
+                claims = claimAll(inventory, block, hold, now);
+            } catch (IllegalStateException ex) {
+                log.debug("Block {} for screening {} was taken, trying the next one", block, screeningId);
+                continue;
             }
-            throw new IllegalStateException("Seat already locked by another user");
+            return applyClaims(screeningId, inventory, block, claims, sessionId, hold, now);
         }
+        throw new IllegalStateException("No " + partySize + " adjacent seats available");
+    }
 
-        SeatLock lock = SeatLock.builder()
-            .seat(seat)
-            .screening(screening)
-            .sessionId(sessionId)
-            .username(username)
-            .expiresAt(now.plusMinutes(lockDurationMinutes))
-            .status(SeatLockStatus.ACTIVE)
-            .build();
-        seatLockRepository.save(lock);
-        log.info("Seat {} locked for screening {} by session {}", seatId, screeningId, sessionId);
+    private List<SeatStatusDTO> applyClaims(Long screeningId, SeatInventory inventory, List<Long> requested,
+                                            Map<Long, SeatClaim> claims, String sessionId, SeatHold hold,
+                                            LocalDateTime now) {
+        String username = hold.username();
+        claims.forEach((seatId, claim) -> {
+            inventoryEngine.onRollback(() -> inventory.revert(seatId, hold, claim.previous()));
+            expiryWheel.schedule(new SeatLockExpiry(screeningId, seatId, hold.expiresAt()));
+        });
+
+        List<Long> claimed = requested.stream()
+            .filter(seatId -> claims.get(seatId).outcome() == SeatClaim.Outcome.CLAIMED)
+            .toList();
+        List<Long> extended = claimed.size() < requested.size()
+            ? extendLocks(screeningId, requested, claimed, sessionId, hold)
+            : List.of();
+        if (!claimed.isEmpty()) {
+            Screening screening = screeningRepository.getReferenceById(screeningId);
+            List<SeatLock> locks = claimed.stream()
+                .map(seatId -> SeatLock.builder()
+                    .seat(seatRepository.getReferenceById(seatId))
+                    .screening(screening)
+                    .sessionId(sessionId)
+                    .username(username)
+                    .expiresAt(hold.expiresAt())
+                    .status(SeatLockStatus.ACTIVE)
+                    .build())
+                .toList();
+            seatLockExpiryRepository.expireLapsed(screeningId, claimed, now);
+            try {
+                seatLockRepository.saveAllAndFlush(locks);
+            } catch (DataIntegrityViolationException ex) {
+                log.info("Seats {} of screening {} were locked on another node first", claimed, screeningId);
+                throw new IllegalStateException("Seat is already locked by another user");
+            }
+            log.info("Seats {} locked for screening {} by session {}", claimed, screeningId, sessionId);
+        }
+        if (!claimed.isEmpty() || !extended.isEmpty()) {
+            // An extension moves the expiry that seat maps show, so it takes a new version like a new lock.
+            broadcast(SeatMapChangedEvent.of(screeningId, Change.LOCKED, requested));
+        }
 
-        broadcast(screeningId);
-        return buildSeatStatus(seat, Map.of(), Map.of(seat.getId(), lock), sessionId, username);
+        return requested.stream()
+            .map(seatId -> inventory.seatStatus(seatId, hold.owner(), username, now))
+            .toList();
     }
 
     @Transactional
@@ -102,8 +290,9 @@ public class SeatReservationService {
         }
 
         lock.setStatus(SeatLockStatus.RELEASED);
+        releaseHold(inventoryEngine.get(screeningId), seatId, ownerTokens.of(sessionId), username);
         log.info("Seat {} released for screening {} by session {}", seatId, screeningId, sessionId);
-        broadcast(screeningId);
+        broadcast(SeatMapChangedEvent.of(screeningId, Change.RELEASED, List.of(seatId)));
     }
 
     @Transactional
@@ -111,66 +300,188 @@ public class SeatReservationService {
         List<SeatLock> locks = seatLockRepository.findActiveLocksByScreening(screeningId, LocalDateTime.now()).stream()
             .filter(lock -> lock.getSessionId().equals(sessionId))
             .toList();
+        releaseLocks(screeningId, locks);
+    }
+
+    /**
+     * Releases locks the caller has already loaded in the current
+     * transaction, sparing the lookup of {@link #releaseAll}.
+     */
+    @Transactional
+    public void releaseLocks(Long screeningId, Collection<SeatLock> locks) {
         if (locks.isEmpty()) {
             return;
         }
-        locks.forEach(lock -> lock.setStatus(SeatLockStatus.RELEASED));
-        log.info("Released {} locks for session {}", locks.size(), sessionId);
-        broadcast(screeningId);
+        SeatInventory inventory = inventoryEngine.get(screeningId);
+        locks.forEach(lock -> {
+            lock.setStatus(SeatLockStatus.RELEASED);
+            releaseHold(inventory, lock.getSeat().getId(), ownerTokens.of(lock.getSessionId()), null);
+        });
+        log.info("Released {} locks for screening {}", locks.size(), screeningId);
+        broadcast(SeatMapChangedEvent.of(screeningId, Change.RELEASED,
+            locks.stream().map(lock -> lock.getSeat().getId()).toList()));
+    }
+
+    /**
+     * Releases every active lock of the given sessions, across screenings,
+     * with one bulk update, and returns the screenings that had any. Used
+     * when sessions end so their seats do not stay blocked until the locks
+     * lapse.
+     */
+    @Transactional
+    public List<Long> releaseSessionLocks(Collection<String> sessionIds) {
+        if (sessionIds.isEmpty()) {
+            return List.of();
+        }
+        List<Long> screeningIds = seatLockRepository.findScreeningIdsWithActiveLocksForSessions(sessionIds);
+        if (screeningIds.isEmpty()) {
+            return screeningIds;
+        }
+        int released = seatLockRepository.releaseSessionLocks(sessionIds, LocalDateTime.now());
+        Set<String> owners = sessionIds.stream().map(ownerTokens::of).collect(Collectors.toSet());
+        // In id order, like expireLocks, so transactions taking the seat versions of several screenings cannot deadlock.
+        screeningIds.forEach(screeningId -> {
+            inventoryEngine.find(screeningId).ifPresent(inventory ->
+                inventory.releaseSessions(owners).forEach((seatId, hold) ->
+                    inventoryEngine.onRollback(() -> inventory.revert(seatId, null, hold))));
+            broadcast(SeatMapChangedEvent.sessionsEnded(screeningId, owners));
+        });
+        log.info("Released {} seat locks of {} ended sessions across screenings {}", released, owners.size(), screeningIds);
+        return screeningIds;
     }
 
+    /**
+     * Expires every lapsed lock with a single set-based update and returns the
+     * screenings that had any, which are the only ones that need a broadcast.
+     * The update reports the seats it expired, so locks that lapse while it
+     * runs are either expired and broadcast together or left for the next run.
+     */
     @Transactional
-    public void expireLocks() {
-        List<SeatLock> expired = seatLockRepository.findByStatusAndExpiresAtBefore(SeatLockStatus.ACTIVE, LocalDateTime.now());
+    public List<Long> expireLocks() {
+        LocalDateTime now = LocalDateTime.now();
+        List<SeatLockExpiry> expired = seatLockExpiryRepository.expireAll(now);
         if (expired.isEmpty()) {
-            return;
+            return List.of();
         }
+        Map<Long, List<Long>> seatsByScreening = releaseExpired(expired, now);
+        log.info("Expired {} seat locks across screenings {}", expired.size(), seatsByScreening.keySet());
+        return List.copyOf(seatsByScreening.keySet());
+    }
 
-        Map<Long, List<SeatLock>> locksByScreening = expired.stream()
-            .collect(Collectors.groupingBy(lock -> lock.getScreening().getId()));
+    /**
+     * Expires the locks handed out by the expiry wheel with one update for all
+     * affected screenings. Locks that were extended since being scheduled
+     * are left alone because their expiry time is still in the future; only
+     * the seats the update actually expired are freed and broadcast.
+     */
+    @Transactional
+    public void expireLocks(Collection<SeatLockExpiry> due) {
+        if (due.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<SeatLockExpiry> expired = seatLockExpiryRepository.expireDue(due, now);
+        Map<Long, List<Long>> seatsByScreening = releaseExpired(expired, now);
+        log.debug("Expired {} seat locks across {} screenings", expired.size(), seatsByScreening.size());
+    }
 
-        locksByScreening.forEach((screeningId, locks) -> {
-            locks.forEach(lock -> lock.setStatus(SeatLockStatus.EXPIRED));
-            log.info("Expired {} seat locks for screening {}", locks.size(), screeningId);
-            broadcast(screeningId);
-        });
+    @Transactional
+    public void syncBookingSeats(Booking booking) {
+        applyBookingSeats(booking, booking.getStatus() == Booking.BookingStatus.CANCELLED);
     }
 
-    @Transactional(readOnly = true)
-    public List<SeatStatusDTO> buildSeatStatuses(Long screeningId) {
-        Screening screening = getScreening(screeningId);
-        return buildSeatStatuses(screening, null, null);
+    /**
+     * Frees the seats of a booking that is about to be deleted. Seats of a
+     * cancelled booking are already free and may have been booked again, so
+     * they are left alone.
+     */
+    @Transactional
+    public void releaseBookingSeats(Booking booking) {
+        if (booking.getStatus() != Booking.BookingStatus.CANCELLED) {
+            applyBookingSeats(booking, true);
+        }
     }
 
-    @Transactional(readOnly = true)
-    public void broadcastSeatMap(Long screeningId) {
-        broadcast(screeningId);
+    private Map<Long, List<Long>> releaseExpired(List<SeatLockExpiry> expired, LocalDateTime now) {
+        Map<Long, List<Long>> seatsByScreening = expired.stream()
+            .collect(Collectors.groupingBy(SeatLockExpiry::screeningId, TreeMap::new,
+                Collectors.mapping(SeatLockExpiry::seatId, Collectors.toList())));
+        seatsByScreening.forEach((screeningId, seatIds) -> {
+            inventoryEngine.find(screeningId)
+                .ifPresent(inventory -> seatIds.forEach(seatId -> inventory.releaseLapsed(seatId, now)));
+            broadcast(SeatMapChangedEvent.of(screeningId, Change.EXPIRED, seatIds));
+        });
+        return seatsByScreening;
     }
 
-    private void broadcast(Long screeningId) {
-        List<SeatStatusDTO> payload = buildSeatStatuses(screeningId);
-        seatStatusNotifier.broadcast(screeningId, payload);
+    private void applyBookingSeats(Booking booking, boolean free) {
+        Long screeningId = booking.getScreening().getId();
+        SeatInventory inventory = inventoryEngine.get(screeningId);
+        booking.getBookingSeats().forEach(bookingSeat -> {
+            Long seatId = bookingSeat.getSeat().getId();
+            int previous = free
+                ? inventory.markFree(seatId)
+                : inventory.markReserved(seatId, bookingSeat.getSeatStatus() == SeatStatus.OCCUPIED);
+            inventoryEngine.onRollback(() -> inventory.restoreBookingState(seatId, previous));
+        });
+        broadcast(SeatMapChangedEvent.of(screeningId, free ? Change.CANCELLED : Change.BOOKED,
+            booking.getBookingSeats().stream().map(bookingSeat -> bookingSeat.getSeat().getId()).toList()));
     }
 
-    private Screening getScreening(Long screeningId) {
-        return screeningRepository.findById(screeningId)
-            .orElseThrow(() -> new ResourceNotFoundException("Screening", "id", screeningId));
+    /**
+     * Announces the change instead of pushing it: the broadcast goes out
+     * after the surrounding transaction commits, off the request thread.
+     */
+    private void broadcast(SeatMapChangedEvent event) {
+        eventPublisher.publishEvent(event);
     }
 
-    private Seat getSeatForScreening(Long seatId, Screening screening) {
+    private void assertSeatBelongsToHall(Long seatId, Long hallId) {
         Seat seat = seatRepository.findById(seatId)
             .orElseThrow(() -> new ResourceNotFoundException("Seat", "id", seatId));
-        if (!seat.getHall().getId().equals(screening.getHall().getId())) {
+        if (!seat.getHall().getId().equals(hallId)) {
             throw new IllegalArgumentException("Seat does not belong to screening hall");
         }
-        return seat;
     }
 
-    private void assertSeatIsAvailable(Long screeningId, Long seatId) {
-        boolean booked = bookingSeatRepository.findBySeatIdAndScreeningId(seatId, screeningId).stream()
-            .anyMatch(bs -> bs.getSeatStatus() != SeatStatus.AVAILABLE);
-        if (booked) {
-            throw new IllegalStateException("Seat is already reserved");
+    private Map<Long, SeatClaim> claimAll(SeatInventory inventory, List<Long> seatIds, SeatHold hold, LocalDateTime now) {
+        Map<Long, SeatClaim> claims = new LinkedHashMap<>();
+        for (Long seatId : seatIds) {
+            SeatClaim claim = inventory.claim(seatId, hold, now);
+            if (!claim.isWon()) {
+                claims.forEach((claimedSeatId, won) -> inventory.revert(claimedSeatId, hold, won.previous()));
+                throw claim.outcome() == SeatClaim.Outcome.RESERVED
+                    ? new IllegalStateException(conflictMessage("is already reserved", seatId, seatIds))
+                    : new IllegalStateException(conflictMessage("already locked by another user", seatId, seatIds));
+            }
+            claims.put(seatId, claim);
+        }
+        return claims;
+    }
+
+    private String conflictMessage(String reason, Long seatId, List<Long> seatIds) {
+        return seatIds.size() == 1 ? "Seat " + reason : "Seat " + seatId + " " + reason;
+    }
+
+    /**
+     * Moves the expiry of the requester's own locks on the given seats and
+     * returns the seats whose lock was extended.
+     */
+    private List<Long> extendLocks(Long screeningId, List<Long> seatIds, List<Long> claimed, String sessionId, SeatHold hold) {
+        return seatLockRepository.findActiveLocksForOwner(screeningId, sessionId, hold.username(), LocalDateTime.now()).stream()
+            .filter(lock -> seatIds.contains(lock.getSeat().getId()) && !claimed.contains(lock.getSeat().getId()))
+            .map(lock -> {
+                lock.setExpiresAt(hold.expiresAt());
+                log.debug("Extending lock {} for seat {}", lock.getId(), lock.getSeat().getId());
+                return lock.getSeat().getId();
+            })
+            .toList();
+    }
+
+    private void releaseHold(SeatInventory inventory, Long seatId, String owner, String username) {
+        SeatHold released = inventory.release(seatId, owner, username);
+        if (released != null) {
+            inventoryEngine.onRollback(() -> inventory.claim(seatId, released, LocalDateTime.now()));
         }
     }
 
@@ -181,58 +492,6 @@ public class SeatReservationService {
         return username != null && username.equals(lock.getUsername());
     }
 
-    private List<SeatStatusDTO> buildSeatStatuses(Screening screening, String sessionId, String username) {
-        Long screeningId = screening.getId();
-        Map<Long, BookingSeat> bookedSeats = bookingSeatRepository.findActiveSeatsByScreeningId(screeningId).stream()
-            .sorted(Comparator.comparing(bs -> bs.getSeat().getId()))
-            .collect(Collectors.toMap(bs -> bs.getSeat().getId(), Function.identity(), (first, second) -> first));
-
-        Map<Long, SeatLock> locks = seatLockRepository.findActiveLocksByScreening(screeningId, LocalDateTime.now()).stream()
-            .collect(Collectors.toMap(lock -> lock.getSeat().getId(), Function.identity(),
-                (first, second) -> first.getExpiresAt().isAfter(second.getExpiresAt()) ? first : second));
-
-        return seatRepository.findByHallIdAndActiveTrue(screening.getHall().getId()).stream()
-            .map(seat -> buildSeatStatus(seat, bookedSeats, locks, sessionId, username))
-            .collect(Collectors.toList());
-    }
-
-    private SeatStatusDTO buildSeatStatus(Seat seat,
-                                          Map<Long, BookingSeat> bookedSeats,
-                                          Map<Long, SeatLock> locks,
-                                          String sessionId,
-                                          String username) {
-        BookingSeat bookingSeat = bookedSeats.get(seat.getId());
-        if (bookingSeat != null) {
-            return SeatStatusDTO.builder()
-                .seatId(seat.getId())
-                .rowNumber(seat.getRowNumber())
-                .seatNumber(seat.getSeatNumber())
-                .status(convertBookingStatus(bookingSeat.getSeatStatus()))
-                .selectedByYou(false)
-                .lockExpiresAt(null)
-                .build();
-        }
-
-        SeatLock lock = locks.get(seat.getId());
-        boolean selectedByYou = lock != null && isSameRequester(lock, sessionId, username);
-        return SeatStatusDTO.builder()
-            .seatId(seat.getId())
-            .rowNumber(seat.getRowNumber())
-            .seatNumber(seat.getSeatNumber())
-            .status(lock != null ? SeatState.BOOKED : SeatState.FREE)
-            .selectedByYou(selectedByYou)
-            .lockExpiresAt(lock != null ? lock.getExpiresAt() : null)
-            .build();
-    }
-
-    private SeatState convertBookingStatus(SeatStatus status) {
-        return switch (status) {
-            case OCCUPIED -> SeatState.SOLD;
-            case RESERVED -> SeatState.BOOKED;
-            default -> SeatState.BOOKED;
-        };
-    }
-
     private Optional<SeatLock> findLockForOwner(Long screeningId, Long seatId, String sessionId, String username) {
         Optional<SeatLock> lock = seatLockRepository.findActiveLockForSession(screeningId, seatId, sessionId, LocalDateTime.now());
         if (lock.isEmpty() && username != null && !username.isBlank()) {
@@ -1,23 +1,93 @@
 package com.cinema.service;
 
-import com.cinema.dto.SeatStatusDTO;
-import lombok.RequiredArgsConstructor;
+import com.cinema.dto.CompactSeatMapUpdate;
+import com.cinema.dto.SeatMapDelta;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
 
-import java.util.List;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+/**
+ * Publishes seat-map updates to the STOMP topics. Each update is serialized
+ * to JSON once and sent as a byte payload, which the broker hands to every
+ * subscriber as is. The last payload of each destination is kept, so
+ * publishing the same version again (e.g. relayed from another node) costs
+ * no serialization at all. Deltas are also handed to the Server-Sent
+ * Events streams with the same payload.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class SeatStatusNotifierService {
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final SeatMapStreamService seatMapStreams;
+    private final Map<String, Snapshot> snapshots;
 
-    public void broadcast(Long screeningId, List<SeatStatusDTO> payload) {
+    public SeatStatusNotifierService(SimpMessagingTemplate messagingTemplate,
+                                     ObjectMapper objectMapper,
+                                     SeatMapStreamService seatMapStreams,
+                                     @Value("${app.seating.broadcast.snapshot-cache-size:1024}") int snapshotCacheSize) {
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.seatMapStreams = seatMapStreams;
+        this.snapshots = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Snapshot> eldest) {
+                return size() > snapshotCacheSize;
+            }
+        });
+    }
+
+    public void broadcast(Long screeningId, SeatMapDelta delta) {
         String destination = "/topic/screenings/" + screeningId + "/seats";
-        messagingTemplate.convertAndSend(destination, payload);
-        log.debug("Published seat update to {} ({} seats)", destination, payload.size());
+        byte[] payload = serialize(destination, delta.getVersion(), delta);
+        send(destination, payload);
+        seatMapStreams.publish(screeningId, delta.getFromVersion(), delta.getVersion(), payload);
+        log.debug("Published seat update v{} to {} ({} seats)", delta.getVersion(), destination, delta.getSeats().size());
+    }
+
+    public void broadcastCompact(Long screeningId, CompactSeatMapUpdate update) {
+        String destination = "/topic/screenings/" + screeningId + "/seats/compact";
+        send(destination, serialize(destination, update.getVersion(), update));
+        log.debug("Published compact seat update v{} to {}", update.getVersion(), destination);
+    }
+
+    private void send(String destination, byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        messagingTemplate.send(destination, MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+    }
+
+    /**
+     * Payloads are shared by every message built from them and must never
+     * be modified.
+     */
+    private byte[] serialize(String destination, long version, Object update) {
+        Snapshot snapshot = snapshots.get(destination);
+        if (snapshot != null && snapshot.version() == version) {
+            return snapshot.payload();
+        }
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(update);
+            snapshots.put(destination, new Snapshot(version, payload));
+            return payload;
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unable to serialize seat update for " + destination, ex);
+        }
+    }
+
+    private record Snapshot(long version, byte[] payload) {
     }
 }
@@ -0,0 +1,148 @@
+package com.cinema.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+
+/**
+ * Time-ordered booking numbers: a 63-bit id made of the milliseconds since
+ * 2025-01-01 (41 bits), the node id (10 bits) and a per-millisecond sequence
+ * (12 bits), written as 13 characters of Crockford base32, followed by 16
+ * random characters (80 bits). The number works as a bearer reference for
+ * ticket links, so the random part keeps it unguessable while the prefix
+ * keeps numbers from one node in issue order. Numbers from different nodes
+ * never collide as long as every node has its own
+ * {@code app.booking.number.node-id}. A single
+ * node may leave the id unset and runs as node 0; when seat events are shared
+ * with other nodes, an unset id stops startup instead of risking duplicates.
+ * The upper-case alphabet also keeps QR codes in their compact alphanumeric
+ * mode.
+ */
+@Component
+@ConditionalOnProperty(name = "app.booking.number.format", havingValue = "snowflake", matchIfMissing = true)
+public class SnowflakeBookingNumberGenerator implements BookingNumberGenerator {
+
+    static final long EPOCH_MILLIS = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    static final int ID_LENGTH = 13;
+    static final int RANDOM_LENGTH = 16;
+    static final int LENGTH = ID_LENGTH + RANDOM_LENGTH;
+    static final int MAX_NODE_ID = (1 << 10) - 1;
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int TIMESTAMP_SHIFT = SEQUENCE_BITS + 10;
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+    private final SecureRandom random = new SecureRandom();
+    private final long nodeId;
+    private long lastMillis = -1;
+    private long sequence;
+
+    @Autowired
+    public SnowflakeBookingNumberGenerator(@Value("${app.booking.number.node-id:#{null}}") Integer nodeId,
+                                           @Value("${app.seating.events.transport:none}") String eventTransport) {
+        this(resolveNodeId(nodeId, eventTransport));
+    }
+
+    SnowflakeBookingNumberGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Booking number node id must be between 0 and " + MAX_NODE_ID + ", was " + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    private static int resolveNodeId(Integer nodeId, String eventTransport) {
+        if (nodeId != null) {
+            return nodeId;
+        }
+        if (!"none".equals(eventTransport)) {
+            throw new IllegalStateException("app.booking.number.node-id must be set to a distinct value on every node "
+                + "when seat events use the " + eventTransport + " transport");
+        }
+        return 0;
+    }
+
+    @Override
+    public String next() {
+        return next(System.currentTimeMillis());
+    }
+
+    /**
+     * Issues the next number at {@code epochMillis}. The timestamp never runs
+     * backwards: when the clock steps back, or the sequence of a millisecond
+     * is used up, numbers continue from the last timestamp issued.
+     */
+    synchronized String next(long epochMillis) {
+        long millis = Math.max(epochMillis - EPOCH_MILLIS, lastMillis);
+        if (millis == lastMillis) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                millis++;
+            }
+        } else {
+            sequence = 0;
+        }
+        lastMillis = millis;
+        return encode((millis << TIMESTAMP_SHIFT) | (nodeId << SEQUENCE_BITS) | sequence) + randomPart();
+    }
+
+    private String randomPart() {
+        char[] chars = new char[RANDOM_LENGTH];
+        for (int i = 0; i < RANDOM_LENGTH; i++) {
+            chars[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Upper-cases the number, drops hyphens and reads the letters Crockford
+     * base32 leaves out as the digits they resemble (I and L as 1, O as 0).
+     * Numbers issued before the random part was added are still recognized.
+     */
+    @Override
+    public String normalize(String bookingNumber) {
+        if (bookingNumber == null) {
+            return null;
+        }
+        StringBuilder canonical = new StringBuilder(LENGTH);
+        for (char c : bookingNumber.strip().toCharArray()) {
+            if (c == '-') {
+                continue;
+            }
+            char upper = Character.toUpperCase(c);
+            char digit = switch (upper) {
+                case 'I', 'L' -> '1';
+                case 'O' -> '0';
+                default -> upper;
+            };
+            if (ALPHABET.indexOf(digit) < 0) {
+                return bookingNumber;
+            }
+            canonical.append(digit);
+        }
+        return canonical.length() == LENGTH || canonical.length() == ID_LENGTH ? canonical.toString() : bookingNumber;
+    }
+
+    /**
+     * Numbers issued before the random part was added are only time, node
+     * and sequence, and can be enumerated.
+     */
+    @Override
+    public boolean isUnguessable(String bookingNumber) {
+        return bookingNumber.length() != ID_LENGTH
+            || !bookingNumber.chars().allMatch(c -> ALPHABET.indexOf(c) >= 0);
+    }
+
+    static String encode(long id) {
+        char[] chars = new char[ID_LENGTH];
+        for (int i = ID_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET.charAt((int) (id & 31));
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,19 @@
+package com.cinema.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * The original random booking numbers, kept for {@code app.booking.number.format=uuid}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.booking.number.format", havingValue = "uuid")
+public class UuidBookingNumberGenerator implements BookingNumberGenerator {
+
+    @Override
+    public String next() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -335,8 +335,9 @@ lock_positions AS (
     UNION ALL
     SELECT 1, 4, 'seed-hold-2'
 )
-INSERT INTO seat_locks (seat_id, screening_id, session_id, username, status, expires_at, created_at, updated_at)
-SELECT seat.id,
+INSERT INTO seat_locks (id, seat_id, screening_id, session_id, username, status, expires_at, created_at, updated_at)
+SELECT nextval('seat_locks_seq'),
+       seat.id,
        ts.screening_id,
        lp.session_id,
        'guest_hold',
@@ -13,6 +13,8 @@ DROP TABLE IF EXISTS ticket_types CASCADE;
 DROP TABLE IF EXISTS user_roles CASCADE;
 DROP TABLE IF EXISTS users CASCADE;
 DROP TABLE IF EXISTS roles CASCADE;
+DROP SEQUENCE IF EXISTS booking_seats_seq;
+DROP SEQUENCE IF EXISTS bookings_seq;
 
 -- Roles table
 CREATE TABLE roles (
@@ -100,6 +102,9 @@ CREATE TABLE screenings (
     end_time TIMESTAMP NOT NULL,
     base_price DECIMAL(10, 2) NOT NULL,
     active BOOLEAN NOT NULL DEFAULT TRUE,
+    seats_sold INTEGER NOT NULL DEFAULT 0,
+    seats_held INTEGER NOT NULL DEFAULT 0,
+    seat_version BIGINT NOT NULL DEFAULT 0,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
@@ -113,9 +118,17 @@ CREATE TABLE ticket_types (
     active BOOLEAN NOT NULL DEFAULT TRUE
 );
 
+-- Bookings, booking seats, seat locks and outbox rows draw ids from the
+-- sequences Hibernate allocates from in blocks of 50, so rows inserted here
+-- never collide with its blocks
+CREATE SEQUENCE bookings_seq INCREMENT BY 50;
+CREATE SEQUENCE booking_seats_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS seat_locks_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS outbox_seq INCREMENT BY 50;
+
 -- Bookings table
 CREATE TABLE bookings (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY DEFAULT nextval('bookings_seq'),
     booking_number VARCHAR(50) NOT NULL UNIQUE,
     user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
     screening_id BIGINT NOT NULL REFERENCES screenings(id) ON DELETE CASCADE,
@@ -131,7 +144,7 @@ CREATE TABLE bookings (
 
 -- Booking-Seat junction table (with ticket type)
 CREATE TABLE booking_seats (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY DEFAULT nextval('booking_seats_seq'),
     booking_id BIGINT NOT NULL REFERENCES bookings(id) ON DELETE CASCADE,
     seat_id BIGINT NOT NULL REFERENCES seats(id) ON DELETE CASCADE,
     ticket_type_id BIGINT NOT NULL REFERENCES ticket_types(id) ON DELETE CASCADE,
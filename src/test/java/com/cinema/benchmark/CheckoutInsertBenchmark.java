@@ -0,0 +1,170 @@
+package com.cinema.benchmark;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checkouts per second for a 10-seat checkout: one booking and ten booking
+ * seats written in one transaction, with Hibernate insert batching on.
+ * {@code identity} maps the ids with IDENTITY columns, as the entities did
+ * before, which keeps Hibernate from batching; {@code pooled} maps them with
+ * sequences allocated in blocks of 50, as they are now. The rows are mapped
+ * in orm.xml rather than with annotations, so entity scanning in the other
+ * tests does not pick them up. Each checkout is 11 inserts, so inserts per
+ * second are the reported score times 11. Runs on in-memory H2 by default; pass {@code -p url=jdbc:postgresql://...} with
+ * {@code -p user} and {@code -p password} to include real round trips:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.cinema.benchmark.CheckoutInsertBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckoutInsertBenchmark {
+
+    private static final int SEATS = 10;
+
+    private static final String MAPPING = """
+        <entity-mappings xmlns="https://jakarta.ee/xml/ns/persistence/orm" version="3.1">
+          <entity class="com.cinema.benchmark.CheckoutInsertBenchmark$BenchBooking" access="FIELD">
+            <table name="bench_bookings"/>
+            <attributes>
+              <id name="id">%s</id>
+              <basic name="bookingNumber"><column name="booking_number" nullable="false" length="50"/></basic>
+              <basic name="totalPrice"><column name="total_price" nullable="false"/></basic>
+            </attributes>
+          </entity>
+          <entity class="com.cinema.benchmark.CheckoutInsertBenchmark$BenchBookingSeat" access="FIELD">
+            <table name="bench_booking_seats"/>
+            <attributes>
+              <id name="id">%s</id>
+              <basic name="seatNumber"><column name="seat_number" nullable="false"/></basic>
+              <basic name="price"><column name="price" nullable="false"/></basic>
+              <many-to-one name="booking" fetch="LAZY"><join-column name="booking_id" nullable="false"/></many-to-one>
+            </attributes>
+          </entity>
+        </entity-mappings>
+        """;
+
+    @Param({"identity", "pooled"})
+    private String ids;
+
+    @Param("jdbc:h2:mem:checkout-insert;DB_CLOSE_DELAY=-1")
+    private String url;
+
+    @Param("sa")
+    private String user;
+
+    @Param("")
+    private String password;
+
+    private SessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String mapping = MAPPING.formatted(idGeneration("bench_bookings_seq"), idGeneration("bench_booking_seats_seq"));
+        sessionFactory = new Configuration()
+            .setProperty(AvailableSettings.JAKARTA_JDBC_URL, url)
+            .setProperty(AvailableSettings.JAKARTA_JDBC_USER, user)
+            .setProperty(AvailableSettings.JAKARTA_JDBC_PASSWORD, password)
+            .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+            .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50")
+            .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+            .addInputStream(new ByteArrayInputStream(mapping.getBytes(StandardCharsets.UTF_8)))
+            .buildSessionFactory();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public BenchBooking checkout() {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            BenchBooking booking = new BenchBooking(UUID.randomUUID().toString(), 25.0 * SEATS);
+            session.persist(booking);
+            for (int seat = 1; seat <= SEATS; seat++) {
+                session.persist(new BenchBookingSeat(booking, seat, 25.0));
+            }
+            session.getTransaction().commit();
+            return booking;
+        }
+    }
+
+    private String idGeneration(String sequence) {
+        if ("identity".equals(ids)) {
+            return "<generated-value strategy=\"IDENTITY\"/>";
+        }
+        return """
+            <generated-value strategy="SEQUENCE" generator="%1$s"/>
+            <sequence-generator name="%1$s" sequence-name="%1$s" allocation-size="50"/>
+            """.formatted(sequence);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(CheckoutInsertBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+
+    public static class BenchBooking {
+
+        private Long id;
+        private String bookingNumber;
+        private Double totalPrice;
+
+        protected BenchBooking() {
+        }
+
+        BenchBooking(String bookingNumber, Double totalPrice) {
+            this.bookingNumber = bookingNumber;
+            this.totalPrice = totalPrice;
+        }
+    }
+
+    public static class BenchBookingSeat {
+
+        private Long id;
+        private BenchBooking booking;
+        private Integer seatNumber;
+        private Double price;
+
+        protected BenchBookingSeat() {
+        }
+
+        BenchBookingSeat(BenchBooking booking, Integer seatNumber, Double price) {
+            this.booking = booking;
+            this.seatNumber = seatNumber;
+            this.price = price;
+        }
+    }
+}
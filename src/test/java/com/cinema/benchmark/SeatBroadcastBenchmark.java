@@ -0,0 +1,161 @@
+package com.cinema.benchmark;
+
+import com.cinema.dto.SeatMapDelta;
+import com.cinema.dto.SeatStatusDTO;
+import com.cinema.dto.SeatStatusDTO.SeatState;
+import com.cinema.seating.SeatSubscriptionRegistry;
+import com.cinema.service.SeatMapStreamService;
+import com.cinema.service.SeatStatusNotifierService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation of one seat-map broadcast to a topic with many subscribers,
+ * through the simple broker as configured in {@code WebSocketConfig}.
+ * Compares converting the update on every send with the pre-serialized
+ * payload of {@link SeatStatusNotifierService}, both for a new version and
+ * for a version that was already serialized. Run with the GC profiler to see
+ * the allocation per broadcast:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.cinema.benchmark.SeatBroadcastBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeatBroadcastBenchmark {
+
+    private static final String DESTINATION = "/topic/screenings/7/seats";
+    private static final int VERSIONS = 64;
+
+    @Param("1000")
+    private int subscribers;
+
+    @Param("150")
+    private int seats;
+
+    private SimpleBrokerMessageHandler broker;
+    private SimpMessagingTemplate template;
+    private SeatStatusNotifierService notifier;
+    private SeatMapDelta[] deltas;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        ExecutorSubscribableChannel clientInbound = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel clientOutbound = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        clientOutbound.subscribe(blackhole::consume);
+
+        broker = new SimpleBrokerMessageHandler(clientInbound, clientOutbound, brokerChannel, List.of("/topic"));
+        broker.start();
+        for (int i = 0; i < subscribers; i++) {
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+            accessor.setSessionId("session-" + i);
+            accessor.setSubscriptionId("sub-0");
+            accessor.setDestination(DESTINATION);
+            broker.handleMessage(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+        }
+
+        ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        template = new SimpMessagingTemplate(brokerChannel);
+        template.setMessageConverter(converter);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SeatMapStreamService seatMapStreams = new SeatMapStreamService(null, new SeatSubscriptionRegistry(meterRegistry),
+            meterRegistry, 60_000, 3_000, 32, 300, 2, 64);
+        notifier = new SeatStatusNotifierService(template, objectMapper, seatMapStreams, 1024);
+
+        deltas = new SeatMapDelta[VERSIONS];
+        for (int v = 0; v < VERSIONS; v++) {
+            deltas[v] = delta(v + 1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        broker.stop();
+    }
+
+    @Benchmark
+    public void convertPerSend() {
+        template.convertAndSend(DESTINATION, nextDelta());
+    }
+
+    @Benchmark
+    public void serializeOnce() {
+        notifier.broadcast(7L, nextDelta());
+    }
+
+    @Benchmark
+    public void reuseSnapshot() {
+        notifier.broadcast(7L, deltas[0]);
+    }
+
+    private SeatMapDelta nextDelta() {
+        next = (next + 1) % VERSIONS;
+        return deltas[next];
+    }
+
+    private SeatMapDelta delta(long version) {
+        List<SeatStatusDTO> statuses = new ArrayList<>(seats);
+        for (int i = 0; i < seats; i++) {
+            statuses.add(SeatStatusDTO.builder()
+                .seatId((long) i)
+                .rowNumber(i / 15 + 1)
+                .seatNumber(i % 15 + 1)
+                .status(i % 3 == 0 ? SeatState.BOOKED : SeatState.FREE)
+                .selectedByYou(false)
+                .lockExpiresAt(i % 3 == 0 ? LocalDateTime.of(2026, 1, 1, 20, 0) : null)
+                .build());
+        }
+        return SeatMapDelta.builder()
+            .screeningId(7L)
+            .fromVersion(version - 1)
+            .version(version)
+            .seats(statuses)
+            .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(SeatBroadcastBenchmark.class.getSimpleName())
+            .addProfiler("gc")
+            .build()).run();
+    }
+}
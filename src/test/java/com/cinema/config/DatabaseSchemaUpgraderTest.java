@@ -0,0 +1,132 @@
+package com.cinema.config;
+
+import com.cinema.entity.Hall;
+import com.cinema.entity.Screening;
+import com.cinema.entity.Seat;
+import com.cinema.entity.SeatLock;
+import com.cinema.entity.SeatLock.SeatLockStatus;
+import com.cinema.fixtures.EntityFixtures;
+import com.cinema.support.PostgresTestContainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for DatabaseSchemaUpgrader using PostgreSQL test container.
+ */
+@DataJpaTest
+class DatabaseSchemaUpgraderTest extends PostgresTestContainer {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Screening screening;
+    private Seat seat;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.now().withNano(0);
+        Hall hall = entityManager.persist(EntityFixtures.createDefaultHall());
+        seat = entityManager.persist(Seat.builder()
+            .hall(hall)
+            .rowNumber(1)
+            .seatNumber(1)
+            .seatType(Seat.SeatType.STANDARD)
+            .build());
+        screening = entityManager.persist(Screening.builder()
+            .movie(entityManager.persist(EntityFixtures.createDefaultMovie()))
+            .hall(hall)
+            .startTime(now.plusDays(1))
+            .endTime(now.plusDays(1).plusHours(2))
+            .basePrice(25.0)
+            .active(true)
+            .build());
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Should keep the newest of duplicate active locks and reject further ones")
+    void upgrade_ReleasesDuplicateActiveLocksAndGuardsSeat() {
+        SeatLock older = persistLock("session-1");
+        SeatLock newer = persistLock("session-2");
+
+        new DatabaseSchemaUpgrader(jdbcTemplate).upgrade();
+
+        assertThat(statusOf(older)).isEqualTo("RELEASED");
+        assertThat(statusOf(newer)).isEqualTo("ACTIVE");
+        assertThatThrownBy(() -> jdbcTemplate.update("""
+                INSERT INTO seat_locks (id, seat_id, screening_id, session_id, status, expires_at, created_at)
+                VALUES (nextval('seat_locks_seq'), ?, ?, 'session-3', 'ACTIVE', ?, ?)
+                """, seat.getId(), screening.getId(), now.plusMinutes(5), now))
+            .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    @DisplayName("Should move pooled id sequences past ids written before they existed")
+    void upgrade_AlignsIdSequencesWithExistingRows() {
+        jdbcTemplate.update("""
+            INSERT INTO seat_locks (id, seat_id, screening_id, session_id, status, expires_at, created_at)
+            VALUES (100000, ?, ?, 'session-1', 'RELEASED', ?, ?)
+            """, seat.getId(), screening.getId(), now.plusMinutes(5), now);
+
+        new DatabaseSchemaUpgrader(jdbcTemplate).upgrade();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT nextval('seat_locks_seq')", Long.class)).isGreaterThan(100000L);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT increment_by FROM pg_sequences WHERE sequencename = 'outbox_seq'", Long.class)).isEqualTo(50L);
+    }
+
+    @Test
+    @DisplayName("Should let different users use the same idempotency key")
+    void upgrade_ScopesIdempotencyKeysToUsers() {
+        jdbcTemplate.execute("""
+            ALTER TABLE checkout_idempotency_keys
+            DROP CONSTRAINT checkout_idempotency_keys_pkey, ADD PRIMARY KEY (idempotency_key)
+            """);
+
+        new DatabaseSchemaUpgrader(jdbcTemplate).upgrade();
+        insertIdempotencyKey("jane");
+        insertIdempotencyKey("john");
+
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM checkout_idempotency_keys WHERE idempotency_key = 'retry-1'", Integer.class)).isEqualTo(2);
+        assertThatThrownBy(() -> insertIdempotencyKey("jane"))
+            .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private void insertIdempotencyKey(String username) {
+        jdbcTemplate.update("""
+            INSERT INTO checkout_idempotency_keys (idempotency_key, username, screening_id, status, created_at, expires_at)
+            VALUES ('retry-1', ?, ?, 'PENDING', ?, ?)
+            """, username, screening.getId(), now, now.plusMinutes(5));
+    }
+
+    private SeatLock persistLock(String sessionId) {
+        SeatLock lock = SeatLock.builder()
+            .seat(seat)
+            .screening(screening)
+            .sessionId(sessionId)
+            .status(SeatLockStatus.ACTIVE)
+            .expiresAt(now.plusMinutes(5))
+            .build();
+        return entityManager.persistAndFlush(lock);
+    }
+
+    private String statusOf(SeatLock lock) {
+        return jdbcTemplate.queryForObject("SELECT status FROM seat_locks WHERE id = ?", String.class, lock.getId());
+    }
+}
@@ -0,0 +1,59 @@
+package com.cinema.config;
+
+import com.cinema.service.SeatReservationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SeatLockLogoutHandlerTest {
+
+    @Mock
+    private ObjectProvider<SeatReservationService> serviceProvider;
+    @Mock
+    private SeatReservationService seatReservationService;
+
+    @Test
+    void logout_WithSession_ReleasesItsLocks() {
+        when(serviceProvider.getIfAvailable()).thenReturn(seatReservationService);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setSession(new MockHttpSession(null, "session-1"));
+
+        new SeatLockLogoutHandler(serviceProvider).logout(request, new MockHttpServletResponse(), null);
+
+        verify(seatReservationService).releaseSessionLocks(List.of("session-1"));
+    }
+
+    @Test
+    void logout_WithoutSession_DoesNothing() {
+        when(serviceProvider.getIfAvailable()).thenReturn(seatReservationService);
+
+        new SeatLockLogoutHandler(serviceProvider).logout(new MockHttpServletRequest(), new MockHttpServletResponse(), null);
+
+        verify(seatReservationService, never()).releaseSessionLocks(anyCollection());
+    }
+
+    @Test
+    void logout_WhenReleaseFails_DoesNotBlockLogout() {
+        when(serviceProvider.getIfAvailable()).thenReturn(seatReservationService);
+        when(seatReservationService.releaseSessionLocks(List.of("session-1"))).thenThrow(new IllegalStateException("db down"));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setSession(new MockHttpSession(null, "session-1"));
+
+        assertThatCode(() -> new SeatLockLogoutHandler(serviceProvider)
+            .logout(request, new MockHttpServletResponse(), null)).doesNotThrowAnyException();
+    }
+}
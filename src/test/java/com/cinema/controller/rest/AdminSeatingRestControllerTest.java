@@ -0,0 +1,62 @@
+package com.cinema.controller.rest;
+
+import com.cinema.config.SecurityConfig;
+import com.cinema.seating.SeatSubscriptionRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AdminSeatingRestController.class)
+@AutoConfigureMockMvc
+@Import(SecurityConfig.class)
+class AdminSeatingRestControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SeatSubscriptionRegistry subscriptionRegistry;
+
+    @MockBean
+    private JpaMetamodelMappingContext jpaMetamodelMappingContext;
+
+    @MockBean
+    private UserDetailsService userDetailsService;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getSubscribers_ReturnsCountsMostWatchedFirst() throws Exception {
+        given(subscriptionRegistry.subscriberCounts()).willReturn(Map.of(7L, 2, 9L, 5));
+
+        mockMvc.perform(get("/api/v1/admin/seating/subscribers"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalSubscribers").value(7))
+            .andExpect(jsonPath("$.screenings[0].screeningId").value(9))
+            .andExpect(jsonPath("$.screenings[0].subscribers").value(5))
+            .andExpect(jsonPath("$.screenings[1].screeningId").value(7));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void getSubscribers_ForNonAdmin_IsForbidden() throws Exception {
+        mockMvc.perform(get("/api/v1/admin/seating/subscribers"))
+            .andExpect(status().isForbidden());
+
+        verifyNoInteractions(subscriptionRegistry);
+    }
+}
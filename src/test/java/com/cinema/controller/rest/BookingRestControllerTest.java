@@ -113,7 +113,7 @@ class BookingRestControllerTest {
         @WithMockUser
         void getBookingById_ExistingId_ReturnsBooking() throws Exception {
             // Given
-            given(bookingService.getBookingById(1L)).willReturn(bookingDTO);
+            given(bookingService.getBookingById(1L, "user", false)).willReturn(bookingDTO);
 
             // When & Then
             mockMvc.perform(get("/api/v1/bookings/1")
@@ -124,7 +124,7 @@ class BookingRestControllerTest {
                 .andExpect(jsonPath("$.userId").exists())
                 .andExpect(jsonPath("$.screeningId").exists());
 
-            then(bookingService).should().getBookingById(1L);
+            then(bookingService).should().getBookingById(1L, "user", false);
         }
 
         @Test
@@ -132,7 +132,7 @@ class BookingRestControllerTest {
         @WithMockUser
         void getBookingById_NonExistingId_ReturnsNotFound() throws Exception {
             // Given
-            given(bookingService.getBookingById(999L))
+            given(bookingService.getBookingById(999L, "user", false))
                 .willThrow(new ResourceNotFoundException("Booking", "id", 999L));
 
             // When & Then
@@ -143,15 +143,13 @@ class BookingRestControllerTest {
         }
 
         @Test
-        @DisplayName("Should allow public access to booking details")
+        @DisplayName("Should return 401 for anonymous lookups by id")
         @WithAnonymousUser
-        void getBookingById_AnonymousUser_ReturnsOk() throws Exception {
-            // Given
-            given(bookingService.getBookingById(1L)).willReturn(bookingDTO);
-
+        void getBookingById_AnonymousUser_ReturnsUnauthorized() throws Exception {
             // When & Then
             mockMvc.perform(get("/api/v1/bookings/1"))
-                .andExpect(status().isOk());
+                .andExpect(status().isUnauthorized());
+            then(bookingService).shouldHaveNoInteractions();
         }
     }
 
@@ -167,7 +165,7 @@ class BookingRestControllerTest {
         void getBookingByNumber_ValidNumber_ReturnsBooking() throws Exception {
             // Given
             String bookingNumber = "BK-2024-00001";
-            given(bookingService.getBookingByBookingNumber(bookingNumber))
+            given(bookingService.getBookingByBookingNumber(bookingNumber, "user", false))
                 .willReturn(bookingDTO);
 
             // When & Then
@@ -181,13 +179,89 @@ class BookingRestControllerTest {
         @WithMockUser
         void getBookingByNumber_InvalidNumber_ReturnsNotFound() throws Exception {
             // Given
-            given(bookingService.getBookingByBookingNumber("INVALID"))
+            given(bookingService.getBookingByBookingNumber("INVALID", "user", false))
                 .willThrow(new ResourceNotFoundException("Booking number not found"));
 
             // When & Then
             mockMvc.perform(get("/api/v1/bookings/number/INVALID"))
                 .andExpect(status().isNotFound());
         }
+
+        @Test
+        @DisplayName("Should pass admin role to the booking lookup")
+        @WithMockUser(username = "admin", roles = "ADMIN")
+        void getBookingByNumber_AsAdmin_LooksUpAnyBooking() throws Exception {
+            // Given
+            given(bookingService.getBookingByBookingNumber("BK-2024-00001", "admin", true))
+                .willReturn(bookingDTO);
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/bookings/number/BK-2024-00001"))
+                .andExpect(status().isOk());
+        }
+
+        @Test
+        @DisplayName("Should let anonymous users look up a booking by number")
+        @WithAnonymousUser
+        void getBookingByNumber_Anonymous_LooksUpWithoutUser() throws Exception {
+            // Given
+            byte[] png = {(byte) 0x89, 'P', 'N', 'G'};
+            given(bookingService.getBookingByBookingNumber("BK-2024-00001", null, false)).willReturn(bookingDTO);
+            given(bookingService.getBookingQrCode("BK-2024-00001", null, null, false)).willReturn(png);
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/bookings/number/BK-2024-00001"))
+                .andExpect(status().isOk());
+            mockMvc.perform(get("/api/v1/bookings/number/BK-2024-00001/qr"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(png));
+        }
+
+        @Test
+        @DisplayName("Should return booking QR code as PNG that clients revalidate")
+        @WithMockUser
+        void getBookingQrCode_ValidNumber_ReturnsPng() throws Exception {
+            // Given
+            byte[] png = {(byte) 0x89, 'P', 'N', 'G'};
+            given(bookingService.getBookingQrCode("BK-2024-00001", 200, "user", false)).willReturn(png);
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/bookings/number/BK-2024-00001/qr").param("size", "200"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(header().string("Cache-Control", containsString("no-cache")))
+                .andExpect(header().string("Cache-Control", not(containsString("immutable"))))
+                .andExpect(header().exists("ETag"))
+                .andExpect(content().bytes(png));
+        }
+
+        @Test
+        @DisplayName("Should answer 304 to a matching ETag while the ticket is valid")
+        @WithMockUser
+        void getBookingQrCode_MatchingETag_ReturnsNotModified() throws Exception {
+            // Given
+            byte[] png = {(byte) 0x89, 'P', 'N', 'G'};
+            given(bookingService.getBookingQrCode("BK-2024-00001", null, "user", false)).willReturn(png);
+            String eTag = mockMvc.perform(get("/api/v1/bookings/number/BK-2024-00001/qr"))
+                .andReturn().getResponse().getHeader("ETag");
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/bookings/number/BK-2024-00001/qr").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+        }
+
+        @Test
+        @DisplayName("Should stop serving the QR code once the booking is cancelled")
+        @WithMockUser
+        void getBookingQrCode_CancelledBooking_ReturnsBadRequestEvenWithETag() throws Exception {
+            // Given
+            given(bookingService.getBookingQrCode("BK-2024-00001", null, "user", false))
+                .willThrow(new IllegalStateException("Booking BK-2024-00001 has no valid ticket"));
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/bookings/number/BK-2024-00001/qr").header("If-None-Match", "\"qr-any\""))
+                .andExpect(status().isBadRequest());
+        }
     }
 
     // ========== GET /api/v1/bookings/user/{userId} ==========
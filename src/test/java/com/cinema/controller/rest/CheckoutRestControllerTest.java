@@ -2,6 +2,7 @@ package com.cinema.controller.rest;
 
 import com.cinema.dto.CheckoutRequest;
 import com.cinema.dto.CheckoutResponse;
+import com.cinema.service.CheckoutIdempotencyService;
 import com.cinema.service.CheckoutService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -15,12 +16,15 @@ import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -40,6 +44,9 @@ class CheckoutRestControllerTest {
     @MockBean
     private CheckoutService checkoutService;
 
+    @MockBean
+    private CheckoutIdempotencyService checkoutIdempotencyService;
+
     @MockBean
     private JpaMetamodelMappingContext jpaMetamodelMappingContext;
 
@@ -50,7 +57,7 @@ class CheckoutRestControllerTest {
             .bookingNumber("BOOK-123")
             .paymentReference("PAY-123")
             .totalPrice(50.0)
-            .qrCodeImage("qr")
+            .qrCodeUrl("/api/v1/bookings/number/BOOK-123/qr")
             .items(java.util.Collections.emptyList())
             .build();
         given(checkoutService.finalizeCheckout(anyLong(), any(CheckoutRequest.class), anyString(), eq("jane")))
@@ -64,7 +71,8 @@ class CheckoutRestControllerTest {
                 .content(objectMapper.writeValueAsString(payload)))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.bookingNumber").value("BOOK-123"))
-            .andExpect(jsonPath("$.qrCodeImage").value("qr"));
+            .andExpect(jsonPath("$.qrCodeUrl").value("/api/v1/bookings/number/BOOK-123/qr"))
+            .andExpect(jsonPath("$.qrCodeImage").value(nullValue()));
 
         then(checkoutService).should().finalizeCheckout(eq(7L), any(CheckoutRequest.class), anyString(), eq("jane"));
     }
@@ -94,4 +102,47 @@ class CheckoutRestControllerTest {
 
         verifyNoInteractions(checkoutService);
     }
+
+    @Test
+    @WithMockUser(username = "jane")
+    void checkout_WithIdempotencyKey_RunsThroughIdempotencyService() throws Exception {
+        CheckoutResponse response = CheckoutResponse.builder()
+            .bookingNumber("BOOK-123")
+            .paymentReference("PAY-123")
+            .totalPrice(50.0)
+            .qrCodeUrl("/api/v1/bookings/number/BOOK-123/qr")
+            .items(java.util.Collections.emptyList())
+            .build();
+        given(checkoutIdempotencyService.execute(eq("retry-1"), eq("jane"), eq(7L), any())).willReturn(response);
+
+        CheckoutRequest payload = new CheckoutRequest("buyer@example.com", "", "Jane Doe", "CARD");
+
+        mockMvc.perform(post("/api/v1/screenings/7/checkout")
+                .with(csrf())
+                .header("Idempotency-Key", "retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(payload)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.bookingNumber").value("BOOK-123"));
+
+        then(checkoutService).should(never())
+            .finalizeCheckout(anyLong(), any(CheckoutRequest.class), anyString(), anyString());
+        then(checkoutService).should(never())
+            .finalizeCheckout(anyLong(), any(CheckoutRequest.class), anyString(), anyString(), isNull());
+    }
+
+    @Test
+    @WithMockUser(username = "jane")
+    void checkout_WithOversizedIdempotencyKey_ReturnsBadRequest() throws Exception {
+        CheckoutRequest payload = new CheckoutRequest("buyer@example.com", "", "Jane Doe", "CARD");
+
+        mockMvc.perform(post("/api/v1/screenings/7/checkout")
+                .with(csrf())
+                .header("Idempotency-Key", "k".repeat(101))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(payload)))
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(checkoutIdempotencyService);
+    }
 }
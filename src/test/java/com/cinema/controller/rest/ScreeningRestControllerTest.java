@@ -1,10 +1,16 @@
 package com.cinema.controller.rest;
 
+import com.cinema.dto.CompactSeatMapResponse;
+import com.cinema.dto.ScreeningAvailabilityDTO;
 import com.cinema.dto.ScreeningDTO;
+import com.cinema.dto.SeatLayoutResponse;
+import com.cinema.dto.SeatMapResponse;
 import com.cinema.exception.ResourceNotFoundException;
 import com.cinema.exception.ScreeningConflictException;
 import com.cinema.fixtures.ControllerTestFixtures;
 import com.cinema.service.ScreeningService;
+import com.cinema.service.SeatMapStreamService;
+import com.cinema.service.SeatReservationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -14,13 +20,20 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -41,6 +54,12 @@ class ScreeningRestControllerTest {
         @MockBean
     private ScreeningService screeningService;
 
+    @MockBean
+    private SeatReservationService seatReservationService;
+
+    @Autowired
+    private SeatMapStreamService seatMapStreamService;
+
     private ScreeningDTO validScreeningDTO;
 
     @BeforeEach
@@ -77,6 +96,229 @@ class ScreeningRestControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET /api/v1/screenings/{id}/seats")
+    class GetSeatMap {
+
+        private final SeatMapResponse seatMap = SeatMapResponse.builder()
+            .rows(1)
+            .cols(1)
+            .holdMinutes(10)
+            .version(42L)
+            .seats(List.of())
+            .build();
+
+        @Test
+        @DisplayName("Should return seat map with a version-based ETag")
+        void getSeatMap_ReturnsETag() throws Exception {
+            when(seatReservationService.getSeatMapVersion(1L)).thenReturn(42L);
+            when(seatReservationService.getSeatMap(eq(1L), anyString(), isNull())).thenReturn(seatMap);
+
+            mockMvc.perform(get("/api/v1/screenings/1/seats"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", startsWith("\"42-")))
+                    .andExpect(header().string("Cache-Control", containsString("private")))
+                    .andExpect(jsonPath("$.version").value(42));
+        }
+
+        @Test
+        @DisplayName("Should return 304 without building the map when the version is unchanged")
+        void getSeatMap_WhenETagMatches_ReturnsNotModified() throws Exception {
+            when(seatReservationService.getSeatMapVersion(1L)).thenReturn(42L);
+            when(seatReservationService.getSeatMap(eq(1L), anyString(), isNull())).thenReturn(seatMap);
+            MockHttpServletResponse first = mockMvc.perform(get("/api/v1/screenings/1/seats"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse();
+
+            mockMvc.perform(get("/api/v1/screenings/1/seats")
+                            .cookie(first.getCookies())
+                            .header("If-None-Match", first.getHeader("ETag")))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+
+            verify(seatReservationService, times(1)).getSeatMap(eq(1L), anyString(), isNull());
+        }
+
+        @Test
+        @DisplayName("Should return the map again once the version moves on")
+        void getSeatMap_WhenVersionChanged_ReturnsFreshMap() throws Exception {
+            when(seatReservationService.getSeatMapVersion(1L)).thenReturn(42L, 43L);
+            when(seatReservationService.getSeatMap(eq(1L), anyString(), isNull())).thenReturn(seatMap);
+
+            MockHttpServletResponse first = mockMvc.perform(get("/api/v1/screenings/1/seats"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse();
+
+            mockMvc.perform(get("/api/v1/screenings/1/seats")
+                            .cookie(first.getCookies())
+                            .header("If-None-Match", first.getHeader("ETag")))
+                    .andExpect(status().isOk());
+
+            verify(seatReservationService, times(2)).getSeatMap(eq(1L), anyString(), isNull());
+        }
+
+        @Test
+        @DisplayName("Should return packed states as base64 when the compact format is requested")
+        void getSeatMap_WhenCompactRequested_ReturnsPackedStates() throws Exception {
+            when(seatReservationService.getSeatMapVersion(1L)).thenReturn(42L);
+            when(seatReservationService.getCompactSeatMap(eq(1L), anyString(), isNull())).thenReturn(compactSeatMap());
+
+            mockMvc.perform(get("/api/v1/screenings/1/seats").param("format", "compact"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", endsWith("-compact\"")))
+                    .andExpect(jsonPath("$.states").value("BA=="))
+                    .andExpect(jsonPath("$.ownHolds").value("AA=="));
+
+            mockMvc.perform(get("/api/v1/screenings/1/seats").accept(CompactSeatMapResponse.MEDIA_TYPE))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(CompactSeatMapResponse.MEDIA_TYPE))
+                    .andExpect(jsonPath("$.seatCount").value(2));
+        }
+
+        @Test
+        @DisplayName("Should return the compact map as raw bytes for the binary media type")
+        void getSeatMap_WhenBinaryAccepted_ReturnsBytes() throws Exception {
+            when(seatReservationService.getSeatMapVersion(1L)).thenReturn(42L);
+            when(seatReservationService.getCompactSeatMap(eq(1L), anyString(), isNull())).thenReturn(compactSeatMap());
+
+            mockMvc.perform(get("/api/v1/screenings/1/seats").accept(CompactSeatMapResponse.BINARY_MEDIA_TYPE))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(CompactSeatMapResponse.BINARY_MEDIA_TYPE))
+                    .andExpect(content().bytes(compactSeatMap().toBytes()));
+        }
+
+        @Test
+        @DisplayName("Should serve the hall layout with a layout ETag")
+        void getSeatLayout_WhenETagMatches_ReturnsNotModified() throws Exception {
+            when(seatReservationService.getSeatLayout(1L)).thenReturn(SeatLayoutResponse.builder()
+                .hallId(3L)
+                .rows(1)
+                .cols(2)
+                .layoutId(0xabc)
+                .seatIds(new long[] {41L, 42L})
+                .rowNumbers(new int[] {1, 1})
+                .seatNumbers(new int[] {1, 2})
+                .build());
+
+            mockMvc.perform(get("/api/v1/screenings/1/seats/layout"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"layout-abc\""))
+                    .andExpect(jsonPath("$.seatIds", hasSize(2)));
+
+            mockMvc.perform(get("/api/v1/screenings/1/seats/layout").header("If-None-Match", "\"layout-abc\""))
+                    .andExpect(status().isNotModified());
+        }
+
+        private CompactSeatMapResponse compactSeatMap() {
+            return CompactSeatMapResponse.builder()
+                .holdMinutes(10)
+                .version(42L)
+                .layoutId(0xabc)
+                .seatCount(2)
+                .states(new byte[] {0b01_00})
+                .ownHolds(new byte[] {0})
+                .build();
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/screenings/availability")
+    class GetAvailability {
+
+        @Test
+        @DisplayName("Should return counts for all requested screenings with a short public max-age")
+        void getAvailability_ReturnsCountsAndCacheHeader() throws Exception {
+            when(seatReservationService.getAvailability(List.of(1L, 2L))).thenReturn(List.of(
+                ScreeningAvailabilityDTO.builder().screeningId(1L).totalSeats(100).sold(10).held(5).free(85).build(),
+                ScreeningAvailabilityDTO.builder().screeningId(2L).totalSeats(80).sold(0).held(0).free(80).build()));
+
+            mockMvc.perform(get("/api/v1/screenings/availability").param("ids", "1,2"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Cache-Control", "max-age=5, public"))
+                    .andExpect(jsonPath("$", hasSize(2)))
+                    .andExpect(jsonPath("$[0].free").value(85));
+        }
+
+        @Test
+        @DisplayName("Should reject requests for too many screenings")
+        void getAvailability_WhenTooManyIds_ReturnsBadRequest() throws Exception {
+            when(seatReservationService.getAvailability(anyList()))
+                    .thenThrow(new IllegalArgumentException("Cannot query more than 200 screenings at once"));
+
+            mockMvc.perform(get("/api/v1/screenings/availability").param("ids", "1,2,3"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/screenings/{id}/seats/stream")
+    class StreamSeatMap {
+
+        private final byte[] delta = "{\"seats\":[]}".getBytes(StandardCharsets.UTF_8);
+
+        @Test
+        @DisplayName("Should open with a snapshot and stream deltas")
+        void streamSeatMap_SendsSnapshotThenDeltas() throws Exception {
+            when(seatReservationService.getSeatMapVersion(21L)).thenReturn(42L);
+            when(seatReservationService.getSeatMap(21L, null, null)).thenReturn(SeatMapResponse.builder()
+                .rows(1).cols(1).holdMinutes(10).version(42L).seats(List.of()).build());
+
+            MvcResult result = mockMvc.perform(get("/api/v1/screenings/21/seats/stream")
+                    .accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            seatMapStreamService.publish(21L, 42L, 43L, delta);
+
+            String events = result.getResponse().getContentAsString();
+            assertThat(events).contains("event:snapshot\nid:42\nretry:3000\ndata:{");
+            assertThat(events).contains("event:delta\nid:43\ndata:{\"seats\":[]}");
+        }
+
+        @Test
+        @DisplayName("Should replay only the missed deltas after Last-Event-ID")
+        void streamSeatMap_WithLastEventId_ReplaysMissedDeltas() throws Exception {
+            seatMapStreamService.publish(22L, 41L, 42L, delta);
+            seatMapStreamService.publish(22L, 42L, 43L, delta);
+            seatMapStreamService.publish(22L, 43L, 44L, delta);
+            when(seatReservationService.getSeatMapVersion(22L)).thenReturn(44L);
+
+            MvcResult result = mockMvc.perform(get("/api/v1/screenings/22/seats/stream")
+                    .header("Last-Event-ID", "42"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            String events = result.getResponse().getContentAsString();
+            assertThat(events).doesNotContain("id:42").contains("id:43").contains("id:44");
+            verify(seatReservationService, never()).getSeatMap(anyLong(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should fall back to a snapshot when the missed deltas are gone")
+        void streamSeatMap_WhenGapNotCovered_SendsSnapshot() throws Exception {
+            seatMapStreamService.publish(23L, 50L, 51L, delta);
+            when(seatReservationService.getSeatMapVersion(23L)).thenReturn(51L);
+            when(seatReservationService.getSeatMap(23L, null, null)).thenReturn(SeatMapResponse.builder()
+                .rows(1).cols(1).holdMinutes(10).version(51L).seats(List.of()).build());
+
+            MvcResult result = mockMvc.perform(get("/api/v1/screenings/23/seats/stream")
+                    .header("Last-Event-ID", "42"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            assertThat(result.getResponse().getContentAsString()).startsWith("event:snapshot\nid:51\n");
+        }
+
+        @Test
+        @DisplayName("Should return 404 for an unknown screening")
+        void streamSeatMap_WhenScreeningMissing_ReturnsNotFound() throws Exception {
+            when(seatReservationService.getSeatMapVersion(99L))
+                    .thenThrow(new ResourceNotFoundException("Screening", "id", 99L));
+
+            mockMvc.perform(get("/api/v1/screenings/99/seats/stream"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/v1/screenings/{id}")
     class GetScreeningById {
@@ -2,6 +2,7 @@ package com.cinema.controller.rest;
 
 import com.cinema.config.SecurityConfig;
 import com.cinema.dto.SeatStatusDTO;
+import com.cinema.entity.Seat;
 import com.cinema.service.SeatReservationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -17,6 +18,7 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -73,6 +75,64 @@ class SeatReservationRestControllerTest {
         then(seatReservationService).should().lockSeat(anyLong(), eq(9L), anyString(), eq("jane"));
     }
 
+    @Test
+    @WithMockUser(username = "jane")
+    void lockSeats_ReturnsStatusesForAllSeats() throws Exception {
+        SeatStatusDTO first = SeatStatusDTO.builder().seatId(9L).status(SeatStatusDTO.SeatState.BOOKED).selectedByYou(true).build();
+        SeatStatusDTO second = SeatStatusDTO.builder().seatId(10L).status(SeatStatusDTO.SeatState.BOOKED).selectedByYou(true).build();
+        given(seatReservationService.lockSeats(eq(4L), eq(List.of(9L, 10L)), anyString(), eq("jane")))
+            .willReturn(List.of(first, second));
+
+        SeatReservationRestController.SeatBatchLockRequest request =
+            new SeatReservationRestController.SeatBatchLockRequest(List.of(9L, 10L));
+        mockMvc.perform(post("/api/v1/screenings/4/locks/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(request)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].seatId").value(9))
+            .andExpect(jsonPath("$[1].seatId").value(10));
+    }
+
+    @Test
+    @WithMockUser
+    void lockSeats_WithEmptySelection_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/screenings/4/locks/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"seatIds\":[]}"))
+            .andExpect(status().isBadRequest());
+
+        then(seatReservationService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @WithMockUser(username = "jane")
+    void lockBestAvailable_PassesPartySizeAndSeatType() throws Exception {
+        SeatStatusDTO seat = SeatStatusDTO.builder().seatId(9L).status(SeatStatusDTO.SeatState.BOOKED).selectedByYou(true).build();
+        given(seatReservationService.lockBestAvailable(eq(4L), eq(3), eq(Seat.SeatType.VIP), anyString(), eq("jane")))
+            .willReturn(List.of(seat, seat, seat));
+
+        mockMvc.perform(post("/api/v1/screenings/4/locks/best-available")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"partySize\":3,\"seatType\":\"VIP\"}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[2].seatId").value(9));
+    }
+
+    @Test
+    @WithMockUser
+    void lockBestAvailable_WithoutPartySize_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/screenings/4/locks/best-available")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"partySize\":0}"))
+            .andExpect(status().isBadRequest());
+
+        then(seatReservationService).shouldHaveNoInteractions();
+    }
+
     @Test
     @WithMockUser(username = "jane")
     void releaseSeat_CallsService() throws Exception {
@@ -1,7 +1,13 @@
 package com.cinema.repository;
 import com.cinema.support.PostgresTestContainer;
 
+import com.cinema.dto.ScreeningSeatCounts;
+import com.cinema.entity.Booking;
+import com.cinema.entity.BookingSeat;
 import com.cinema.entity.Screening;
+import com.cinema.entity.Seat;
+import com.cinema.entity.TicketType;
+import com.cinema.entity.User;
 import com.cinema.fixtures.EntityFixtures;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -506,4 +512,130 @@ class ScreeningRepositoryTest extends PostgresTestContainer {
         // Then
         assertThat(page.getContent()).hasSize(5);
     }
+
+    // ========== Seat counter Tests ==========
+
+    @Test
+    void adjustSeatCounters_AppliesRelativeChange() {
+        // Given
+        Screening screening = persistScreening();
+        entityManager.flush();
+
+        // When
+        screeningRepository.adjustSeatCounters(screening.getId(), 2, 3);
+        screeningRepository.adjustSeatCounters(screening.getId(), 1, -3);
+        entityManager.clear();
+
+        // Then
+        Screening reloaded = screeningRepository.findById(screening.getId()).orElseThrow();
+        assertThat(reloaded.getSeatsSold()).isEqualTo(3);
+        assertThat(reloaded.getSeatsHeld()).isZero();
+    }
+
+    @Test
+    void findSeatCounts_ReturnsCountersWithHallSize() {
+        // Given
+        Screening screening = persistScreening();
+        entityManager.flush();
+        screeningRepository.adjustSeatCounters(screening.getId(), 4, 1);
+
+        // When
+        List<ScreeningSeatCounts> counts = screeningRepository.findSeatCounts(List.of(screening.getId(), -1L));
+
+        // Then
+        assertThat(counts).containsExactly(new ScreeningSeatCounts(screening.getId(), 100, 4, 1));
+    }
+
+    @Test
+    void recountSeatCounters_CountsSeatsOfActiveBookings() {
+        // Given
+        Screening screening = persistScreening();
+        User user = entityManager.persist(EntityFixtures.createDefaultUser());
+        TicketType ticketType = entityManager.persist(EntityFixtures.createNormalTicket());
+        persistBooking(screening, user, ticketType, Booking.BookingStatus.CONFIRMED, BookingSeat.SeatStatus.OCCUPIED, 1);
+        persistBooking(screening, user, ticketType, Booking.BookingStatus.PENDING, BookingSeat.SeatStatus.RESERVED, 2);
+        persistBooking(screening, user, ticketType, Booking.BookingStatus.CANCELLED, BookingSeat.SeatStatus.AVAILABLE, 3);
+        entityManager.flush();
+
+        // When
+        int corrected = screeningRepository.recountSeatCounters(List.of(screening.getId()));
+        entityManager.clear();
+
+        // Then
+        assertThat(corrected).isEqualTo(1);
+        Screening reloaded = screeningRepository.findById(screening.getId()).orElseThrow();
+        assertThat(reloaded.getSeatsSold()).isEqualTo(1);
+        assertThat(reloaded.getSeatsHeld()).isEqualTo(1);
+    }
+
+    @Test
+    void recountSeatCounters_LeavesAccurateCountersUntouched() {
+        // Given
+        Screening screening = persistScreening();
+        User user = entityManager.persist(EntityFixtures.createDefaultUser());
+        TicketType ticketType = entityManager.persist(EntityFixtures.createNormalTicket());
+        persistBooking(screening, user, ticketType, Booking.BookingStatus.CONFIRMED, BookingSeat.SeatStatus.OCCUPIED, 1);
+        Screening empty = persistScreening();
+        entityManager.flush();
+        screeningRepository.adjustSeatCounters(screening.getId(), 1, 0);
+
+        // When
+        int corrected = screeningRepository.recountSeatCounters(List.of(screening.getId(), empty.getId()));
+
+        // Then
+        assertThat(corrected).isZero();
+    }
+
+    @Test
+    void findUnfinishedIdsAfter_ReturnsNextIdsInOrder() {
+        // Given
+        Screening first = persistScreening();
+        Screening second = persistScreening();
+        persistScreening();
+        entityManager.flush();
+
+        // When
+        List<Long> ids = screeningRepository.findUnfinishedIdsAfter(LocalDateTime.now(), first.getId(), PageRequest.of(0, 1));
+
+        // Then
+        assertThat(ids).containsExactly(second.getId());
+    }
+
+    private Screening persistScreening() {
+        var movie = entityManager.persist(EntityFixtures.createDefaultMovie());
+        var hall = entityManager.persist(EntityFixtures.createDefaultHall());
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1).withHour(18).withMinute(0);
+        return entityManager.persist(Screening.builder()
+            .movie(movie)
+            .hall(hall)
+            .startTime(tomorrow)
+            .endTime(tomorrow.plusHours(2))
+            .basePrice(25.0)
+            .active(true)
+            .build());
+    }
+
+    private void persistBooking(Screening screening, User user, TicketType ticketType,
+                                Booking.BookingStatus status, BookingSeat.SeatStatus seatStatus, int seatNumber) {
+        Seat seat = entityManager.persist(Seat.builder()
+            .hall(screening.getHall())
+            .rowNumber(1)
+            .seatNumber(seatNumber)
+            .seatType(Seat.SeatType.STANDARD)
+            .active(true)
+            .build());
+        Booking booking = EntityFixtures.bookingBuilder()
+            .user(user)
+            .screening(screening)
+            .status(status)
+            .build();
+        booking.getBookingSeats().add(BookingSeat.builder()
+            .booking(booking)
+            .seat(seat)
+            .ticketType(ticketType)
+            .price(25.0)
+            .seatStatus(seatStatus)
+            .build());
+        entityManager.persist(booking);
+    }
 }
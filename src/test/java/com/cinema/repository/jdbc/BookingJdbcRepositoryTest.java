@@ -262,7 +262,7 @@ class BookingJdbcRepositoryTest extends PostgresTestContainer {
         );
 
         for (int i = 0; i < seatsCount; i++) {
-            String insertSql = "INSERT INTO booking_seats (booking_id, seat_id, ticket_type_id, price, seat_status) VALUES (?, ?, ?, ?, ?)";
+            String insertSql = "INSERT INTO booking_seats (id, booking_id, seat_id, ticket_type_id, price, seat_status) VALUES (nextval('booking_seats_seq'), ?, ?, ?, ?, ?)";
             double seatPrice = seatsCount > 0 ? totalPrice / seatsCount : totalPrice;
             jdbcTemplate.update(
                 insertSql,
@@ -0,0 +1,102 @@
+package com.cinema.repository.jdbc;
+
+import com.cinema.support.PostgresTestContainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for CheckoutIdempotencyKeyJdbcRepository using PostgreSQL test container.
+ */
+@DataJpaTest
+class CheckoutIdempotencyKeyJdbcRepositoryTest extends PostgresTestContainer {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private CheckoutIdempotencyKeyJdbcRepository repository;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CheckoutIdempotencyKeyJdbcRepository(namedParameterJdbcTemplate);
+        now = LocalDateTime.now().withNano(0);
+    }
+
+    @Test
+    @DisplayName("Should claim a key as pending and complete it with the response")
+    void claimAndComplete_StoresResponse() {
+        assertThat(repository.claim("retry-1", "jane", 7L, now, now.plusMinutes(5))).isTrue();
+        assertThat(statusOf("retry-1")).isEqualTo("PENDING");
+
+        assertThat(repository.complete("retry-1", "jane", "{}", now.plusDays(1))).isTrue();
+
+        assertThat(statusOf("retry-1")).isEqualTo("COMPLETED");
+        assertThat(repository.complete("retry-1", "jane", "{}", now.plusDays(1))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should take over an expired key")
+    void claim_ExpiredKey_IsClaimedAgain() {
+        repository.claim("retry-1", "jane", 7L, now.minusMinutes(10), now.minusMinutes(5));
+
+        assertThat(repository.claim("retry-1", "jane", 8L, now, now.plusMinutes(5))).isTrue();
+
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT screening_id FROM checkout_idempotency_keys WHERE idempotency_key = ?", Long.class, "retry-1"))
+            .isEqualTo(8L);
+    }
+
+    @Test
+    @DisplayName("Should keep the same key of different users apart")
+    void claim_SameKeyOfAnotherUser_IsClaimedSeparately() {
+        repository.claim("retry-1", "jane", 7L, now, now.plusMinutes(5));
+
+        assertThat(repository.claim("retry-1", "john", 7L, now, now.plusMinutes(5))).isTrue();
+        assertThat(repository.complete("retry-1", "john", "{}", now.plusDays(1))).isTrue();
+
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT status FROM checkout_idempotency_keys WHERE username = 'jane' AND idempotency_key = 'retry-1'", String.class))
+            .isEqualTo("PENDING");
+    }
+
+    @Test
+    @DisplayName("Should release a pending key only")
+    void release_DropsPendingKey() {
+        repository.claim("retry-1", "jane", 7L, now, now.plusMinutes(5));
+        repository.claim("retry-2", "jane", 7L, now, now.plusMinutes(5));
+        repository.complete("retry-2", "jane", "{}", now.plusDays(1));
+
+        repository.release("retry-1", "jane");
+        repository.release("retry-2", "jane");
+
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM checkout_idempotency_keys", Integer.class)).isEqualTo(1);
+        assertThat(statusOf("retry-2")).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    @DisplayName("Should refuse a key that is already claimed")
+    void claim_LiveKey_IsRefused() {
+        repository.claim("retry-1", "jane", 7L, now, now.plusMinutes(5));
+
+        // The failed insert aborts the test transaction, so nothing runs after it.
+        assertThat(repository.claim("retry-1", "jane", 7L, now, now.plusMinutes(5))).isFalse();
+    }
+
+    private String statusOf(String key) {
+        return jdbcTemplate.queryForObject(
+            "SELECT status FROM checkout_idempotency_keys WHERE idempotency_key = ?", String.class, key);
+    }
+}
@@ -0,0 +1,84 @@
+package com.cinema.repository.jdbc;
+
+import com.cinema.entity.OutboxEvent;
+import com.cinema.repository.OutboxEventRepository;
+import com.cinema.support.PostgresTestContainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for OutboxBatchRepository using PostgreSQL test container.
+ */
+@DataJpaTest
+class OutboxBatchRepositoryTest extends PostgresTestContainer {
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private OutboxBatchRepository batchRepository;
+
+    @BeforeEach
+    void setUp() {
+        batchRepository = new OutboxBatchRepository(namedParameterJdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should hand out the oldest events and delete them once published")
+    void drainBatch_PublishesOldestFirstAndDeletes() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(append(i).getId());
+        }
+        List<Long> published = new ArrayList<>();
+
+        int drained = batchRepository.drainBatch(2, batch -> batch.forEach(event -> published.add(event.getId())));
+
+        assertThat(drained).isEqualTo(2);
+        assertThat(published).containsExactly(ids.get(0), ids.get(1));
+        assertThat(outboxEventRepository.findAll()).extracting(OutboxEvent::getId).containsExactly(ids.get(2));
+    }
+
+    @Test
+    @DisplayName("Should keep the events when publishing fails")
+    void drainBatch_PublisherFails_KeepsRows() {
+        append(0);
+
+        assertThatThrownBy(() -> batchRepository.drainBatch(10, batch -> {
+            throw new IllegalStateException("broker down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(outboxEventRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should return zero for an empty outbox")
+    void drainBatch_Empty_ReturnsZero() {
+        assertThat(batchRepository.drainBatch(10, batch -> {
+            throw new AssertionError("nothing to publish");
+        })).isZero();
+    }
+
+    private OutboxEvent append(int sequence) {
+        return outboxEventRepository.saveAndFlush(OutboxEvent.builder()
+            .aggregateType("screening")
+            .aggregateId(7L)
+            .eventType("LOCKED")
+            .payload("{\"sequence\":" + sequence + "}")
+            .createdAt(LocalDateTime.now())
+            .build());
+    }
+}
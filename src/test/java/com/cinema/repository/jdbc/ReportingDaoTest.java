@@ -279,7 +279,7 @@ class ReportingDaoTest extends PostgresTestContainer {
     }
 
     private void createBookingSeat(Booking booking) {
-        String insertSql = "INSERT INTO booking_seats (booking_id, seat_id, ticket_type_id, price, seat_status) VALUES (?, ?, ?, ?, ?)";
+        String insertSql = "INSERT INTO booking_seats (id, booking_id, seat_id, ticket_type_id, price, seat_status) VALUES (nextval('booking_seats_seq'), ?, ?, ?, ?, ?)";
         jdbcTemplate.update(
             insertSql,
             booking.getId(),
@@ -0,0 +1,119 @@
+package com.cinema.repository.jdbc;
+
+import com.cinema.entity.Hall;
+import com.cinema.entity.Screening;
+import com.cinema.entity.Seat;
+import com.cinema.entity.SeatLock;
+import com.cinema.entity.SeatLock.SeatLockStatus;
+import com.cinema.fixtures.EntityFixtures;
+import com.cinema.support.PostgresTestContainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for SeatLockArchiveRepository using PostgreSQL test container.
+ */
+@DataJpaTest
+class SeatLockArchiveRepositoryTest extends PostgresTestContainer {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private SeatLockArchiveRepository archiveRepository;
+    private Screening screening;
+    private Hall hall;
+    private LocalDateTime now;
+    private int seatSequence = 1;
+
+    @BeforeEach
+    void setUp() {
+        archiveRepository = new SeatLockArchiveRepository(namedParameterJdbcTemplate);
+        now = LocalDateTime.now().withNano(0);
+
+        hall = entityManager.persist(EntityFixtures.createDefaultHall());
+        screening = Screening.builder()
+            .movie(entityManager.persist(EntityFixtures.createDefaultMovie()))
+            .hall(hall)
+            .startTime(now.plusDays(1))
+            .endTime(now.plusDays(1).plusHours(2))
+            .basePrice(25.0)
+            .active(true)
+            .build();
+        entityManager.persist(screening);
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Should move only terminal locks older than the cutoff")
+    void archiveBatch_MovesOldTerminalLocks() {
+        SeatLock oldExpired = persistLock(SeatLockStatus.EXPIRED, now.minusHours(30));
+        SeatLock oldReleased = persistLock(SeatLockStatus.RELEASED, now.minusHours(26));
+        SeatLock recentExpired = persistLock(SeatLockStatus.EXPIRED, now.minusHours(1));
+        SeatLock active = persistLock(SeatLockStatus.ACTIVE, now.minusHours(30));
+
+        int moved = archiveRepository.archiveBatch(now.minusHours(24), 100, now);
+
+        assertThat(moved).isEqualTo(2);
+        assertThat(remainingLockIds()).containsExactlyInAnyOrder(recentExpired.getId(), active.getId());
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM seat_lock_history", Long.class))
+            .containsExactlyInAnyOrder(oldExpired.getId(), oldReleased.getId());
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT status FROM seat_lock_history WHERE id = ?", String.class, oldReleased.getId()))
+            .isEqualTo("RELEASED");
+    }
+
+    @Test
+    @DisplayName("Should archive at most one batch per call")
+    void archiveBatch_RespectsBatchSize() {
+        for (int i = 0; i < 5; i++) {
+            persistLock(SeatLockStatus.EXPIRED, now.minusHours(48));
+        }
+
+        assertThat(archiveRepository.archiveBatch(now.minusHours(24), 2, now)).isEqualTo(2);
+        assertThat(remainingLockIds()).hasSize(3);
+        assertThat(archiveRepository.archiveBatch(now.minusHours(24), 2, now)).isEqualTo(2);
+        assertThat(archiveRepository.archiveBatch(now.minusHours(24), 2, now)).isEqualTo(1);
+        assertThat(archiveRepository.archiveBatch(now.minusHours(24), 2, now)).isZero();
+    }
+
+    private SeatLock persistLock(SeatLockStatus status, LocalDateTime lastChange) {
+        Seat seat = entityManager.persist(Seat.builder()
+            .hall(hall)
+            .rowNumber(1)
+            .seatNumber(seatSequence++)
+            .seatType(Seat.SeatType.STANDARD)
+            .build());
+        SeatLock lock = entityManager.persistAndFlush(SeatLock.builder()
+            .seat(seat)
+            .screening(screening)
+            .sessionId("session-" + seat.getSeatNumber())
+            .status(status)
+            .expiresAt(lastChange)
+            .build());
+        jdbcTemplate.update("UPDATE seat_locks SET created_at = ?, updated_at = ? WHERE id = ?",
+            Timestamp.valueOf(lastChange), Timestamp.valueOf(lastChange), lock.getId());
+        return lock;
+    }
+
+    private List<Long> remainingLockIds() {
+        return jdbcTemplate.queryForList("SELECT id FROM seat_locks", Long.class);
+    }
+}
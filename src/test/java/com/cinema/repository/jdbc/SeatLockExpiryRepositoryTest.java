@@ -0,0 +1,130 @@
+package com.cinema.repository.jdbc;
+
+import com.cinema.entity.Hall;
+import com.cinema.entity.Screening;
+import com.cinema.entity.Seat;
+import com.cinema.entity.SeatLock;
+import com.cinema.entity.SeatLock.SeatLockStatus;
+import com.cinema.fixtures.EntityFixtures;
+import com.cinema.seating.SeatLockExpiry;
+import com.cinema.support.PostgresTestContainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for SeatLockExpiryRepository using PostgreSQL test container.
+ */
+@DataJpaTest
+class SeatLockExpiryRepositoryTest extends PostgresTestContainer {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private SeatLockExpiryRepository expiryRepository;
+    private Screening screening;
+    private Hall hall;
+    private LocalDateTime now;
+    private int seatSequence = 1;
+
+    @BeforeEach
+    void setUp() {
+        expiryRepository = new SeatLockExpiryRepository(namedParameterJdbcTemplate);
+        now = LocalDateTime.now().withNano(0);
+
+        hall = entityManager.persist(EntityFixtures.createDefaultHall());
+        screening = Screening.builder()
+            .movie(entityManager.persist(EntityFixtures.createDefaultMovie()))
+            .hall(hall)
+            .startTime(now.plusDays(1))
+            .endTime(now.plusDays(1).plusHours(2))
+            .basePrice(25.0)
+            .active(true)
+            .build();
+        entityManager.persist(screening);
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Should expire only the due seats whose locks have lapsed")
+    void expireDue_ExpiresLapsedLocksOfDueSeats() {
+        SeatLock due = persistLock(SeatLockStatus.ACTIVE, now.minusSeconds(5));
+        SeatLock extended = persistLock(SeatLockStatus.ACTIVE, now.plusMinutes(5));
+        SeatLock notDue = persistLock(SeatLockStatus.ACTIVE, now.minusSeconds(5));
+
+        List<SeatLockExpiry> expired = expiryRepository.expireDue(List.of(
+            new SeatLockExpiry(screening.getId(), due.getSeat().getId(), now.minusSeconds(5)),
+            new SeatLockExpiry(screening.getId(), extended.getSeat().getId(), now.minusSeconds(5))), now);
+
+        assertThat(expired).containsExactly(new SeatLockExpiry(screening.getId(), due.getSeat().getId(), now.minusSeconds(5)));
+        assertThat(statusOf(due)).isEqualTo("EXPIRED");
+        assertThat(statusOf(extended)).isEqualTo("ACTIVE");
+        assertThat(statusOf(notDue)).isEqualTo("ACTIVE");
+    }
+
+    @Test
+    @DisplayName("Should expire every lapsed lock and report its seat")
+    void expireAll_ExpiresLapsedLocksAndReturnsTheirSeats() {
+        SeatLock lapsed = persistLock(SeatLockStatus.ACTIVE, now.minusSeconds(5));
+        SeatLock live = persistLock(SeatLockStatus.ACTIVE, now.plusMinutes(5));
+        persistLock(SeatLockStatus.RELEASED, now.minusSeconds(5));
+
+        List<SeatLockExpiry> expired = expiryRepository.expireAll(now);
+
+        assertThat(expired).containsExactly(new SeatLockExpiry(screening.getId(), lapsed.getSeat().getId(), now.minusSeconds(5)));
+        assertThat(statusOf(lapsed)).isEqualTo("EXPIRED");
+        assertThat(statusOf(live)).isEqualTo("ACTIVE");
+    }
+
+    @Test
+    @DisplayName("Should expire lapsed locks of the given seats only")
+    void expireLapsed_ExpiresLapsedLocksOfGivenSeats() {
+        SeatLock lapsed = persistLock(SeatLockStatus.ACTIVE, now.minusSeconds(5));
+        SeatLock live = persistLock(SeatLockStatus.ACTIVE, now.plusMinutes(5));
+        SeatLock otherSeat = persistLock(SeatLockStatus.ACTIVE, now.minusSeconds(5));
+
+        int expired = expiryRepository.expireLapsed(screening.getId(),
+            List.of(lapsed.getSeat().getId(), live.getSeat().getId()), now);
+
+        assertThat(expired).isEqualTo(1);
+        assertThat(statusOf(lapsed)).isEqualTo("EXPIRED");
+        assertThat(statusOf(live)).isEqualTo("ACTIVE");
+        assertThat(statusOf(otherSeat)).isEqualTo("ACTIVE");
+    }
+
+    private SeatLock persistLock(SeatLockStatus status, LocalDateTime expiresAt) {
+        Seat seat = entityManager.persist(Seat.builder()
+            .hall(hall)
+            .rowNumber(1)
+            .seatNumber(seatSequence++)
+            .seatType(Seat.SeatType.STANDARD)
+            .build());
+        return entityManager.persistAndFlush(SeatLock.builder()
+            .seat(seat)
+            .screening(screening)
+            .sessionId("session-" + seat.getSeatNumber())
+            .status(status)
+            .expiresAt(expiresAt)
+            .build());
+    }
+
+    private String statusOf(SeatLock lock) {
+        return jdbcTemplate.queryForObject("SELECT status FROM seat_locks WHERE id = ?", String.class, lock.getId());
+    }
+}
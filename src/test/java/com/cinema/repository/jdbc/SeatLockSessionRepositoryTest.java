@@ -0,0 +1,120 @@
+package com.cinema.repository.jdbc;
+
+import com.cinema.entity.Hall;
+import com.cinema.entity.Screening;
+import com.cinema.entity.Seat;
+import com.cinema.entity.SeatLock;
+import com.cinema.entity.SeatLock.SeatLockStatus;
+import com.cinema.fixtures.EntityFixtures;
+import com.cinema.support.PostgresTestContainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for SeatLockSessionRepository using PostgreSQL test container.
+ */
+@DataJpaTest
+class SeatLockSessionRepositoryTest extends PostgresTestContainer {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private SeatLockSessionRepository sessionRepository;
+    private Screening screening;
+    private Hall hall;
+    private LocalDateTime now;
+    private int seatSequence = 1;
+
+    @BeforeEach
+    void setUp() {
+        // The JPA slice does not run the Spring Session schema initializer.
+        jdbcTemplate.execute("""
+            CREATE TABLE IF NOT EXISTS spring_session (
+                primary_id CHAR(36) NOT NULL PRIMARY KEY,
+                session_id CHAR(36) NOT NULL,
+                creation_time BIGINT NOT NULL,
+                last_access_time BIGINT NOT NULL,
+                max_inactive_interval INT NOT NULL,
+                expiry_time BIGINT NOT NULL,
+                principal_name VARCHAR(100))
+            """);
+        sessionRepository = new SeatLockSessionRepository(namedParameterJdbcTemplate, "spring_session");
+        now = LocalDateTime.now().withNano(0);
+
+        hall = entityManager.persist(EntityFixtures.createDefaultHall());
+        screening = Screening.builder()
+            .movie(entityManager.persist(EntityFixtures.createDefaultMovie()))
+            .hall(hall)
+            .startTime(now.plusDays(1))
+            .endTime(now.plusDays(1).plusHours(2))
+            .basePrice(25.0)
+            .active(true)
+            .build();
+        entityManager.persist(screening);
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Should find sessions with active locks that are expired or missing from the store")
+    void findEndedSessionIds_ReturnsExpiredAndMissingSessions() {
+        persistSession("live", now.plusMinutes(30));
+        persistSession("expired", now.minusMinutes(1));
+        persistLock("live", SeatLockStatus.ACTIVE, now.minusMinutes(5));
+        persistLock("expired", SeatLockStatus.ACTIVE, now.minusMinutes(5));
+        persistLock("expired", SeatLockStatus.ACTIVE, now.minusMinutes(4));
+        persistLock("deleted", SeatLockStatus.ACTIVE, now.minusMinutes(5));
+        persistLock("released", SeatLockStatus.RELEASED, now.minusMinutes(5));
+
+        assertThat(sessionRepository.findEndedSessionIds(now.minusMinutes(1), now, 10))
+            .containsExactlyInAnyOrder("expired", "deleted");
+    }
+
+    @Test
+    @DisplayName("Should skip locks created within the grace period")
+    void findEndedSessionIds_SkipsRecentLocks() {
+        persistLock("new-session", SeatLockStatus.ACTIVE, now);
+
+        assertThat(sessionRepository.findEndedSessionIds(now.minusMinutes(1), now, 10)).isEmpty();
+    }
+
+    private void persistSession(String sessionId, LocalDateTime expiresAt) {
+        long expiryMillis = Timestamp.valueOf(expiresAt).getTime();
+        jdbcTemplate.update("INSERT INTO spring_session (primary_id, session_id, creation_time, last_access_time, " +
+                "max_inactive_interval, expiry_time) VALUES (?, ?, ?, ?, ?, ?)",
+            "p-" + sessionId, sessionId, expiryMillis - 1_800_000, expiryMillis - 1_800_000, 1800, expiryMillis);
+    }
+
+    private void persistLock(String sessionId, SeatLockStatus status, LocalDateTime createdAt) {
+        Seat seat = entityManager.persist(Seat.builder()
+            .hall(hall)
+            .rowNumber(1)
+            .seatNumber(seatSequence++)
+            .seatType(Seat.SeatType.STANDARD)
+            .build());
+        SeatLock lock = entityManager.persistAndFlush(SeatLock.builder()
+            .seat(seat)
+            .screening(screening)
+            .sessionId(sessionId)
+            .status(status)
+            .expiresAt(createdAt.plusMinutes(10))
+            .build());
+        jdbcTemplate.update("UPDATE seat_locks SET created_at = ? WHERE id = ?", Timestamp.valueOf(createdAt), lock.getId());
+    }
+}
@@ -0,0 +1,71 @@
+package com.cinema.repository.jdbc;
+
+import com.cinema.entity.Hall;
+import com.cinema.entity.Screening;
+import com.cinema.fixtures.EntityFixtures;
+import com.cinema.support.PostgresTestContainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for SeatVersionRepository using PostgreSQL test container.
+ */
+@DataJpaTest
+class SeatVersionRepositoryTest extends PostgresTestContainer {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private SeatVersionRepository versionRepository;
+    private Screening screening;
+
+    @BeforeEach
+    void setUp() {
+        versionRepository = new SeatVersionRepository(namedParameterJdbcTemplate);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Hall hall = entityManager.persist(EntityFixtures.createDefaultHall());
+        screening = entityManager.persist(Screening.builder()
+            .movie(entityManager.persist(EntityFixtures.createDefaultMovie()))
+            .hall(hall)
+            .startTime(now.plusDays(1))
+            .endTime(now.plusDays(1).plusHours(2))
+            .basePrice(25.0)
+            .active(true)
+            .build());
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Should return consecutive versions and store the last one")
+    void next_ReturnsConsecutiveVersions() {
+        assertThat(versionRepository.next(screening.getId())).isEqualTo(1L);
+        assertThat(versionRepository.next(screening.getId())).isEqualTo(2L);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT seat_version FROM screenings WHERE id = ?", Long.class, screening.getId())).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Should fail for a screening that does not exist")
+    void next_UnknownScreening_Throws() {
+        assertThatThrownBy(() -> versionRepository.next(-1L))
+            .isInstanceOf(EmptyResultDataAccessException.class);
+    }
+}
@@ -0,0 +1,109 @@
+package com.cinema.seating;
+
+import com.cinema.seating.SeatEvent.SeatSnapshot;
+import com.cinema.seating.SeatMapChangedEvent.Change;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AmqpSeatEventBusTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+    @Mock
+    private RabbitOperations channel;
+    @Mock
+    private ConnectionFactory connectionFactory;
+
+    private AmqpSeatEventBus bus;
+
+    @BeforeEach
+    void setUp() {
+        bus = new AmqpSeatEventBus(rabbitTemplate, JsonMapper.builder().findAndAddModules().build(), "seat-events", 5000);
+    }
+
+    @Test
+    void publishedEvent_IsDeliveredToListenersAsSent() {
+        stubChannel(true);
+        List<SeatEvent> received = new ArrayList<>();
+        bus.subscribe(received::add);
+        SeatEvent event = event(12L);
+
+        bus.publish(event);
+
+        ArgumentCaptor<Message> message = ArgumentCaptor.forClass(Message.class);
+        verify(channel).send(eq("seat-events"), eq(""), message.capture());
+        assertThat(message.getValue().getMessageProperties().getContentType()).isEqualTo(MessageProperties.CONTENT_TYPE_JSON);
+        assertThat(message.getValue().getMessageProperties().getMessageId()).isEqualTo("12");
+        bus.onMessage(message.getValue());
+        assertThat(received).containsExactly(event);
+    }
+
+    @Test
+    void publishAll_SendsTheBatchOnOneChannelAndWaitsForConfirms() {
+        stubChannel(true);
+
+        bus.publishAll(List.of(event(1L), event(2L), event(3L)));
+
+        verify(rabbitTemplate).invoke(any());
+        verify(channel, times(3)).send(eq("seat-events"), eq(""), any(Message.class));
+        verify(channel).waitForConfirmsOrDie(5000);
+    }
+
+    @Test
+    void publishAll_WithoutConfirms_DoesNotWait() {
+        stubChannel(false);
+
+        bus.publishAll(List.of(event(1L)));
+
+        verify(channel, never()).waitForConfirmsOrDie(any(Long.class));
+    }
+
+    @Test
+    void unreadableMessage_IsDropped() {
+        List<SeatEvent> received = new ArrayList<>();
+        bus.subscribe(received::add);
+
+        bus.onMessage(new Message("not json".getBytes(StandardCharsets.UTF_8), new MessageProperties()));
+
+        assertThat(received).isEmpty();
+    }
+
+    private void stubChannel(boolean confirms) {
+        when(rabbitTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+        when(connectionFactory.isSimplePublisherConfirms()).thenReturn(confirms);
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation ->
+            invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(channel));
+    }
+
+    private static SeatEvent event(long id) {
+        return new SeatEvent(id, "node-1", 7L, id, Change.LOCKED,
+            List.of(new SeatSnapshot(41L, 7L, 0, new SeatHold("session-1", "alice", LocalDateTime.of(2026, 1, 1, 20, 0)))),
+            Set.of(), Instant.parse("2026-01-01T19:50:00Z"));
+    }
+}
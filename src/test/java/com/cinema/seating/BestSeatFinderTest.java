@@ -0,0 +1,106 @@
+package com.cinema.seating;
+
+import com.cinema.entity.Hall;
+import com.cinema.entity.Seat;
+import com.cinema.entity.Seat.SeatType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BestSeatFinderTest {
+
+    private final BestSeatFinder finder = new BestSeatFinder(0.5, 1.5, 5);
+
+    @Test
+    void find_WhenHallEmpty_PrefersCentreOfMiddleRow() {
+        HallLayout layout = layout(5, 8, SeatType.STANDARD);
+
+        List<List<Long>> blocks = finder.find(layout, allAvailable(layout), 2, null);
+
+        assertThat(blocks.get(0)).containsExactly(seatId(3, 4), seatId(3, 5));
+        assertThat(blocks).hasSize(5);
+    }
+
+    @Test
+    void find_NeverSpansGapsOrRows() {
+        HallLayout layout = layout(2, 4, SeatType.STANDARD);
+        boolean[] available = allAvailable(layout);
+        available[layout.indexOf(seatId(1, 2))] = false;
+        available[layout.indexOf(seatId(2, 3))] = false;
+
+        List<List<Long>> blocks = finder.find(layout, available, 3, null);
+
+        assertThat(blocks).isEmpty();
+    }
+
+    @Test
+    void find_WhenTypePreferred_RanksMatchingSeatsFirst() {
+        Hall hall = Hall.builder().id(1L).rowsCount(3).seatsPerRow(4).build();
+        List<Seat> seats = new ArrayList<>();
+        for (int row = 1; row <= 3; row++) {
+            for (int number = 1; number <= 4; number++) {
+                SeatType type = row == 1 ? SeatType.VIP : SeatType.STANDARD;
+                seats.add(Seat.builder().id(seatId(row, number)).hall(hall).rowNumber(row).seatNumber(number).seatType(type).build());
+            }
+        }
+        HallLayout layout = HallLayout.of(hall, seats);
+
+        List<List<Long>> blocks = finder.find(layout, allAvailable(layout), 2, SeatType.VIP);
+
+        assertThat(blocks.get(0)).containsExactly(seatId(1, 2), seatId(1, 3));
+    }
+
+    @Test
+    void find_OffersWheelchairSpacesOnlyWhenAskedFor() {
+        HallLayout layout = layout(1, 2, SeatType.WHEELCHAIR);
+
+        assertThat(finder.find(layout, allAvailable(layout), 1, null)).isEmpty();
+        assertThat(finder.find(layout, allAvailable(layout), 1, SeatType.WHEELCHAIR)).hasSize(2);
+    }
+
+    @Test
+    void find_On500SeatHall_StaysBelowOneMillisecond() {
+        HallLayout layout = layout(20, 25, SeatType.STANDARD);
+        boolean[] available = allAvailable(layout);
+        for (int i = 0; i < available.length; i += 3) {
+            available[i] = false;
+        }
+        for (int i = 0; i < 1_000; i++) {
+            finder.find(layout, available, 2, SeatType.STANDARD);
+        }
+
+        int runs = 1_000;
+        long started = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            finder.find(layout, available, 2, SeatType.STANDARD);
+        }
+        long averageNanos = (System.nanoTime() - started) / runs;
+
+        assertThat(averageNanos).isLessThan(1_000_000L);
+    }
+
+    private HallLayout layout(int rows, int seatsPerRow, SeatType type) {
+        Hall hall = Hall.builder().id(1L).rowsCount(rows).seatsPerRow(seatsPerRow).build();
+        List<Seat> seats = new ArrayList<>();
+        for (int row = 1; row <= rows; row++) {
+            for (int number = 1; number <= seatsPerRow; number++) {
+                seats.add(Seat.builder().id(seatId(row, number)).hall(hall).rowNumber(row).seatNumber(number).seatType(type).build());
+            }
+        }
+        return HallLayout.of(hall, seats);
+    }
+
+    private boolean[] allAvailable(HallLayout layout) {
+        boolean[] available = new boolean[layout.size()];
+        Arrays.fill(available, true);
+        return available;
+    }
+
+    private long seatId(int row, int number) {
+        return row * 100L + number;
+    }
+}
@@ -0,0 +1,76 @@
+package com.cinema.seating;
+
+import com.cinema.entity.Hall;
+import com.cinema.entity.Seat;
+import com.cinema.repository.SeatRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HallLayoutCacheTest {
+
+    @Mock
+    private SeatRepository seatRepository;
+
+    private HallLayoutCache cache;
+    private Hall hall;
+
+    @BeforeEach
+    void setUp() {
+        cache = new HallLayoutCache(seatRepository);
+        hall = Hall.builder().id(3L).rowsCount(2).seatsPerRow(2).build();
+    }
+
+    @Test
+    void get_LoadsLayoutOnceSortedByRowAndSeat() {
+        when(seatRepository.findByHallIdAndActiveTrue(3L)).thenReturn(List.of(
+            seat(12L, 2, 1, Seat.SeatType.VIP),
+            seat(11L, 1, 2, Seat.SeatType.STANDARD),
+            seat(10L, 1, 1, Seat.SeatType.STANDARD)));
+
+        HallLayout layout = cache.get(hall);
+
+        assertThat(cache.get(hall)).isSameAs(layout);
+        assertThat(layout.size()).isEqualTo(3);
+        assertThat(new long[] {layout.seatId(0), layout.seatId(1), layout.seatId(2)}).containsExactly(10L, 11L, 12L);
+        assertThat(layout.seatType(2)).isEqualTo(Seat.SeatType.VIP);
+        assertThat(layout.indexOf(11L)).isEqualTo(1);
+        assertThat(layout.indexOf(99L)).isEqualTo(-1);
+        verify(seatRepository, times(1)).findByHallIdAndActiveTrue(3L);
+    }
+
+    @Test
+    void invalidator_WhenSeatChanges_ReloadsLayout() {
+        when(seatRepository.findByHallIdAndActiveTrue(3L)).thenReturn(List.of(seat(10L, 1, 1, Seat.SeatType.STANDARD)));
+        SeatInventoryEngine engine = mock(SeatInventoryEngine.class);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("hallLayoutCache", cache);
+        beanFactory.addBean("seatInventoryEngine", engine);
+        HallLayoutInvalidator invalidator = new HallLayoutInvalidator(
+            beanFactory.getBeanProvider(HallLayoutCache.class),
+            beanFactory.getBeanProvider(SeatInventoryEngine.class));
+        HallLayout original = cache.get(hall);
+
+        invalidator.onLayoutChange(seat(11L, 1, 2, Seat.SeatType.STANDARD));
+
+        assertThat(cache.get(hall)).isNotSameAs(original);
+        verify(engine).evictHall(3L);
+        verify(seatRepository, times(2)).findByHallIdAndActiveTrue(3L);
+    }
+
+    private Seat seat(Long id, int row, int number, Seat.SeatType type) {
+        return Seat.builder().id(id).hall(hall).rowNumber(row).seatNumber(number).seatType(type).build();
+    }
+}
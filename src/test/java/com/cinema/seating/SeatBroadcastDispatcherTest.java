@@ -0,0 +1,149 @@
+package com.cinema.seating;
+
+import com.cinema.dto.CompactSeatMapUpdate;
+import com.cinema.dto.SeatMapDelta;
+import com.cinema.dto.SeatStatusDTO;
+import com.cinema.entity.Hall;
+import com.cinema.entity.Seat;
+import com.cinema.service.SeatStatusNotifierService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SeatBroadcastDispatcherTest {
+
+    @Mock
+    private SeatInventoryEngine inventoryEngine;
+    @Mock
+    private SeatStatusNotifierService seatStatusNotifier;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SeatSubscriptionRegistry subscriptions;
+    private SeatBroadcastDispatcher dispatcher;
+    private SeatInventory inventory;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        subscriptions = new SeatSubscriptionRegistry(meterRegistry);
+        subscriptions.subscribe("ws-1", "sub-0", 7L);
+        dispatcher = new SeatBroadcastDispatcher(inventoryEngine, seatStatusNotifier, subscriptions, meterRegistry, 50, 1);
+
+        Hall hall = Hall.builder().id(3L).rowsCount(1).seatsPerRow(2).build();
+        inventory = new SeatInventory(7L, HallLayout.of(hall, List.of(
+            Seat.builder().id(41L).hall(hall).rowNumber(1).seatNumber(1).build(),
+            Seat.builder().id(42L).hall(hall).rowNumber(1).seatNumber(2).build())), LocalDateTime.now().plusHours(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void markDirty_WhenBurstWithinWindow_EmitsSingleDelta() {
+        when(inventoryEngine.find(7L)).thenReturn(Optional.of(inventory));
+        LocalDateTime now = LocalDateTime.now();
+
+        inventory.claim(41L, new SeatHold("session-1", null, now.plusMinutes(5)), now);
+        inventory.acknowledge(1);
+        dispatcher.markDirty(7L);
+        for (int i = 0; i < 49; i++) {
+            inventory.claim(42L, new SeatHold("session-2", null, now.plusMinutes(5)), now);
+            inventory.acknowledge(i + 2);
+            dispatcher.markDirty(7L);
+        }
+
+        ArgumentCaptor<SeatMapDelta> deltaCaptor = ArgumentCaptor.forClass(SeatMapDelta.class);
+        verify(seatStatusNotifier, timeout(1000)).broadcast(eq(7L), deltaCaptor.capture());
+        assertThat(deltaCaptor.getValue().getSeats())
+            .extracting(SeatStatusDTO::getSeatId)
+            .containsExactly(41L, 42L);
+        ArgumentCaptor<CompactSeatMapUpdate> compactCaptor = ArgumentCaptor.forClass(CompactSeatMapUpdate.class);
+        verify(seatStatusNotifier, timeout(1000)).broadcastCompact(eq(7L), compactCaptor.capture());
+        assertThat(compactCaptor.getValue().getVersion()).isEqualTo(deltaCaptor.getValue().getVersion());
+        assertThat(compactCaptor.getValue().getStates()).containsExactly((byte) 0b01_01);
+        assertThat(meterRegistry.counter("seating.broadcast.requested").count()).isEqualTo(50);
+        assertThat(meterRegistry.counter("seating.broadcast.coalesced").count()).isEqualTo(49);
+        assertThat(meterRegistry.counter("seating.broadcast.emitted").count()).isEqualTo(1);
+    }
+
+    @Test
+    void markDirty_WhenNothingChanged_SkipsBroadcast() {
+        when(inventoryEngine.find(7L)).thenReturn(Optional.of(inventory));
+        inventory.publishDelta(LocalDateTime.now());
+
+        dispatcher.markDirty(7L);
+
+        verify(inventoryEngine, timeout(1000)).find(7L);
+        verify(seatStatusNotifier, after(100).never()).broadcast(anyLong(), any());
+        assertThat(meterRegistry.counter("seating.broadcast.emitted").count()).isZero();
+    }
+
+    @Test
+    void markDirty_WhenNobodyIsSubscribed_SkipsComputation() {
+        subscriptions.unsubscribe("ws-1", "sub-0");
+
+        dispatcher.markDirty(7L);
+
+        verify(inventoryEngine, after(100).never()).find(anyLong());
+        verify(seatStatusNotifier, never()).broadcast(anyLong(), any());
+        assertThat(meterRegistry.counter("seating.broadcast.unwatched").count()).isEqualTo(1);
+    }
+
+    @Test
+    void markDirty_AfterFlush_SchedulesNextWindow() {
+        when(inventoryEngine.find(7L)).thenReturn(Optional.of(inventory));
+        LocalDateTime now = LocalDateTime.now();
+
+        inventory.claim(41L, new SeatHold("session-1", null, now.plusMinutes(5)), now);
+        inventory.acknowledge(1);
+        dispatcher.markDirty(7L);
+        verify(seatStatusNotifier, timeout(1000)).broadcast(eq(7L), any(SeatMapDelta.class));
+
+        inventory.release(41L, "session-1", null);
+        inventory.acknowledge(2);
+        dispatcher.markDirty(7L);
+        verify(seatStatusNotifier, timeout(1000).times(2)).broadcast(eq(7L), any(SeatMapDelta.class));
+    }
+
+    @Test
+    void onSeatMapChanged_RecordsLagFromTheChange() {
+        when(inventoryEngine.find(7L)).thenReturn(Optional.of(inventory));
+        LocalDateTime now = LocalDateTime.now();
+        inventory.claim(41L, new SeatHold("session-1", null, now.plusMinutes(5)), now);
+        inventory.acknowledge(1);
+
+        dispatcher.onSeatMapChanged(new SeatMapChangedEvent(7L, Instant.now().minusMillis(200),
+            SeatMapChangedEvent.Change.LOCKED, List.of(41L), Set.of()));
+
+        verify(seatStatusNotifier, timeout(1000)).broadcast(eq(7L), any(SeatMapDelta.class));
+        Timer lag = meterRegistry.timer("seating.broadcast.lag");
+        assertThat(lag.count()).isEqualTo(1);
+        assertThat(lag.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(250);
+    }
+}
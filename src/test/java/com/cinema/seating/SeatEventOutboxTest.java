@@ -0,0 +1,141 @@
+package com.cinema.seating;
+
+import com.cinema.entity.OutboxEvent;
+import com.cinema.repository.OutboxEventRepository;
+import com.cinema.repository.jdbc.OutboxBatchRepository;
+import com.cinema.seating.SeatEvent.SeatSnapshot;
+import com.cinema.seating.SeatMapChangedEvent.Change;
+import com.cinema.support.InProcessSeatEventBus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SeatEventOutboxTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private OutboxBatchRepository outboxBatchRepository;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final InProcessSeatEventBus bus = new InProcessSeatEventBus();
+    private SimpleMeterRegistry meterRegistry;
+    private SeatEventOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("seatEventBus", bus);
+        outbox = new SeatEventOutbox(outboxEventRepository, outboxBatchRepository, objectMapper,
+            beans.getBeanProvider(SeatEventBus.class), meterRegistry, 2, 5);
+    }
+
+    @Test
+    void append_WritesTheEventAsJson() throws Exception {
+        SeatEvent event = event(0L);
+
+        outbox.append(event);
+
+        ArgumentCaptor<OutboxEvent> row = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(row.capture());
+        assertThat(row.getValue().getAggregateType()).isEqualTo("screening");
+        assertThat(row.getValue().getAggregateId()).isEqualTo(7L);
+        assertThat(row.getValue().getEventType()).isEqualTo("LOCKED");
+        assertThat(objectMapper.readValue(row.getValue().getPayload(), SeatEvent.class)).isEqualTo(event);
+    }
+
+    @Test
+    void drain_PublishesRowsInOrderWithTheirIdsUntilABatchIsShort() throws Exception {
+        List<List<OutboxEvent>> batches = List.of(
+            List.of(row(1L), row(2L)),
+            List.of(row(3L)));
+        List<Integer> calls = new ArrayList<>();
+        when(outboxBatchRepository.drainBatch(eq(2), any())).thenAnswer(invocation -> {
+            List<OutboxEvent> batch = batches.get(calls.size());
+            calls.add(batch.size());
+            invocation.<Consumer<List<OutboxEvent>>>getArgument(1).accept(batch);
+            return batch.size();
+        });
+
+        outbox.drain();
+
+        assertThat(bus.published()).extracting(SeatEvent::id).containsExactly(1L, 2L, 3L);
+        verify(outboxBatchRepository, times(2)).drainBatch(eq(2), any());
+        assertThat(meterRegistry.counter("seating.events.outbox.published").count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void drain_StopsAfterTheBatchLimit() {
+        when(outboxBatchRepository.drainBatch(eq(2), any())).thenReturn(2);
+
+        outbox.drain();
+
+        verify(outboxBatchRepository, times(5)).drainBatch(eq(2), any());
+    }
+
+    @Test
+    void drain_DropsUnreadableRows() throws Exception {
+        OutboxEvent broken = OutboxEvent.builder().id(2L).payload("{").createdAt(LocalDateTime.now()).build();
+        when(outboxBatchRepository.drainBatch(eq(2), any())).thenAnswer(invocation -> {
+            invocation.<Consumer<List<OutboxEvent>>>getArgument(1).accept(List.of(row(1L), broken));
+            return 1;
+        });
+
+        outbox.drain();
+
+        assertThat(bus.published()).extracting(SeatEvent::id).containsExactly(1L);
+    }
+
+    @Test
+    void withoutBus_IsDisabledAndDrainsNothing() {
+        SeatEventOutbox disabled = new SeatEventOutbox(outboxEventRepository, outboxBatchRepository, objectMapper,
+            new StaticListableBeanFactory().getBeanProvider(SeatEventBus.class), meterRegistry, 2, 5);
+
+        disabled.drain();
+
+        assertThat(disabled.isEnabled()).isFalse();
+        verify(outboxBatchRepository, never()).drainBatch(anyInt(), any());
+    }
+
+    private OutboxEvent row(long id) throws Exception {
+        return OutboxEvent.builder()
+            .id(id)
+            .aggregateType("screening")
+            .aggregateId(7L)
+            .eventType("LOCKED")
+            .payload(objectMapper.writeValueAsString(event(0L)))
+            .createdAt(LocalDateTime.now())
+            .build();
+    }
+
+    private static SeatEvent event(long id) {
+        return new SeatEvent(id, "node-1", 7L, id, Change.LOCKED,
+            List.of(new SeatSnapshot(41L, 7L, 0, new SeatHold("session-1", null, LocalDateTime.of(2026, 1, 1, 20, 0)))),
+            Set.of(), Instant.parse("2026-01-01T19:50:00Z"));
+    }
+}
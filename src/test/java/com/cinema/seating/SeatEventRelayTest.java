@@ -0,0 +1,193 @@
+package com.cinema.seating;
+
+import com.cinema.entity.Hall;
+import com.cinema.entity.Seat;
+import com.cinema.seating.SeatMapChangedEvent.Change;
+import com.cinema.support.InProcessSeatEventBus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SeatEventRelayTest {
+
+    private final InProcessSeatEventBus bus = new InProcessSeatEventBus();
+    private Node first;
+    private Node second;
+    private long nextEventId = 1;
+    // The screening's seat-map version in the database both nodes share.
+    private long seatVersion;
+
+    @BeforeEach
+    void setUp() {
+        first = new Node();
+        second = new Node();
+    }
+
+    @Test
+    void lockOnOneNode_IsAppliedAndBroadcastOnTheOther() {
+        SeatHold hold = new SeatHold("session-1", "alice", LocalDateTime.now().plusMinutes(10));
+        first.inventory.hold(41L, hold);
+
+        commit(first, SeatMapChangedEvent.of(7L, Change.LOCKED, List.of(41L)));
+
+        assertThat(second.inventory.activeHold(41L, LocalDateTime.now())).isEqualTo(hold);
+        verify(second.dispatcher).markDirty(eq(7L), any(Instant.class));
+        verify(first.dispatcher, never()).markDirty(eq(7L), any(Instant.class));
+    }
+
+    @Test
+    void bookingOnOneNode_MarksTheSeatReservedOnTheOther() {
+        first.inventory.markReserved(42L, true);
+
+        commit(first, SeatMapChangedEvent.of(7L, Change.BOOKED, List.of(42L)));
+
+        assertThat(second.inventory.isReserved(42L)).isTrue();
+    }
+
+    @Test
+    void endedSessions_AreReleasedOnTheOtherNode() {
+        SeatHold hold = new SeatHold("session-1", null, LocalDateTime.now().plusMinutes(10));
+        first.inventory.hold(41L, hold);
+        second.inventory.hold(41L, hold);
+        first.inventory.releaseSessions(Set.of("session-1"));
+
+        commit(first, SeatMapChangedEvent.sessionsEnded(7L, Set.of("session-1")));
+
+        assertThat(second.inventory.activeHold(41L, LocalDateTime.now())).isNull();
+    }
+
+    @Test
+    void redeliveredEvent_IsDroppedAsDuplicate() {
+        first.inventory.hold(41L, new SeatHold("session-1", null, LocalDateTime.now().plusMinutes(10)));
+        commit(first, SeatMapChangedEvent.of(7L, Change.LOCKED, List.of(41L)));
+        second.inventory.release(41L, "session-1", null);
+        clearInvocations(second.dispatcher);
+
+        bus.publish(bus.published().get(0));
+
+        assertThat(second.inventory.activeHold(41L, LocalDateTime.now())).isNull();
+        verify(second.dispatcher, never()).markDirty(eq(7L), any(Instant.class));
+        assertThat(second.meterRegistry.counter("seating.events.duplicates").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void eventsArrivingOutOfOrder_AdvanceTheVersionOnceContiguous() {
+        first.inventory.hold(41L, new SeatHold("session-1", null, LocalDateTime.now().plusMinutes(10)));
+        first.relay.onSeatMapChanged(SeatMapChangedEvent.of(7L, Change.LOCKED, List.of(41L)));
+        first.inventory.markReserved(42L, true);
+        first.relay.onSeatMapChanged(SeatMapChangedEvent.of(7L, Change.BOOKED, List.of(42L)));
+        ArgumentCaptor<SeatEvent> events = ArgumentCaptor.forClass(SeatEvent.class);
+        verify(first.outbox, times(2)).append(events.capture());
+
+        bus.publish(events.getAllValues().get(1).withId(2));
+
+        assertThat(second.inventory.isReserved(42L)).isTrue();
+        assertThat(second.inventory.version()).isZero();
+        assertThat(second.inventory.hasVersionGap()).isTrue();
+
+        bus.publish(events.getAllValues().get(0).withId(1));
+
+        assertThat(second.inventory.version()).isEqualTo(2L);
+        assertThat(second.inventory.hasVersionGap()).isFalse();
+    }
+
+    @Test
+    void olderSnapshotOfTheSameSeat_ArrivingLate_IsIgnored() {
+        first.inventory.hold(41L, new SeatHold("session-1", null, LocalDateTime.now().plusMinutes(10)));
+        first.relay.onSeatMapChanged(SeatMapChangedEvent.of(7L, Change.LOCKED, List.of(41L)));
+        first.inventory.release(41L, "session-1", null);
+        first.relay.onSeatMapChanged(SeatMapChangedEvent.of(7L, Change.RELEASED, List.of(41L)));
+        ArgumentCaptor<SeatEvent> events = ArgumentCaptor.forClass(SeatEvent.class);
+        verify(first.outbox, times(2)).append(events.capture());
+
+        bus.publish(events.getAllValues().get(1).withId(2));
+        bus.publish(events.getAllValues().get(0).withId(1));
+
+        assertThat(second.inventory.activeHold(41L, LocalDateTime.now())).isNull();
+        assertThat(second.inventory.version()).isEqualTo(2L);
+    }
+
+    @Test
+    void change_TakesTheNextSeatMapVersionEvenWithoutOutbox() {
+        when(first.outbox.isEnabled()).thenReturn(false);
+
+        first.relay.onSeatMapChanged(SeatMapChangedEvent.of(7L, Change.LOCKED, List.of(41L)));
+
+        verify(first.inventoryEngine).commitVersion(7L);
+        assertThat(seatVersion).isEqualTo(1L);
+    }
+
+    @Test
+    void change_IsWrittenToTheOutboxWithTheSeatState() {
+        first.inventory.markReserved(41L, false);
+
+        first.relay.onSeatMapChanged(SeatMapChangedEvent.of(7L, Change.BOOKED, List.of(41L, 99L)));
+
+        ArgumentCaptor<SeatEvent> event = ArgumentCaptor.forClass(SeatEvent.class);
+        verify(first.outbox).append(event.capture());
+        assertThat(event.getValue().origin()).isEqualTo(first.relay.origin());
+        assertThat(event.getValue().version()).isEqualTo(1L);
+        assertThat(event.getValue().seats()).containsExactly(new SeatEvent.SeatSnapshot(41L, 1L, SeatInventory.RESERVED, null));
+    }
+
+    @Test
+    void disabledOutbox_NothingIsWritten() {
+        when(first.outbox.isEnabled()).thenReturn(false);
+
+        first.relay.onSeatMapChanged(SeatMapChangedEvent.of(7L, Change.LOCKED, List.of(41L)));
+
+        verify(first.outbox, never()).append(any());
+    }
+
+    /**
+     * Runs the change through the node's relay and hands what it wrote to
+     * the outbox to the bus, as the outbox poller would.
+     */
+    private void commit(Node node, SeatMapChangedEvent change) {
+        node.relay.onSeatMapChanged(change);
+        ArgumentCaptor<SeatEvent> event = ArgumentCaptor.forClass(SeatEvent.class);
+        verify(node.outbox).append(event.capture());
+        bus.publish(event.getValue().withId(nextEventId++));
+    }
+
+    private class Node {
+
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final SeatInventory inventory;
+        final SeatBroadcastDispatcher dispatcher = mock(SeatBroadcastDispatcher.class);
+        final SeatEventOutbox outbox = mock(SeatEventOutbox.class);
+        final SeatInventoryEngine inventoryEngine = mock(SeatInventoryEngine.class);
+        final SeatEventRelay relay;
+
+        Node() {
+            Hall hall = Hall.builder().id(3L).rowsCount(1).seatsPerRow(2).build();
+            inventory = new SeatInventory(7L, HallLayout.of(hall, List.of(
+                Seat.builder().id(41L).hall(hall).rowNumber(1).seatNumber(1).build(),
+                Seat.builder().id(42L).hall(hall).rowNumber(1).seatNumber(2).build())), LocalDateTime.now().plusHours(2));
+            when(inventoryEngine.find(7L)).thenReturn(Optional.of(inventory));
+            when(inventoryEngine.commitVersion(7L)).thenAnswer(invocation -> ++seatVersion);
+            when(outbox.isEnabled()).thenReturn(true);
+            StaticListableBeanFactory beans = new StaticListableBeanFactory();
+            beans.addBean("seatEventBus", bus);
+            relay = new SeatEventRelay(inventoryEngine, dispatcher, outbox, beans.getBeanProvider(SeatEventBus.class), meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.cinema.seating;
+
+import com.cinema.dto.SeatStatusDTO.SeatState;
+import com.cinema.entity.Hall;
+import com.cinema.entity.Screening;
+import com.cinema.entity.Seat;
+import com.cinema.entity.SeatLock;
+import com.cinema.entity.SeatLock.SeatLockStatus;
+import com.cinema.repository.BookingSeatRepository;
+import com.cinema.repository.ScreeningRepository;
+import com.cinema.repository.SeatLockRepository;
+import com.cinema.repository.SeatRepository;
+import com.cinema.repository.jdbc.SeatVersionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SeatInventoryEngineTest {
+
+    @Mock
+    private ScreeningRepository screeningRepository;
+    @Mock
+    private SeatRepository seatRepository;
+    @Mock
+    private BookingSeatRepository bookingSeatRepository;
+    @Mock
+    private SeatLockRepository seatLockRepository;
+    @Mock
+    private SeatVersionRepository seatVersionRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final SeatOwnerTokens ownerTokens = new SeatOwnerTokens("test-key");
+    private SeatInventoryEngine engine;
+    private Screening screening;
+    private Seat seat;
+
+    @BeforeEach
+    void setUp() {
+        SeatInventoryLoader loader = new SeatInventoryLoader(screeningRepository, new HallLayoutCache(seatRepository), bookingSeatRepository, seatLockRepository, ownerTokens);
+        engine = new SeatInventoryEngine(loader, screeningRepository, seatLockRepository, bookingSeatRepository, seatVersionRepository, eventPublisher);
+
+        Hall hall = Hall.builder().id(3L).rowsCount(1).seatsPerRow(1).build();
+        screening = Screening.builder()
+            .id(7L)
+            .hall(hall)
+            .endTime(LocalDateTime.now().plusHours(2))
+            .build();
+        seat = Seat.builder().id(42L).hall(hall).rowNumber(1).seatNumber(1).build();
+
+        when(screeningRepository.findById(7L)).thenReturn(Optional.of(screening));
+        when(seatRepository.findByHallIdAndActiveTrue(3L)).thenReturn(List.of(seat));
+        when(bookingSeatRepository.findActiveSeatsByScreeningId(7L)).thenReturn(List.of());
+    }
+
+    @Test
+    void get_LoadsActiveLocksIntoInventoryOnce() {
+        SeatLock lock = SeatLock.builder()
+            .seat(seat)
+            .screening(screening)
+            .sessionId("session-1")
+            .status(SeatLockStatus.ACTIVE)
+            .expiresAt(LocalDateTime.now().plusMinutes(5))
+            .build();
+        when(seatLockRepository.findActiveLocksByScreening(eq(7L), any(LocalDateTime.class))).thenReturn(List.of(lock));
+
+        SeatInventory inventory = engine.get(7L);
+
+        assertThat(engine.get(7L)).isSameAs(inventory);
+        assertThat(inventory.seatStatuses(ownerTokens.of("session-1"), null, LocalDateTime.now())).singleElement()
+            .satisfies(status -> {
+                assertThat(status.getStatus()).isEqualTo(SeatState.BOOKED);
+                assertThat(status.isSelectedByYou()).isTrue();
+            });
+        verify(screeningRepository, times(1)).findById(7L);
+    }
+
+    @Test
+    void reconcile_WhenDriftPersists_RebuildsInventory() {
+        when(seatLockRepository.findActiveLocksByScreening(eq(7L), any(LocalDateTime.class))).thenReturn(List.of());
+        SeatInventory original = engine.get(7L);
+        when(seatLockRepository.countActiveLockedSeats(eq(7L), any(LocalDateTime.class))).thenReturn(1L);
+        when(bookingSeatRepository.countActiveSeatsByScreeningId(7L)).thenReturn(0L);
+
+        engine.reconcile();
+        assertThat(engine.find(7L)).containsSame(original);
+
+        engine.reconcile();
+        assertThat(engine.find(7L)).isPresent().get().isNotSameAs(original);
+        verify(screeningRepository, times(2)).findById(7L);
+        verify(seatRepository, times(1)).findByHallIdAndActiveTrue(3L);
+        verify(eventPublisher).publishEvent(any(SeatMapChangedEvent.class));
+    }
+
+    @Test
+    void reconcile_WhenVersionGapPersists_RebuildsAtTheDatabaseVersion() {
+        when(seatLockRepository.findActiveLocksByScreening(eq(7L), any(LocalDateTime.class))).thenReturn(List.of());
+        when(screeningRepository.findSeatVersion(7L)).thenReturn(4L, 9L);
+        SeatInventory original = engine.get(7L);
+        original.acknowledge(6);
+        when(seatLockRepository.countActiveLockedSeats(eq(7L), any(LocalDateTime.class))).thenReturn(0L);
+        when(bookingSeatRepository.countActiveSeatsByScreeningId(7L)).thenReturn(0L);
+
+        engine.reconcile();
+        assertThat(engine.find(7L)).containsSame(original);
+
+        engine.reconcile();
+        SeatInventory rebuilt = engine.find(7L).orElseThrow();
+        assertThat(rebuilt).isNotSameAs(original);
+        assertThat(rebuilt.version()).isEqualTo(9L);
+        assertThat(rebuilt.hasVersionGap()).isFalse();
+        assertThat(rebuilt.publishDelta(LocalDateTime.now()))
+            .satisfies(delta -> {
+                assertThat(delta.getFromVersion()).isEqualTo(4L);
+                assertThat(delta.getVersion()).isEqualTo(9L);
+                assertThat(delta.getSeats()).hasSize(1);
+            });
+    }
+
+    @Test
+    void commitVersion_AcknowledgesTheVersionOnceCommitted() {
+        when(seatLockRepository.findActiveLocksByScreening(eq(7L), any(LocalDateTime.class))).thenReturn(List.of());
+        when(screeningRepository.findSeatVersion(7L)).thenReturn(4L);
+        when(seatVersionRepository.next(7L)).thenReturn(5L, 6L);
+        SeatInventory inventory = engine.get(7L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThat(engine.commitVersion(7L)).isEqualTo(5L);
+            assertThat(engine.commitVersion(7L)).isEqualTo(6L);
+            assertThat(inventory.version()).isEqualTo(4L);
+            // Commits of concurrent transactions may be acknowledged in either order.
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.get(1).afterCommit();
+            assertThat(inventory.version()).isEqualTo(4L);
+            synchronizations.get(0).afterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(inventory.version()).isEqualTo(6L);
+        verify(seatVersionRepository, times(2)).next(7L);
+    }
+
+    @Test
+    void evictHall_DropsInventoriesOfThatHallOnly() {
+        when(seatLockRepository.findActiveLocksByScreening(anyLong(), any(LocalDateTime.class))).thenReturn(List.of());
+        Hall otherHall = Hall.builder().id(4L).rowsCount(1).seatsPerRow(1).build();
+        when(screeningRepository.findById(8L)).thenReturn(Optional.of(Screening.builder().id(8L).hall(otherHall).build()));
+        when(seatRepository.findByHallIdAndActiveTrue(4L)).thenReturn(List.of());
+        when(bookingSeatRepository.findActiveSeatsByScreeningId(8L)).thenReturn(List.of());
+        engine.get(7L);
+        engine.get(8L);
+
+        engine.evictHall(3L);
+
+        assertThat(engine.find(7L)).isEmpty();
+        assertThat(engine.find(8L)).isPresent();
+    }
+
+    @Test
+    void reconcile_WhenInSync_KeepsInventory() {
+        when(seatLockRepository.findActiveLocksByScreening(eq(7L), any(LocalDateTime.class))).thenReturn(List.of());
+        SeatInventory original = engine.get(7L);
+        when(seatLockRepository.countActiveLockedSeats(eq(7L), any(LocalDateTime.class))).thenReturn(0L);
+        when(bookingSeatRepository.countActiveSeatsByScreeningId(7L)).thenReturn(0L);
+
+        engine.reconcile();
+        engine.reconcile();
+
+        assertThat(engine.find(7L)).containsSame(original);
+    }
+
+    @Test
+    void onRollback_WhenTransactionRollsBack_UndoesChange() {
+        when(seatLockRepository.findActiveLocksByScreening(eq(7L), any(LocalDateTime.class))).thenReturn(List.of());
+        SeatInventory inventory = engine.get(7L);
+        LocalDateTime now = LocalDateTime.now();
+        SeatHold hold = new SeatHold("session-1", null, now.plusMinutes(5));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            SeatClaim claim = inventory.claim(42L, hold, now);
+            engine.onRollback(() -> inventory.revert(42L, hold, claim.previous()));
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(inventory.activeHold(42L, now)).isNull();
+    }
+}
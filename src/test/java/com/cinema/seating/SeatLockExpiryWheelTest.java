@@ -0,0 +1,60 @@
+package com.cinema.seating;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeatLockExpiryWheelTest {
+
+    private final SeatLockExpiryWheel wheel = new SeatLockExpiryWheel(1000, 8);
+    private final LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Test
+    void advance_ReturnsOnlyExpiriesThatCameDue() {
+        wheel.advance(start);
+        SeatLockExpiry soon = new SeatLockExpiry(7L, 1L, start.plusSeconds(2));
+        SeatLockExpiry later = new SeatLockExpiry(7L, 2L, start.plusSeconds(5));
+        wheel.schedule(soon);
+        wheel.schedule(later);
+
+        assertThat(wheel.advance(start.plusSeconds(1))).isEmpty();
+        assertThat(wheel.advance(start.plusSeconds(2))).containsExactly(soon);
+        assertThat(wheel.advance(start.plusSeconds(6))).containsExactly(later);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advance_KeepsDeadlinesBeyondOneRevolution() {
+        wheel.advance(start);
+        SeatLockExpiry farAway = new SeatLockExpiry(7L, 1L, start.plusSeconds(20));
+        wheel.schedule(farAway);
+
+        for (int second = 1; second < 20; second++) {
+            assertThat(wheel.advance(start.plusSeconds(second))).isEmpty();
+        }
+        assertThat(wheel.advance(start.plusSeconds(20))).containsExactly(farAway);
+    }
+
+    @Test
+    void schedule_WhenDeadlineAlreadyPassed_FiresOnNextAdvance() {
+        wheel.advance(start);
+        SeatLockExpiry overdue = new SeatLockExpiry(7L, 1L, start.minusMinutes(3));
+
+        wheel.schedule(overdue);
+
+        assertThat(wheel.advance(start.plusSeconds(1))).containsExactly(overdue);
+    }
+
+    @Test
+    void advance_AfterLongPause_CatchesUpOnEverySlot() {
+        wheel.advance(start);
+        SeatLockExpiry first = new SeatLockExpiry(7L, 1L, start.plusSeconds(3));
+        SeatLockExpiry second = new SeatLockExpiry(8L, 2L, start.plusSeconds(30));
+        wheel.schedule(first);
+        wheel.schedule(second);
+
+        assertThat(wheel.advance(start.plusMinutes(5))).containsExactlyInAnyOrder(first, second);
+    }
+}
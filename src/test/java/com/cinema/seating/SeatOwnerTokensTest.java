@@ -0,0 +1,30 @@
+package com.cinema.seating;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeatOwnerTokensTest {
+
+    @Test
+    void of_SameKey_DerivesTheSameTokenOnEveryNode() {
+        String first = new SeatOwnerTokens("shared-key").of("session-1");
+        String second = new SeatOwnerTokens("shared-key").of("session-1");
+
+        assertThat(first).isEqualTo(second);
+        assertThat(first).doesNotContain("session-1");
+    }
+
+    @Test
+    void of_DifferentSessionsOrKeys_DeriveDifferentTokens() {
+        SeatOwnerTokens tokens = new SeatOwnerTokens("shared-key");
+
+        assertThat(tokens.of("session-1")).isNotEqualTo(tokens.of("session-2"));
+        assertThat(tokens.of("session-1")).isNotEqualTo(new SeatOwnerTokens("other-key").of("session-1"));
+    }
+
+    @Test
+    void of_NoSession_HasNoToken() {
+        assertThat(new SeatOwnerTokens("shared-key").of(null)).isNull();
+    }
+}
@@ -0,0 +1,86 @@
+package com.cinema.seating;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeatSubscriptionRegistryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SeatSubscriptionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new SeatSubscriptionRegistry(meterRegistry);
+    }
+
+    @Test
+    void onSubscribe_CountsSeatTopicsOnly() {
+        registry.onSubscribe(new SessionSubscribeEvent(this, frame(StompCommand.SUBSCRIBE, "ws-1", "sub-0", "/topic/screenings/7/seats")));
+        registry.onSubscribe(new SessionSubscribeEvent(this, frame(StompCommand.SUBSCRIBE, "ws-2", "sub-0", "/topic/screenings/7/seats/compact")));
+        registry.onSubscribe(new SessionSubscribeEvent(this, frame(StompCommand.SUBSCRIBE, "ws-2", "sub-1", "/topic/screenings/9/seats")));
+        registry.onSubscribe(new SessionSubscribeEvent(this, frame(StompCommand.SUBSCRIBE, "ws-3", "sub-0", "/topic/news")));
+
+        assertThat(registry.subscriberCounts()).isEqualTo(Map.of(7L, 2, 9L, 1));
+        assertThat(meterRegistry.get("seating.subscribers").gauge().value()).isEqualTo(3);
+        assertThat(meterRegistry.get("seating.subscribed.screenings").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void onUnsubscribe_DropsScreeningWhenLastSubscriberLeaves() {
+        registry.onSubscribe(new SessionSubscribeEvent(this, frame(StompCommand.SUBSCRIBE, "ws-1", "sub-0", "/topic/screenings/7/seats")));
+
+        registry.onUnsubscribe(new SessionUnsubscribeEvent(this, frame(StompCommand.UNSUBSCRIBE, "ws-1", "sub-0", null)));
+
+        assertThat(registry.hasSubscribers(7L)).isFalse();
+        assertThat(registry.subscriberCounts()).isEmpty();
+    }
+
+    @Test
+    void onDisconnect_ReleasesEverySubscriptionOfTheSession() {
+        registry.subscribe("ws-1", "sub-0", 7L);
+        registry.subscribe("ws-1", "sub-1", 9L);
+        registry.subscribe("ws-2", "sub-0", 7L);
+
+        SessionDisconnectEvent disconnect = new SessionDisconnectEvent(this,
+            frame(StompCommand.DISCONNECT, "ws-1", null, null), "ws-1", CloseStatus.NORMAL);
+        registry.onDisconnect(disconnect);
+        registry.onDisconnect(disconnect);
+
+        assertThat(registry.subscriberCounts()).isEqualTo(Map.of(7L, 1));
+        assertThat(registry.totalSubscribers()).isEqualTo(1);
+    }
+
+    @Test
+    void subscribe_WhenSubscriptionIdIsReused_MovesTheSubscription() {
+        registry.subscribe("ws-1", "sub-0", 7L);
+        registry.subscribe("ws-1", "sub-0", 9L);
+
+        assertThat(registry.subscriberCounts()).isEqualTo(Map.of(9L, 1));
+    }
+
+    private Message<byte[]> frame(StompCommand command, String sessionId, String subscriptionId, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(sessionId);
+        if (subscriptionId != null) {
+            accessor.setSubscriptionId(subscriptionId);
+        }
+        if (destination != null) {
+            accessor.setDestination(destination);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -2,6 +2,7 @@ package com.cinema.service;
 
 import com.cinema.dto.BookingDTO;
 import com.cinema.entity.Booking;
+import com.cinema.entity.BookingSeat;
 import com.cinema.entity.Screening;
 import com.cinema.entity.Seat;
 import com.cinema.entity.TicketType;
@@ -19,6 +20,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -62,6 +64,15 @@ class BookingServiceTest {
     @Mock
     private SeatReservationService seatReservationService;
 
+    @Mock
+    private ScreeningSeatCounter screeningSeatCounter;
+
+    @Mock
+    private QrCodeService qrCodeService;
+
+    @Spy
+    private BookingNumberGenerator bookingNumberGenerator = new SnowflakeBookingNumberGenerator(0);
+
     @InjectMocks
     private BookingService bookingService;
 
@@ -129,7 +140,7 @@ class BookingServiceTest {
         given(bookingRepository.findById(1L)).willReturn(Optional.of(testBooking));
 
         // When
-        BookingDTO result = bookingService.getBookingById(1L);
+        BookingDTO result = bookingService.getBookingById(1L, "testuser", false);
 
         // Then
         assertThat(result.getId()).isEqualTo(1L);
@@ -141,7 +152,7 @@ class BookingServiceTest {
         given(bookingRepository.findById(1L)).willReturn(Optional.of(testBooking));
 
         // When
-        BookingDTO result = bookingService.getBookingById(1L);
+        BookingDTO result = bookingService.getBookingById(1L, "testuser", false);
 
         // Then
         assertThat(result.getUserId()).isEqualTo(testUser.getId());
@@ -154,11 +165,22 @@ class BookingServiceTest {
         given(bookingRepository.findById(999L)).willReturn(Optional.empty());
 
         // When & Then
-        assertThatThrownBy(() -> bookingService.getBookingById(999L))
+        assertThatThrownBy(() -> bookingService.getBookingById(999L, "testuser", false))
             .isInstanceOf(ResourceNotFoundException.class)
             .hasMessageContaining("Booking");
     }
 
+    @Test
+    void getBookingById_OwnedByAnotherUser_ThrowsResourceNotFoundException() {
+        // Given
+        given(bookingRepository.findById(1L)).willReturn(Optional.of(testBooking));
+
+        // When & Then
+        assertThatThrownBy(() -> bookingService.getBookingById(1L, "mallory", false))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("id");
+    }
+
     // ========== getBookingByBookingNumber Tests ==========
 
     @Test
@@ -169,7 +191,43 @@ class BookingServiceTest {
             .willReturn(Optional.of(testBooking));
 
         // When
-        BookingDTO result = bookingService.getBookingByBookingNumber(bookingNumber);
+        BookingDTO result = bookingService.getBookingByBookingNumber(bookingNumber, "testuser", false);
+
+        // Then
+        assertThat(result.getId()).isEqualTo(1L);
+    }
+
+    @Test
+    void getBookingByBookingNumber_UnguessableNumberWithoutLogin_ReturnsBookingDTO() {
+        // Given
+        given(bookingRepository.findByBookingNumber(testBooking.getBookingNumber())).willReturn(Optional.of(testBooking));
+
+        // When
+        BookingDTO result = bookingService.getBookingByBookingNumber(testBooking.getBookingNumber(), null, false);
+
+        // Then
+        assertThat(result.getId()).isEqualTo(1L);
+    }
+
+    @Test
+    void getBookingByBookingNumber_GuessableNumberOwnedByAnotherUser_ThrowsResourceNotFoundException() {
+        // Given
+        testBooking.setBookingNumber("0AB1CD2EFG3H1");
+        given(bookingRepository.findByBookingNumber("BK123456")).willReturn(Optional.of(testBooking));
+
+        // When & Then
+        assertThatThrownBy(() -> bookingService.getBookingByBookingNumber("BK123456", "mallory", false))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("bookingNumber");
+    }
+
+    @Test
+    void getBookingByBookingNumber_AsAdmin_ReturnsAnyBooking() {
+        // Given
+        given(bookingRepository.findByBookingNumber("BK123456")).willReturn(Optional.of(testBooking));
+
+        // When
+        BookingDTO result = bookingService.getBookingByBookingNumber("BK123456", "admin", true);
 
         // Then
         assertThat(result.getId()).isEqualTo(1L);
@@ -183,11 +241,76 @@ class BookingServiceTest {
             .willReturn(Optional.empty());
 
         // When & Then
-        assertThatThrownBy(() -> bookingService.getBookingByBookingNumber(nonExistingNumber))
+        assertThatThrownBy(() -> bookingService.getBookingByBookingNumber(nonExistingNumber, "testuser", false))
             .isInstanceOf(ResourceNotFoundException.class)
             .hasMessageContaining("bookingNumber");
     }
 
+    @Test
+    void getBookingByBookingNumber_TypedWithAmbiguousLetters_ResolvesCanonicalNumber() {
+        // Given
+        given(bookingRepository.findByBookingNumber("0ab1-cd2e-fg3hi")).willReturn(Optional.empty());
+        given(bookingRepository.findByBookingNumber("0AB1CD2EFG3H1")).willReturn(Optional.of(testBooking));
+
+        // When
+        BookingDTO result = bookingService.getBookingByBookingNumber("0ab1-cd2e-fg3hi", "testuser", false);
+
+        // Then
+        assertThat(result.getId()).isEqualTo(1L);
+    }
+
+    // ========== getBookingQrCode Tests ==========
+
+    @Test
+    void getBookingQrCode_OwnBooking_RendersStoredBookingNumber() {
+        // Given
+        byte[] png = {1, 2, 3};
+        given(bookingRepository.findByBookingNumber("BK123456")).willReturn(Optional.of(testBooking));
+        given(qrCodeService.renderPng(testBooking.getBookingNumber(), 200)).willReturn(png);
+
+        // When
+        byte[] result = bookingService.getBookingQrCode("BK123456", 200, "testuser", false);
+
+        // Then
+        assertThat(result).isSameAs(png);
+    }
+
+    @Test
+    void getBookingQrCode_CancelledBooking_ThrowsIllegalStateEvenWhenCached() {
+        // Given
+        testBooking.setStatus(Booking.BookingStatus.CANCELLED);
+        given(bookingRepository.findByBookingNumber("BK123456")).willReturn(Optional.of(testBooking));
+
+        // When & Then
+        assertThatThrownBy(() -> bookingService.getBookingQrCode("BK123456", null, "testuser", false))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("no valid ticket");
+        then(qrCodeService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void getBookingQrCode_GuessableNumberOwnedByAnotherUser_ThrowsResourceNotFoundException() {
+        // Given
+        testBooking.setBookingNumber("0AB1CD2EFG3H1");
+        given(bookingRepository.findByBookingNumber("BK123456")).willReturn(Optional.of(testBooking));
+
+        // When & Then
+        assertThatThrownBy(() -> bookingService.getBookingQrCode("BK123456", null, "mallory", false))
+            .isInstanceOf(ResourceNotFoundException.class);
+        then(qrCodeService).should(never()).renderPng(any(), any());
+    }
+
+    @Test
+    void getBookingQrCode_UnknownNumber_ThrowsResourceNotFoundException() {
+        // Given
+        given(bookingRepository.findByBookingNumber("BK999999")).willReturn(Optional.empty());
+
+        // When & Then
+        assertThatThrownBy(() -> bookingService.getBookingQrCode("BK999999", null, "testuser", false))
+            .isInstanceOf(ResourceNotFoundException.class);
+        then(qrCodeService).should(never()).renderPng(any(), any());
+    }
+
     // ========== getBookingsByUser Tests ==========
 
     @Test
@@ -585,6 +708,32 @@ class BookingServiceTest {
         assertThat(result.getStatus()).isEqualTo("CANCELLED");
     }
 
+    @Test
+    void cancelBooking_ConfirmedBooking_RecordsSeatsBeforeCancellation() {
+        // Given
+        Booking confirmedBooking = EntityFixtures.bookingBuilder()
+            .id(1L)
+            .status(Booking.BookingStatus.CONFIRMED)
+            .user(testUser)
+            .screening(testScreening)
+            .build();
+        confirmedBooking.getBookingSeats().add(BookingSeat.builder()
+            .booking(confirmedBooking)
+            .seat(testSeat)
+            .ticketType(testTicketType)
+            .seatStatus(BookingSeat.SeatStatus.OCCUPIED)
+            .build());
+
+        given(bookingRepository.findById(1L)).willReturn(Optional.of(confirmedBooking));
+        given(bookingRepository.save(any(Booking.class))).willReturn(confirmedBooking);
+
+        // When
+        bookingService.cancelBooking(1L, "User request");
+
+        // Then
+        then(screeningSeatCounter).should().record(confirmedBooking, new ScreeningSeatCounter.SeatCounts(1, 0));
+    }
+
     @Test
     void cancelBooking_AlreadyCancelledBooking_ThrowsIllegalStateException() {
         // Given
@@ -638,19 +787,21 @@ class BookingServiceTest {
     @Test
     void deleteBooking_ExistingBooking_CallsRepositoryDelete() {
         // Given
-        given(bookingRepository.existsById(1L)).willReturn(true);
+        given(bookingRepository.findById(1L)).willReturn(Optional.of(testBooking));
 
         // When
         bookingService.deleteBooking(1L);
 
         // Then
+        then(screeningSeatCounter).should().recordRemoval(testBooking);
+        then(seatReservationService).should().releaseBookingSeats(testBooking);
         then(bookingRepository).should(times(1)).deleteById(1L);
     }
 
     @Test
     void deleteBooking_NonExistingBooking_ThrowsResourceNotFoundException() {
         // Given
-        given(bookingRepository.existsById(999L)).willReturn(false);
+        given(bookingRepository.findById(999L)).willReturn(Optional.empty());
 
         // When & Then
         assertThatThrownBy(() -> bookingService.deleteBooking(999L))
@@ -660,7 +811,7 @@ class BookingServiceTest {
     @Test
     void deleteBooking_NonExistingBooking_DoesNotCallRepositoryDelete() {
         // Given
-        given(bookingRepository.existsById(999L)).willReturn(false);
+        given(bookingRepository.findById(999L)).willReturn(Optional.empty());
 
         // When & Then
         try {
@@ -0,0 +1,276 @@
+package com.cinema.service;
+
+import com.cinema.dto.CartItemResponse;
+import com.cinema.dto.CheckoutResponse;
+import com.cinema.entity.CheckoutIdempotencyKey;
+import com.cinema.entity.CheckoutIdempotencyKey.IdempotencyStatus;
+import com.cinema.entity.CheckoutIdempotencyKey.Key;
+import com.cinema.entity.TicketTypeName;
+import com.cinema.exception.DuplicateResourceException;
+import com.cinema.repository.CheckoutIdempotencyKeyRepository;
+import com.cinema.repository.jdbc.CheckoutIdempotencyKeyJdbcRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+class CheckoutIdempotencyServiceTest {
+
+    private static final String KEY = "retry-1";
+    private static final String USERNAME = "jane";
+    private static final Long SCREENING_ID = 7L;
+
+    @Mock
+    private CheckoutIdempotencyKeyRepository repository;
+
+    @Mock
+    private CheckoutIdempotencyKeyJdbcRepository claims;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private CheckoutIdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CheckoutIdempotencyService(repository, claims, objectMapper, new SimpleMeterRegistry(), 60, 300, 100);
+    }
+
+    @Test
+    void execute_RepeatedKey_RunsCheckoutOnceAndReplaysResponse() {
+        given(repository.findById(new Key(USERNAME, KEY))).willReturn(Optional.empty());
+        givenClaimSucceeds();
+        AtomicInteger runs = new AtomicInteger();
+
+        CheckoutResponse first = service.execute(KEY, USERNAME, SCREENING_ID, () -> {
+            runs.incrementAndGet();
+            return response();
+        });
+        CheckoutResponse second = service.execute(KEY, USERNAME, SCREENING_ID, () -> {
+            runs.incrementAndGet();
+            return response();
+        });
+
+        assertThat(runs).hasValue(1);
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void execute_KeyStoredByAnotherNode_ReplaysFromDatabase() throws Exception {
+        given(repository.findById(new Key(USERNAME, KEY))).willReturn(Optional.of(CheckoutIdempotencyKey.builder()
+            .idempotencyKey(KEY)
+            .username(USERNAME)
+            .screeningId(SCREENING_ID)
+            .status(IdempotencyStatus.COMPLETED)
+            .response(objectMapper.writeValueAsString(response()))
+            .createdAt(LocalDateTime.now())
+            .expiresAt(LocalDateTime.now().plusMinutes(5))
+            .build()));
+
+        CheckoutResponse replay = service.execute(KEY, USERNAME, SCREENING_ID, () -> {
+            throw new AssertionError("checkout must not run again");
+        });
+
+        assertThat(replay.getPaymentReference()).isEqualTo("PAY-1");
+        assertThat(replay.getItems()).singleElement().satisfies(item ->
+            assertThat(item.getTicketType()).isEqualTo(TicketTypeName.STANDARD));
+        assertThat(replay.getQrCodeUrl()).isEqualTo("/api/v1/bookings/number/BOOK-1/qr");
+    }
+
+    @Test
+    void execute_ExpiredKey_RunsCheckoutAgain() throws Exception {
+        given(repository.findById(new Key(USERNAME, KEY))).willReturn(Optional.of(CheckoutIdempotencyKey.builder()
+            .idempotencyKey(KEY)
+            .username(USERNAME)
+            .screeningId(SCREENING_ID)
+            .status(IdempotencyStatus.COMPLETED)
+            .response(objectMapper.writeValueAsString(response()))
+            .createdAt(LocalDateTime.now().minusHours(2))
+            .expiresAt(LocalDateTime.now().minusHours(1))
+            .build()));
+        givenClaimSucceeds();
+
+        AtomicInteger runs = new AtomicInteger();
+
+        service.execute(KEY, USERNAME, SCREENING_ID, () -> {
+            runs.incrementAndGet();
+            return response();
+        });
+
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void execute_SameKeyOfAnotherUser_RunsItsOwnCheckout() {
+        given(repository.findById(new Key(USERNAME, KEY))).willReturn(Optional.empty());
+        given(repository.findById(new Key("john", KEY))).willReturn(Optional.empty());
+        givenClaimSucceeds();
+        given(claims.claim(eq(KEY), eq("john"), eq(SCREENING_ID), any(LocalDateTime.class), any(LocalDateTime.class)))
+            .willReturn(true);
+        AtomicInteger runs = new AtomicInteger();
+
+        service.execute(KEY, USERNAME, SCREENING_ID, () -> {
+            runs.incrementAndGet();
+            return response();
+        });
+        service.execute(KEY, "john", SCREENING_ID, () -> {
+            runs.incrementAndGet();
+            return response();
+        });
+
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    void execute_KeyReusedForAnotherScreening_ThrowsIllegalArgumentException() {
+        given(repository.findById(new Key(USERNAME, KEY))).willReturn(Optional.empty());
+        givenClaimSucceeds();
+        service.execute(KEY, USERNAME, SCREENING_ID, this::response);
+
+        assertThatThrownBy(() -> service.execute(KEY, USERNAME, 8L, this::response))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining(KEY);
+    }
+
+    @Test
+    void execute_WhileFirstRequestRuns_WaitsForItsResponse() throws Exception {
+        given(repository.findById(new Key(USERNAME, KEY))).willReturn(Optional.empty());
+        givenClaimSucceeds();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        CompletableFuture<CheckoutResponse> first = CompletableFuture.supplyAsync(() ->
+            service.execute(KEY, USERNAME, SCREENING_ID, () -> {
+                runs.incrementAndGet();
+                started.countDown();
+                await(release);
+                return response();
+            }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<CheckoutResponse> second = CompletableFuture.supplyAsync(() ->
+            service.execute(KEY, USERNAME, SCREENING_ID, () -> {
+                runs.incrementAndGet();
+                return response();
+            }));
+        release.countDown();
+
+        assertThat(second.get(5, TimeUnit.SECONDS).getBookingNumber()).isEqualTo("BOOK-1");
+        assertThat(first.get(5, TimeUnit.SECONDS).getBookingNumber()).isEqualTo("BOOK-1");
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void execute_WhenCheckoutFails_LetsTheKeyBeRetried() {
+        given(repository.findById(new Key(USERNAME, KEY))).willReturn(Optional.empty());
+        givenClaimSucceeds();
+
+        assertThatThrownBy(() -> service.execute(KEY, USERNAME, SCREENING_ID, () -> {
+            throw new IllegalStateException("Cannot finalize checkout with an empty cart");
+        })).isInstanceOf(IllegalStateException.class);
+
+        then(claims).should().release(KEY, USERNAME);
+        assertThat(service.execute(KEY, USERNAME, SCREENING_ID, this::response).getBookingNumber()).isEqualTo("BOOK-1");
+    }
+
+    @Test
+    void execute_KeyClaimedOnAnotherNode_ThrowsConflictWhileItRuns() {
+        given(repository.findById(new Key(USERNAME, KEY))).willReturn(Optional.of(CheckoutIdempotencyKey.builder()
+            .idempotencyKey(KEY)
+            .username(USERNAME)
+            .screeningId(SCREENING_ID)
+            .status(IdempotencyStatus.PENDING)
+            .createdAt(LocalDateTime.now())
+            .expiresAt(LocalDateTime.now().plusMinutes(5))
+            .build()));
+
+        assertThatThrownBy(() -> service.execute(KEY, USERNAME, SCREENING_ID, () -> {
+            throw new AssertionError("checkout must not run twice");
+        })).isInstanceOf(DuplicateResourceException.class)
+            .hasMessageContaining("still in progress");
+        then(claims).should(never()).release(any(), any());
+    }
+
+    @Test
+    void record_CompletesClaimedKeyWithResponse() throws Exception {
+        CheckoutResponse response = response();
+        given(claims.complete(eq(KEY), eq(USERNAME), any(String.class), any(LocalDateTime.class))).willReturn(true);
+
+        service.record(KEY, USERNAME, SCREENING_ID, response);
+
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<LocalDateTime> expiresAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        then(claims).should().complete(eq(KEY), eq(USERNAME), json.capture(), expiresAt.capture());
+        assertThat(expiresAt.getValue()).isAfter(LocalDateTime.now().plusMinutes(59));
+        CheckoutResponse restored = objectMapper.readValue(json.getValue(), CheckoutResponse.class);
+        assertThat(restored).isEqualTo(response);
+    }
+
+    @Test
+    void record_WhenClaimWasLost_ThrowsIllegalState() {
+        given(claims.complete(eq(KEY), eq(USERNAME), any(String.class), any(LocalDateTime.class))).willReturn(false);
+
+        assertThatThrownBy(() -> service.record(KEY, USERNAME, SCREENING_ID, response()))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining(KEY);
+    }
+
+    @Test
+    void purgeExpired_DeletesLapsedKeys() {
+        given(repository.deleteExpired(any(LocalDateTime.class))).willReturn(3);
+
+        service.purgeExpired();
+
+        then(repository).should().deleteExpired(any(LocalDateTime.class));
+    }
+
+    private void givenClaimSucceeds() {
+        given(claims.claim(eq(KEY), eq(USERNAME), eq(SCREENING_ID), any(LocalDateTime.class), any(LocalDateTime.class)))
+            .willReturn(true);
+    }
+
+    private CheckoutResponse response() {
+        return CheckoutResponse.builder()
+            .bookingNumber("BOOK-1")
+            .paymentReference("PAY-1")
+            .totalPrice(25.0)
+            .items(List.of(CartItemResponse.builder()
+                .seatId(101L)
+                .rowNumber(1)
+                .seatNumber(4)
+                .ticketType(TicketTypeName.STANDARD)
+                .ticketTypeId(3L)
+                .price(25.0)
+                .lockExpiresAt(LocalDateTime.now().plusMinutes(5))
+                .build()))
+            .qrCodeUrl("/api/v1/bookings/number/BOOK-1/qr")
+            .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -21,6 +21,8 @@ import com.cinema.repository.SeatLockRepository;
 import com.cinema.repository.SeatRepository;
 import com.cinema.repository.TicketTypeRepository;
 import com.cinema.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -29,17 +31,25 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.never;
 
 @ExtendWith(MockitoExtension.class)
 class CheckoutServiceTest {
@@ -66,9 +76,17 @@ class CheckoutServiceTest {
     private SeatReservationService seatReservationService;
     @Mock
     private QrCodeService qrCodeService;
+    @Mock
+    private ScreeningSeatCounter screeningSeatCounter;
 
     @Spy
     private SessionCart sessionCart = new SessionCart();
+    @Mock
+    private CheckoutIdempotencyService checkoutIdempotencyService;
+    @Spy
+    private BookingNumberGenerator bookingNumberGenerator = new SnowflakeBookingNumberGenerator(0);
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private CheckoutService checkoutService;
@@ -132,35 +150,100 @@ class CheckoutServiceTest {
     @Test
     void finalizeCheckout_WithValidCart_PersistsBookingAndReturnsQr() {
         stubCartAndEntities();
-        stubSeatLocks();
-
-        ArgumentCaptor<Booking> bookingCaptor = ArgumentCaptor.forClass(Booking.class);
-        given(bookingRepository.save(bookingCaptor.capture())).willAnswer(invocation -> {
-            Booking saved = invocation.getArgument(0);
-            saved.setId(200L);
-            saved.setBookingNumber("BOOK-001");
-            saved.setPaymentReference("PAY-XYZ");
-            return saved;
-        });
-        given(qrCodeService.generateBookingCode("BOOK-001")).willReturn("qr-base64");
+        SeatLock lock = activeSeatLock();
+        stubSeatLocks(lock);
+        ArgumentCaptor<Booking> bookingCaptor = stubSavedBooking(200L, "BOOK-001");
 
         // When
         CheckoutResponse response = checkoutService.finalizeCheckout(SCREENING_ID, checkoutRequest, SESSION_ID, USERNAME);
 
         // Then
         assertThat(response.getBookingNumber()).isEqualTo("BOOK-001");
-        assertThat(response.getQrCodeImage()).isEqualTo("qr-base64");
+        assertThat(response.getQrCodeUrl()).isEqualTo("/api/v1/bookings/number/BOOK-001/qr");
+        then(qrCodeService).should().prerenderAfterCommit("BOOK-001");
         assertThat(sessionCart.getItems()).isEmpty();
         assertThat(response.getItems()).hasSize(1);
 
         Booking persisted = bookingCaptor.getValue();
-        assertThat(persisted.getBookingSeats()).hasSize(1);
-        BookingSeat reservedSeat = persisted.getBookingSeats().iterator().next();
-        assertThat(reservedSeat.getSeatStatus()).isEqualTo(BookingSeat.SeatStatus.OCCUPIED);
-        assertThat(reservedSeat.getTicketType().getId()).isEqualTo(ticketType.getId());
+        assertThat(persisted.getBookingSeats()).singleElement().satisfies(reserved -> {
+            assertThat(reserved.getSeatStatus()).isEqualTo(BookingSeat.SeatStatus.OCCUPIED);
+            assertThat(reserved.getSeat()).isSameAs(seat);
+            assertThat(reserved.getTicketType().getId()).isEqualTo(ticketType.getId());
+            assertThat(reserved.getBooking()).isSameAs(persisted);
+        });
+        then(seatReservationService).should().releaseLocks(eq(SCREENING_ID), argThat(locks -> locks.contains(lock)));
+        then(seatReservationService).should().syncBookingSeats(persisted);
+        then(screeningSeatCounter).should().record(persisted, ScreeningSeatCounter.SeatCounts.NONE);
+    }
+
+    @Test
+    void finalizeCheckout_WithIdempotencyKey_RecordsResponseWithBooking() {
+        stubCartAndEntities();
+        stubSeatLocks(activeSeatLock());
+        stubSavedBooking(203L, "BOOK-KEY");
+
+        CheckoutResponse response = checkoutService.finalizeCheckout(SCREENING_ID, checkoutRequest, SESSION_ID, USERNAME, "retry-1");
+
+        then(checkoutIdempotencyService).should().record("retry-1", USERNAME, SCREENING_ID, response);
+    }
+
+    @Test
+    void finalizeCheckout_InTransaction_ClearsCartOnlyAfterCommit() {
+        stubCartAndEntities();
+        stubSeatLocks(activeSeatLock());
+        stubSavedBooking(204L, "BOOK-TX");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            checkoutService.finalizeCheckout(SCREENING_ID, checkoutRequest, SESSION_ID, USERNAME, "retry-2");
+
+            assertThat(sessionCart.getItems()).isNotEmpty();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(sessionCart.getItems()).isEmpty();
+    }
+
+    @Test
+    void finalizeCheckout_WhenRecordingTheKeyFails_KeepsCart() {
+        stubCartAndEntities();
+        stubSeatLocks(activeSeatLock());
+        stubSavedBooking(205L, "BOOK-LOST");
+        willThrow(new IllegalStateException("Idempotency key retry-3 is no longer claimed by this checkout"))
+            .given(checkoutIdempotencyService).record(eq("retry-3"), eq(USERNAME), eq(SCREENING_ID), any());
+
+        assertThatThrownBy(() -> checkoutService.finalizeCheckout(SCREENING_ID, checkoutRequest, SESSION_ID, USERNAME, "retry-3"))
+            .isInstanceOf(IllegalStateException.class);
+        assertThat(sessionCart.getItems()).isNotEmpty();
+    }
 
-        then(seatReservationService).should().releaseAll(SCREENING_ID, SESSION_ID);
-        then(seatReservationService).should().broadcastSeatMap(SCREENING_ID);
+    @Test
+    void finalizeCheckout_LoadsEntitiesInBulkAndTimesEachStage() {
+        Seat secondSeat = EntityFixtures.createStandardSeat();
+        secondSeat.setId(102L);
+        sessionCart.getItems().put(secondSeat.getId(), CartItem.builder()
+            .seatId(secondSeat.getId())
+            .ticketTypeId(ticketType.getId())
+            .price(ticketType.getPriceModifier())
+            .build());
+        stubCartAndEntities();
+        given(seatLockRepository.findActiveLocksForOwner(eq(SCREENING_ID), eq(SESSION_ID), eq(USERNAME), any(LocalDateTime.class)))
+            .willReturn(List.of(activeSeatLock(), lockOf(secondSeat)));
+        given(seatRepository.findAllById(List.of(seat.getId(), secondSeat.getId()))).willReturn(List.of(seat, secondSeat));
+        given(ticketTypeRepository.findAllById(Set.of(ticketType.getId()))).willReturn(List.of(ticketType));
+        stubSavedBooking(202L, "BOOK-BULK");
+
+        checkoutService.finalizeCheckout(SCREENING_ID, checkoutRequest, SESSION_ID, USERNAME);
+
+        then(seatRepository).should(never()).findById(any());
+        then(ticketTypeRepository).should(never()).findById(any());
+        then(seatLockRepository).shouldHaveNoMoreInteractions();
+        assertThat(meterRegistry.find("checkout.stage").timers())
+            .extracting(timer -> timer.getId().getTag("stage"))
+            .containsExactlyInAnyOrder("cart", "load", "persist", "inventory", "confirm");
+        assertThat(meterRegistry.get("checkout.seats").summary().totalAmount()).isEqualTo(2.0);
     }
 
     @Test
@@ -172,7 +255,7 @@ class CheckoutServiceTest {
 
     @Test
     void finalizeCheckout_WhenCartEmpty_ThrowsIllegalStateException() {
-        given(cartService.getCart(SCREENING_ID, SESSION_ID, USERNAME)).willReturn(CartResponse.builder()
+        given(cartService.reconcile(eq(SCREENING_ID), anyMap())).willReturn(CartResponse.builder()
             .screeningId(SCREENING_ID)
             .items(List.of())
             .subtotal(0.0)
@@ -186,7 +269,6 @@ class CheckoutServiceTest {
     @Test
     void finalizeCheckout_WhenCartBoundToDifferentScreening_ThrowsIllegalStateException() {
         sessionCart.setScreeningId(999L);
-        given(cartService.getCart(SCREENING_ID, SESSION_ID, USERNAME)).willReturn(cartResponse);
 
         assertThatThrownBy(() -> checkoutService.finalizeCheckout(SCREENING_ID, checkoutRequest, SESSION_ID, USERNAME))
             .isInstanceOf(IllegalStateException.class)
@@ -195,7 +277,9 @@ class CheckoutServiceTest {
 
     @Test
     void finalizeCheckout_WhenScreeningMissing_ThrowsResourceNotFoundException() {
-        given(cartService.getCart(SCREENING_ID, SESSION_ID, USERNAME)).willReturn(cartResponse);
+        given(cartService.reconcile(eq(SCREENING_ID), anyMap())).willReturn(cartResponse);
+        given(seatLockRepository.findActiveLocksForOwner(eq(SCREENING_ID), eq(SESSION_ID), eq(USERNAME), any(LocalDateTime.class)))
+            .willReturn(List.of(activeSeatLock()));
         given(screeningRepository.findById(SCREENING_ID)).willReturn(Optional.empty());
 
         assertThatThrownBy(() -> checkoutService.finalizeCheckout(SCREENING_ID, checkoutRequest, SESSION_ID, USERNAME))
@@ -205,7 +289,10 @@ class CheckoutServiceTest {
 
     @Test
     void finalizeCheckout_WhenUserNotFound_ThrowsResourceNotFoundException() {
-        stubCartAndEntities();
+        given(cartService.reconcile(eq(SCREENING_ID), anyMap())).willReturn(cartResponse);
+        given(seatLockRepository.findActiveLocksForOwner(eq(SCREENING_ID), eq(SESSION_ID), eq(USERNAME), any(LocalDateTime.class)))
+            .willReturn(List.of(activeSeatLock()));
+        given(screeningRepository.findById(SCREENING_ID)).willReturn(Optional.of(screening));
         given(userRepository.findByUsername(USERNAME)).willReturn(Optional.empty());
 
         assertThatThrownBy(() -> checkoutService.finalizeCheckout(SCREENING_ID, checkoutRequest, SESSION_ID, USERNAME))
@@ -215,10 +302,8 @@ class CheckoutServiceTest {
 
     @Test
     void finalizeCheckout_WhenSeatLocksMissing_ThrowsIllegalStateException() {
-        stubCartAndEntities();
-        given(seatLockRepository.findActiveLocksForSession(eq(SCREENING_ID), eq(SESSION_ID), any(LocalDateTime.class)))
-            .willReturn(List.of());
-        given(seatLockRepository.findActiveLocksForUsername(eq(SCREENING_ID), eq(USERNAME), any(LocalDateTime.class)))
+        given(cartService.reconcile(eq(SCREENING_ID), anyMap())).willReturn(cartResponse);
+        given(seatLockRepository.findActiveLocksForOwner(eq(SCREENING_ID), eq(SESSION_ID), eq(USERNAME), any(LocalDateTime.class)))
             .willReturn(List.of());
 
         assertThatThrownBy(() -> checkoutService.finalizeCheckout(SCREENING_ID, checkoutRequest, SESSION_ID, USERNAME))
@@ -229,11 +314,10 @@ class CheckoutServiceTest {
     @Test
     void finalizeCheckout_WhenSeatNotFound_ThrowsResourceNotFoundException() {
         stubCartAndEntities();
-        given(seatLockRepository.findActiveLocksForSession(eq(SCREENING_ID), eq(SESSION_ID), any(LocalDateTime.class)))
+        given(seatLockRepository.findActiveLocksForOwner(eq(SCREENING_ID), eq(SESSION_ID), eq(USERNAME), any(LocalDateTime.class)))
             .willReturn(List.of(activeSeatLock()));
-        given(seatLockRepository.findActiveLocksForUsername(eq(SCREENING_ID), eq(USERNAME), any(LocalDateTime.class)))
-            .willReturn(List.of());
-        given(seatRepository.findById(seat.getId())).willReturn(Optional.empty());
+        given(seatRepository.findAllById(List.of(seat.getId()))).willReturn(List.of());
+        given(ticketTypeRepository.findAllById(Set.of(ticketType.getId()))).willReturn(List.of(ticketType));
 
         assertThatThrownBy(() -> checkoutService.finalizeCheckout(SCREENING_ID, checkoutRequest, SESSION_ID, USERNAME))
             .isInstanceOf(ResourceNotFoundException.class)
@@ -243,12 +327,10 @@ class CheckoutServiceTest {
     @Test
     void finalizeCheckout_WhenTicketTypeMissing_ThrowsResourceNotFoundException() {
         stubCartAndEntities();
-        given(seatLockRepository.findActiveLocksForSession(eq(SCREENING_ID), eq(SESSION_ID), any(LocalDateTime.class)))
+        given(seatLockRepository.findActiveLocksForOwner(eq(SCREENING_ID), eq(SESSION_ID), eq(USERNAME), any(LocalDateTime.class)))
             .willReturn(List.of(activeSeatLock()));
-        given(seatLockRepository.findActiveLocksForUsername(eq(SCREENING_ID), eq(USERNAME), any(LocalDateTime.class)))
-            .willReturn(List.of());
-        given(seatRepository.findById(seat.getId())).willReturn(Optional.of(seat));
-        given(ticketTypeRepository.findById(ticketType.getId())).willReturn(Optional.empty());
+        given(seatRepository.findAllById(List.of(seat.getId()))).willReturn(List.of(seat));
+        given(ticketTypeRepository.findAllById(Set.of(ticketType.getId()))).willReturn(List.of());
 
         assertThatThrownBy(() -> checkoutService.finalizeCheckout(SCREENING_ID, checkoutRequest, SESSION_ID, USERNAME))
             .isInstanceOf(ResourceNotFoundException.class)
@@ -258,18 +340,10 @@ class CheckoutServiceTest {
     @Test
     void finalizeCheckout_WithBlankEmail_FallsBackToUserEmail() {
         stubCartAndEntities();
-        stubSeatLocks();
+        stubSeatLocks(activeSeatLock());
         CheckoutRequest blankEmailRequest = new CheckoutRequest(" ", checkoutRequest.customerPhone(), checkoutRequest.cardholderName(), checkoutRequest.paymentMethod());
 
-        ArgumentCaptor<Booking> bookingCaptor = ArgumentCaptor.forClass(Booking.class);
-        given(bookingRepository.save(bookingCaptor.capture())).willAnswer(invocation -> {
-            Booking saved = invocation.getArgument(0);
-            saved.setId(201L);
-            saved.setBookingNumber("BOOK-EMAIL");
-            saved.setPaymentReference("PAY-EMAIL");
-            return saved;
-        });
-        given(qrCodeService.generateBookingCode("BOOK-EMAIL")).willReturn("qr-email");
+        ArgumentCaptor<Booking> bookingCaptor = stubSavedBooking(201L, "BOOK-EMAIL");
 
         checkoutService.finalizeCheckout(SCREENING_ID, blankEmailRequest, SESSION_ID, USERNAME);
 
@@ -282,23 +356,37 @@ class CheckoutServiceTest {
     }
 
     private void stubCartAndEntities() {
-        given(cartService.getCart(SCREENING_ID, SESSION_ID, USERNAME)).willReturn(cartResponse);
+        given(cartService.reconcile(eq(SCREENING_ID), anyMap())).willReturn(cartResponse);
         given(screeningRepository.findById(SCREENING_ID)).willReturn(Optional.of(screening));
         given(userRepository.findByUsername(USERNAME)).willReturn(Optional.of(user));
     }
 
-    private void stubSeatLocks() {
-        given(seatLockRepository.findActiveLocksForSession(eq(SCREENING_ID), eq(SESSION_ID), any(LocalDateTime.class)))
-            .willReturn(List.of(activeSeatLock()));
-        given(seatLockRepository.findActiveLocksForUsername(eq(SCREENING_ID), eq(USERNAME), any(LocalDateTime.class)))
-            .willReturn(List.of());
-        given(seatRepository.findById(seat.getId())).willReturn(Optional.of(seat));
-        given(ticketTypeRepository.findById(ticketType.getId())).willReturn(Optional.of(ticketType));
+    private void stubSeatLocks(SeatLock lock) {
+        given(seatLockRepository.findActiveLocksForOwner(eq(SCREENING_ID), eq(SESSION_ID), eq(USERNAME), any(LocalDateTime.class)))
+            .willReturn(List.of(lock));
+        given(seatRepository.findAllById(List.of(seat.getId()))).willReturn(List.of(seat));
+        given(ticketTypeRepository.findAllById(Set.of(ticketType.getId()))).willReturn(List.of(ticketType));
+    }
+
+    private ArgumentCaptor<Booking> stubSavedBooking(Long id, String bookingNumber) {
+        ArgumentCaptor<Booking> bookingCaptor = ArgumentCaptor.forClass(Booking.class);
+        given(bookingRepository.saveAndFlush(bookingCaptor.capture())).willAnswer(invocation -> {
+            Booking saved = invocation.getArgument(0);
+            saved.setId(id);
+            saved.setBookingNumber(bookingNumber);
+            saved.setPaymentReference("PAY-" + id);
+            return saved;
+        });
+        return bookingCaptor;
     }
 
     private SeatLock activeSeatLock() {
+        return lockOf(seat);
+    }
+
+    private SeatLock lockOf(Seat lockedSeat) {
         return SeatLock.builder()
-            .seat(seat)
+            .seat(lockedSeat)
             .screening(screening)
             .sessionId(SESSION_ID)
             .expiresAt(LocalDateTime.now().plusMinutes(5))
@@ -1,48 +1,93 @@
 package com.cinema.service;
 
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.MockedStatic;
-import org.mockito.Mockito;
-import org.springframework.test.util.ReflectionTestUtils;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.io.ByteArrayInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 
 class QrCodeServiceTest {
 
+    private SimpleMeterRegistry meterRegistry;
     private QrCodeService qrCodeService;
 
     @BeforeEach
     void setUp() {
-        qrCodeService = new QrCodeService();
-        ReflectionTestUtils.setField(qrCodeService, "qrSize", 120);
+        meterRegistry = new SimpleMeterRegistry();
+        qrCodeService = new QrCodeService(meterRegistry, 120, 2, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        qrCodeService.shutdown();
     }
 
     @Test
-    void generateBookingCode_ReturnsBase64String() {
-        String encoded = qrCodeService.generateBookingCode("BOOK-1");
+    void renderPng_ProducesReadableQrCode() throws Exception {
+        byte[] png = qrCodeService.renderPng("0AB1CD2EFG3H1", null);
 
-        assertThat(encoded).isNotBlank();
-        assertThat(encoded).doesNotContain("\n");
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        assertThat(image.getWidth()).isEqualTo(120);
+        assertThat(image.getHeight()).isEqualTo(120);
+        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(new BufferedImageLuminanceSource(image)));
+        assertThat(new QRCodeReader().decode(bitmap).getText()).isEqualTo("0AB1CD2EFG3H1");
     }
 
     @Test
-    void generateBookingCode_WhenImageWriteFails_ThrowsIllegalState() {
-        try (MockedStatic<ImageIO> mockedImageIo = Mockito.mockStatic(ImageIO.class)) {
-            mockedImageIo.when(() -> ImageIO.write(any(BufferedImage.class), eq("PNG"), any(ByteArrayOutputStream.class)))
-                .thenThrow(new IOException("boom"));
-
-            assertThatThrownBy(() -> qrCodeService.generateBookingCode("BOOK-2"))
-                .isInstanceOf(IllegalStateException.class)
-                .hasMessageContaining("Unable to generate QR code");
+    void renderPng_SameBookingAndSize_ServedFromCache() {
+        byte[] first = qrCodeService.renderPng("BOOK-1", null);
+        byte[] second = qrCodeService.renderPng("BOOK-1", 120);
+
+        assertThat(second).isSameAs(first);
+        assertThat(meterRegistry.counter("ticketing.qr.cache", "result", "hit").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("ticketing.qr.cache", "result", "miss").count()).isEqualTo(1);
+    }
+
+    @Test
+    void renderPng_BeyondCacheSize_EvictsLeastRecentlyUsed() {
+        qrCodeService.renderPng("BOOK-1", null);
+        qrCodeService.renderPng("BOOK-2", null);
+        qrCodeService.renderPng("BOOK-1", null);
+        qrCodeService.renderPng("BOOK-3", null);
+
+        assertThat(qrCodeService.isRendered("BOOK-1", null)).isTrue();
+        assertThat(qrCodeService.isRendered("BOOK-2", null)).isFalse();
+        assertThat(qrCodeService.isRendered("BOOK-3", null)).isTrue();
+        assertThat(meterRegistry.counter("ticketing.qr.cache", "result", "hit").count()).isEqualTo(1);
+    }
+
+    @Test
+    void prerenderAfterCommit_WithoutTransaction_RendersInBackground() throws Exception {
+        qrCodeService.prerenderAfterCommit("BOOK-1");
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!qrCodeService.isRendered("BOOK-1", null) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
         }
+        assertThat(qrCodeService.isRendered("BOOK-1", null)).isTrue();
+    }
+
+    @Test
+    void renderPng_SizeOutOfRange_ThrowsIllegalArgument() {
+        assertThatThrownBy(() -> qrCodeService.renderPng("BOOK-1", 5000))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("size");
+    }
+
+    @Test
+    void renderPng_WhenContentDoesNotFit_ThrowsIllegalState() {
+        assertThatThrownBy(() -> qrCodeService.renderPng("A".repeat(5000), null))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Unable to generate QR code");
     }
 }
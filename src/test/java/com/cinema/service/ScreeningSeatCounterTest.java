@@ -0,0 +1,110 @@
+package com.cinema.service;
+
+import com.cinema.entity.Booking;
+import com.cinema.entity.BookingSeat;
+import com.cinema.entity.Screening;
+import com.cinema.fixtures.EntityFixtures;
+import com.cinema.repository.ScreeningRepository;
+import com.cinema.service.ScreeningSeatCounter.SeatCounts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class ScreeningSeatCounterTest {
+
+    @Mock
+    private ScreeningRepository screeningRepository;
+
+    @InjectMocks
+    private ScreeningSeatCounter screeningSeatCounter;
+
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        Screening screening = EntityFixtures.createUpcomingScreening();
+        screening.setId(7L);
+        booking = EntityFixtures.bookingBuilder().screening(screening).build();
+        booking.getBookingSeats().add(bookingSeat(1L, BookingSeat.SeatStatus.RESERVED));
+        booking.getBookingSeats().add(bookingSeat(2L, BookingSeat.SeatStatus.RESERVED));
+    }
+
+    @Test
+    void record_WhenBookingCreated_AddsHeldSeats() {
+        screeningSeatCounter.record(booking, SeatCounts.NONE);
+
+        then(screeningRepository).should().adjustSeatCounters(7L, 0, 2);
+    }
+
+    @Test
+    void record_WhenBookingConfirmed_MovesSeatsFromHeldToSold() {
+        SeatCounts before = SeatCounts.of(booking);
+        booking.setStatus(Booking.BookingStatus.CONFIRMED);
+        booking.getBookingSeats().forEach(seat -> seat.setSeatStatus(BookingSeat.SeatStatus.OCCUPIED));
+
+        screeningSeatCounter.record(booking, before);
+
+        then(screeningRepository).should().adjustSeatCounters(7L, 2, -2);
+    }
+
+    @Test
+    void record_WhenBookingCancelled_ReleasesItsSeats() {
+        SeatCounts before = SeatCounts.of(booking);
+        booking.setStatus(Booking.BookingStatus.CANCELLED);
+
+        screeningSeatCounter.record(booking, before);
+
+        assertThat(SeatCounts.of(booking)).isEqualTo(SeatCounts.NONE);
+        then(screeningRepository).should().adjustSeatCounters(7L, 0, -2);
+    }
+
+    @Test
+    void record_WhenCountsUnchanged_SkipsUpdate() {
+        screeningSeatCounter.record(booking, SeatCounts.of(booking));
+
+        then(screeningRepository).should(never()).adjustSeatCounters(anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    void recount_WalksUnfinishedScreeningsInBatches() {
+        ReflectionTestUtils.setField(screeningSeatCounter, "recountBatchSize", 2);
+        given(screeningRepository.findUnfinishedIdsAfter(any(LocalDateTime.class), eq(0L), any(Pageable.class)))
+            .willReturn(List.of(3L, 5L));
+        given(screeningRepository.findUnfinishedIdsAfter(any(LocalDateTime.class), eq(5L), any(Pageable.class)))
+            .willReturn(List.of(8L));
+
+        screeningSeatCounter.recount();
+
+        then(screeningRepository).should().recountSeatCounters(List.of(3L, 5L));
+        then(screeningRepository).should().recountSeatCounters(List.of(8L));
+        then(screeningRepository).should(times(2)).findUnfinishedIdsAfter(any(LocalDateTime.class), anyLong(), any(Pageable.class));
+    }
+
+    private BookingSeat bookingSeat(Long seatId, BookingSeat.SeatStatus status) {
+        return BookingSeat.builder()
+            .id(seatId)
+            .booking(booking)
+            .seat(EntityFixtures.createStandardSeat())
+            .seatStatus(status)
+            .build();
+    }
+}
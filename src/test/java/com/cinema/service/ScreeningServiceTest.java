@@ -10,6 +10,7 @@ import com.cinema.fixtures.EntityFixtures;
 import com.cinema.repository.HallRepository;
 import com.cinema.repository.MovieRepository;
 import com.cinema.repository.ScreeningRepository;
+import com.cinema.seating.SeatInventoryEngine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -51,6 +52,9 @@ class ScreeningServiceTest {
     @Mock
     private HallRepository hallRepository;
 
+    @Mock
+    private SeatInventoryEngine inventoryEngine;
+
     @InjectMocks
     private ScreeningService screeningService;
 
@@ -168,6 +172,20 @@ class ScreeningServiceTest {
         assertThat(result.getActive()).isTrue();
     }
 
+    @Test
+    void getScreeningById_ReportsAvailabilityFromSeatCounters() {
+        // Given
+        testScreening.setSeatsSold(30);
+        testScreening.setSeatsHeld(5);
+        given(screeningRepository.findById(1L)).willReturn(Optional.of(testScreening));
+
+        // When
+        ScreeningDTO result = screeningService.getScreeningById(1L);
+
+        // Then
+        assertThat(result.getAvailableSeats()).isEqualTo(65);
+    }
+
     @Test
     void getScreeningById_NonExistingScreening_ThrowsResourceNotFoundException() {
         // Given
@@ -433,6 +451,37 @@ class ScreeningServiceTest {
         then(screeningRepository).should(times(1)).save(any(Screening.class));
     }
 
+    @Test
+    void updateScreening_ExistingScreening_EvictsSeatInventory() {
+        // Given
+        ScreeningDTO updateDTO = DTOFixtures.createDefaultScreeningDTO();
+        given(screeningRepository.findById(1L)).willReturn(Optional.of(testScreening));
+        given(screeningRepository.save(any(Screening.class)))
+            .willReturn(testScreening);
+
+        // When
+        screeningService.updateScreening(1L, updateDTO);
+
+        // Then
+        then(inventoryEngine).should().evictAfterCommit(1L);
+    }
+
+    // ========== cancelScreening Tests ==========
+
+    @Test
+    void cancelScreening_ExistingScreening_DeactivatesAndEvictsSeatInventory() {
+        // Given
+        given(screeningRepository.findById(1L)).willReturn(Optional.of(testScreening));
+
+        // When
+        screeningService.cancelScreening(1L);
+
+        // Then
+        assertThat(testScreening.getActive()).isFalse();
+        then(screeningRepository).should().save(testScreening);
+        then(inventoryEngine).should().evictAfterCommit(1L);
+    }
+
     // ========== deleteScreening Tests ==========
 
     @Test
@@ -445,6 +494,7 @@ class ScreeningServiceTest {
 
         // Then
         then(screeningRepository).should(times(1)).deleteById(1L);
+        then(inventoryEngine).should().evictAfterCommit(1L);
     }
 
     @Test
@@ -0,0 +1,55 @@
+package com.cinema.service;
+
+import com.cinema.repository.jdbc.SeatLockArchiveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SeatLockArchiverTest {
+
+    @Mock
+    private SeatLockArchiveRepository archiveRepository;
+
+    @InjectMocks
+    private SeatLockArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(archiver, "retentionHours", 24);
+        ReflectionTestUtils.setField(archiver, "batchSize", 100);
+        ReflectionTestUtils.setField(archiver, "maxBatchesPerRun", 5);
+    }
+
+    @Test
+    void archiveTerminalLocks_StopsAfterPartialBatch() {
+        when(archiveRepository.archiveBatch(any(LocalDateTime.class), eq(100), any(LocalDateTime.class)))
+            .thenReturn(100, 100, 40);
+
+        archiver.archiveTerminalLocks();
+
+        verify(archiveRepository, times(3)).archiveBatch(any(LocalDateTime.class), eq(100), any(LocalDateTime.class));
+    }
+
+    @Test
+    void archiveTerminalLocks_IsBoundedPerRun() {
+        when(archiveRepository.archiveBatch(any(LocalDateTime.class), eq(100), any(LocalDateTime.class)))
+            .thenReturn(100);
+
+        archiver.archiveTerminalLocks();
+
+        verify(archiveRepository, times(5)).archiveBatch(any(LocalDateTime.class), eq(100), any(LocalDateTime.class));
+    }
+}
@@ -1,6 +1,15 @@
 package com.cinema.service;
 
+import com.cinema.dto.CompactSeatMapResponse;
+import com.cinema.dto.ScreeningAvailabilityDTO;
+import com.cinema.dto.ScreeningSeatCounts;
+import com.cinema.dto.SeatLayoutResponse;
+import com.cinema.dto.SeatMapDelta;
+import com.cinema.dto.SeatMapResponse;
 import com.cinema.dto.SeatStatusDTO;
+import com.cinema.dto.SeatStatusDTO.SeatState;
+import com.cinema.entity.Booking;
+import com.cinema.entity.BookingSeat;
 import com.cinema.entity.Hall;
 import com.cinema.entity.Screening;
 import com.cinema.entity.Seat;
@@ -11,27 +20,53 @@ import com.cinema.repository.BookingSeatRepository;
 import com.cinema.repository.ScreeningRepository;
 import com.cinema.repository.SeatLockRepository;
 import com.cinema.repository.SeatRepository;
+import com.cinema.repository.jdbc.SeatLockExpiryRepository;
+import com.cinema.repository.jdbc.SeatVersionRepository;
+import com.cinema.seating.BestSeatFinder;
+import com.cinema.seating.HallLayoutCache;
+import com.cinema.seating.SeatHold;
+import com.cinema.seating.SeatInventory;
+import com.cinema.seating.SeatInventoryEngine;
+import com.cinema.seating.SeatInventoryLoader;
+import com.cinema.seating.SeatLockExpiry;
+import com.cinema.seating.SeatLockExpiryWheel;
+import com.cinema.seating.SeatMapChangedEvent;
+import com.cinema.seating.SeatOwnerTokens;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -49,18 +84,35 @@ class SeatReservationServiceTest {
     @Mock
     private SeatLockRepository seatLockRepository;
     @Mock
-    private SeatStatusNotifierService seatStatusNotifier;
-
-    @InjectMocks
+    private SeatLockExpiryRepository seatLockExpiryRepository;
+    @Mock
+    private SeatVersionRepository seatVersionRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Captor
+    private ArgumentCaptor<List<SeatLock>> lockCaptor;
+    @Captor
+    private ArgumentCaptor<SeatMapChangedEvent> eventCaptor;
+
+    private SeatInventoryEngine inventoryEngine;
+    private SeatLockExpiryWheel expiryWheel;
     private SeatReservationService seatReservationService;
 
+    private final SeatOwnerTokens ownerTokens = new SeatOwnerTokens("test-key");
     private Screening screening;
     private Hall hall;
     private Seat seat;
 
     @BeforeEach
     void setUp() {
+        SeatInventoryLoader loader = new SeatInventoryLoader(screeningRepository, new HallLayoutCache(seatRepository), bookingSeatRepository, seatLockRepository, ownerTokens);
+        expiryWheel = new SeatLockExpiryWheel(1000, 64);
+        inventoryEngine = new SeatInventoryEngine(loader, screeningRepository, seatLockRepository, bookingSeatRepository, seatVersionRepository, eventPublisher);
+        seatReservationService = new SeatReservationService(screeningRepository, seatRepository, seatLockRepository,
+            seatLockExpiryRepository, eventPublisher, inventoryEngine, expiryWheel, new BestSeatFinder(0.5, 1.5, 5), ownerTokens);
         ReflectionTestUtils.setField(seatReservationService, "lockDurationMinutes", 5);
+        ReflectionTestUtils.setField(seatReservationService, "maxSeatsPerRequest", 10);
+        ReflectionTestUtils.setField(seatReservationService, "maxAvailabilityIds", 200);
 
         hall = Hall.builder()
             .id(3L)
@@ -81,33 +133,45 @@ class SeatReservationServiceTest {
 
     @Test
     void lockSeat_WhenAvailable_CreatesLockAndBroadcasts() {
-        when(screeningRepository.findById(7L)).thenReturn(Optional.of(screening)).thenReturn(Optional.of(screening));
-        when(seatRepository.findById(42L)).thenReturn(Optional.of(seat));
+        when(screeningRepository.findById(7L)).thenReturn(Optional.of(screening));
+        when(screeningRepository.getReferenceById(7L)).thenReturn(screening);
+        when(seatRepository.getReferenceById(42L)).thenReturn(seat);
         when(seatRepository.findByHallIdAndActiveTrue(hall.getId())).thenReturn(List.of(seat));
-        when(bookingSeatRepository.findBySeatIdAndScreeningId(42L, 7L)).thenReturn(List.of());
         when(bookingSeatRepository.findActiveSeatsByScreeningId(7L)).thenReturn(List.of());
-        when(seatLockRepository.findActiveLock(anyLong(), anyLong(), any(LocalDateTime.class))).thenReturn(Optional.empty());
         when(seatLockRepository.findActiveLocksByScreening(anyLong(), any(LocalDateTime.class))).thenReturn(List.of());
-        when(seatLockRepository.save(any(SeatLock.class))).thenAnswer(invocation -> {
-            SeatLock lock = invocation.getArgument(0);
-            lock.setId(99L);
-            return lock;
-        });
-
         SeatStatusDTO status = seatReservationService.lockSeat(7L, 42L, "session-1", "jane");
 
         assertThat(status.getSeatId()).isEqualTo(42L);
         assertThat(status.isSelectedByYou()).isTrue();
 
-        ArgumentCaptor<SeatLock> lockCaptor = ArgumentCaptor.forClass(SeatLock.class);
-        verify(seatLockRepository).save(lockCaptor.capture());
-        SeatLock persisted = lockCaptor.getValue();
+        verify(seatLockRepository).saveAllAndFlush(lockCaptor.capture());
+        assertThat(lockCaptor.getValue()).hasSize(1);
+        SeatLock persisted = lockCaptor.getValue().get(0);
         assertThat(persisted.getSeat()).isEqualTo(seat);
         assertThat(persisted.getScreening()).isEqualTo(screening);
         assertThat(persisted.getSessionId()).isEqualTo("session-1");
         assertThat(persisted.getStatus()).isEqualTo(SeatLockStatus.ACTIVE);
 
-        verify(seatStatusNotifier).broadcast(anyLong(), anyList());
+        assertThat(broadcastScreeningIds()).hasSize(1);
+    }
+
+    @Test
+    void lockSeat_WhenAnotherNodeInsertedTheLockFirst_LosesTheClaim() {
+        when(screeningRepository.findById(7L)).thenReturn(Optional.of(screening));
+        when(screeningRepository.getReferenceById(7L)).thenReturn(screening);
+        when(seatRepository.getReferenceById(42L)).thenReturn(seat);
+        when(seatRepository.findByHallIdAndActiveTrue(hall.getId())).thenReturn(List.of(seat));
+        when(bookingSeatRepository.findActiveSeatsByScreeningId(7L)).thenReturn(List.of());
+        when(seatLockRepository.findActiveLocksByScreening(anyLong(), any(LocalDateTime.class))).thenReturn(List.of());
+        when(seatLockRepository.saveAllAndFlush(anyList()))
+            .thenThrow(new DataIntegrityViolationException("uk_seat_locks_active_seat"));
+
+        assertThatThrownBy(() -> seatReservationService.lockSeat(7L, 42L, "session-1", "jane"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("already locked");
+
+        verify(seatLockExpiryRepository).expireLapsed(eq(7L), eq(List.of(42L)), any(LocalDateTime.class));
+        assertThat(broadcastScreeningIds()).isEmpty();
     }
 
     @Test
@@ -131,7 +195,7 @@ class SeatReservationServiceTest {
 
         assertThat(lock.getStatus()).isEqualTo(SeatLockStatus.ACTIVE);
         verify(seatLockRepository).findActiveLockForSession(anyLong(), anyLong(), anyString(), any(LocalDateTime.class));
-        verify(seatStatusNotifier, never()).broadcast(anyLong(), any());
+        assertThat(broadcastScreeningIds()).isEmpty();
     }
 
     @Test
@@ -164,7 +228,7 @@ class SeatReservationServiceTest {
         assertThat(sessionLock.getStatus()).isEqualTo(SeatLockStatus.RELEASED);
         assertThat(otherLock.getStatus()).isEqualTo(SeatLockStatus.ACTIVE);
         verify(seatLockRepository, times(2)).findActiveLocksByScreening(anyLong(), any(LocalDateTime.class));
-        verify(seatStatusNotifier).broadcast(anyLong(), anyList());
+        assertThat(broadcastScreeningIds()).hasSize(1);
     }
 
     @Test
@@ -191,7 +255,7 @@ class SeatReservationServiceTest {
     }
 
     @Test
-    void lockSeat_WhenSeatAlreadyLocked_Throws() {
+    void lockSeat_WhenSeatAlreadyLocked_ThrowsWithoutTouchingLocks() {
         SeatLock existingLock = SeatLock.builder()
             .id(1L)
             .seat(seat)
@@ -202,16 +266,402 @@ class SeatReservationServiceTest {
             .build();
 
         when(screeningRepository.findById(7L)).thenReturn(Optional.of(screening));
-        when(seatRepository.findById(42L)).thenReturn(Optional.of(seat));
-        when(bookingSeatRepository.findBySeatIdAndScreeningId(42L, 7L)).thenReturn(List.of());
-        when(seatLockRepository.findActiveLock(eq(7L), eq(42L), any(LocalDateTime.class)))
-            .thenReturn(Optional.of(existingLock));
+        when(seatRepository.findByHallIdAndActiveTrue(hall.getId())).thenReturn(List.of(seat));
+        when(bookingSeatRepository.findActiveSeatsByScreeningId(7L)).thenReturn(List.of());
+        when(seatLockRepository.findActiveLocksByScreening(eq(7L), any(LocalDateTime.class)))
+            .thenReturn(List.of(existingLock));
 
         assertThatThrownBy(() -> seatReservationService.lockSeat(7L, 42L, "session-1", "jane"))
             .isInstanceOf(IllegalStateException.class)
             .hasMessageContaining("already locked");
 
-        verify(seatLockRepository).findActiveLock(eq(7L), eq(42L), any(LocalDateTime.class));
+        verify(seatLockRepository, never()).findActiveLock(anyLong(), anyLong(), any(LocalDateTime.class));
+        verify(seatLockRepository, never()).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    void lockSeat_WhenHeldBySameSession_ExtendsExistingLock() {
+        LocalDateTime originalExpiry = LocalDateTime.now().plusMinutes(1);
+        SeatLock existingLock = SeatLock.builder()
+            .id(1L)
+            .seat(seat)
+            .screening(screening)
+            .sessionId("session-1")
+            .status(SeatLockStatus.ACTIVE)
+            .expiresAt(originalExpiry)
+            .build();
+
+        when(screeningRepository.findById(7L)).thenReturn(Optional.of(screening));
+        when(seatRepository.findByHallIdAndActiveTrue(hall.getId())).thenReturn(List.of(seat));
+        when(bookingSeatRepository.findActiveSeatsByScreeningId(7L)).thenReturn(List.of());
+        when(seatLockRepository.findActiveLocksByScreening(eq(7L), any(LocalDateTime.class)))
+            .thenReturn(List.of(existingLock));
+        when(seatLockRepository.findActiveLocksForOwner(eq(7L), eq("session-1"), eq("jane"), any(LocalDateTime.class)))
+            .thenReturn(List.of(existingLock));
+
+        SeatStatusDTO status = seatReservationService.lockSeat(7L, 42L, "session-1", "jane");
+
+        assertThat(status.isSelectedByYou()).isTrue();
+        assertThat(existingLock.getExpiresAt()).isAfter(originalExpiry);
+        verify(seatLockRepository, never()).saveAllAndFlush(anyList());
+        // The new expiry has to reach cached seat maps and other nodes.
+        assertThat(broadcastScreeningIds()).containsExactly(7L);
+    }
+
+    @Test
+    void lockSeat_WhenManyRequestersRaceForOneSeat_ExactlyOneWins() throws Exception {
+        when(screeningRepository.findById(7L)).thenReturn(Optional.of(screening));
+        when(screeningRepository.getReferenceById(7L)).thenReturn(screening);
+        when(seatRepository.getReferenceById(42L)).thenReturn(seat);
+        when(seatRepository.findByHallIdAndActiveTrue(hall.getId())).thenReturn(List.of(seat));
+        when(bookingSeatRepository.findActiveSeatsByScreeningId(7L)).thenReturn(List.of());
+        when(seatLockRepository.findActiveLocksByScreening(eq(7L), any(LocalDateTime.class))).thenReturn(List.of());
+        seatReservationService.getSeatMap(7L, null, null);
+
+        int requesters = 4000;
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger winners = new AtomicInteger();
+        AtomicInteger losers = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < requesters; i++) {
+                String sessionId = "session-" + i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        seatReservationService.lockSeat(7L, 42L, sessionId, null);
+                        winners.incrementAndGet();
+                    } catch (IllegalStateException ex) {
+                        losers.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(winners.get()).isEqualTo(1);
+        assertThat(losers.get()).isEqualTo(requesters - 1);
+        verify(seatLockRepository, times(1)).saveAllAndFlush(anyList());
+        verify(screeningRepository, times(1)).findById(7L);
+    }
+
+    @Test
+    void lockSeats_WhenAllAvailable_LocksTogetherWithSingleBroadcast() {
+        Seat neighbour = Seat.builder().id(43L).hall(hall).rowNumber(4).seatNumber(9).build();
+        when(screeningRepository.findById(7L)).thenReturn(Optional.of(screening));
+        when(screeningRepository.getReferenceById(7L)).thenReturn(screening);
+        when(seatRepository.getReferenceById(42L)).thenReturn(seat);
+        when(seatRepository.getReferenceById(43L)).thenReturn(neighbour);
+        when(seatRepository.findByHallIdAndActiveTrue(hall.getId())).thenReturn(List.of(seat, neighbour));
+        when(bookingSeatRepository.findActiveSeatsByScreeningId(7L)).thenReturn(List.of());
+        when(seatLockRepository.findActiveLocksByScreening(eq(7L), any(LocalDateTime.class))).thenReturn(List.of());
+
+        List<SeatStatusDTO> statuses = seatReservationService.lockSeats(7L, List.of(42L, 43L, 42L), "session-1", "jane");
+
+        assertThat(statuses).extracting(SeatStatusDTO::getSeatId).containsExactly(42L, 43L);
+        assertThat(statuses).allMatch(SeatStatusDTO::isSelectedByYou);
+        verify(seatLockRepository).saveAllAndFlush(lockCaptor.capture());
+        assertThat(lockCaptor.getValue()).extracting(lock -> lock.getSeat().getId()).containsExactly(42L, 43L);
+        assertThat(broadcastScreeningIds()).containsExactly(7L);
+    }
+
+    @Test
+    void lockSeat_AfterPreviousPublish_LeavesOnlyChangedSeatsInDelta() {
+        Seat neighbour = Seat.builder().id(43L).hall(hall).rowNumber(4).seatNumber(9).build();
+        when(screeningRepository.findById(7L)).thenReturn(Optional.of(screening));
+        when(screeningRepository.getReferenceById(7L)).thenReturn(screening);
+        when(seatRepository.getReferenceById(42L)).thenReturn(seat);
+        when(seatRepository.getReferenceById(43L)).thenReturn(neighbour);
+        when(seatRepository.findByHallIdAndActiveTrue(hall.getId())).thenReturn(List.of(seat, neighbour));
+        when(bookingSeatRepository.findActiveSeatsByScreeningId(7L)).thenReturn(List.of());
+        when(seatLockRepository.findActiveLocksByScreening(eq(7L), any(LocalDateTime.class))).thenReturn(List.of());
+
+        long snapshotVersion = seatReservationService.getSeatMap(7L, null, null).getVersion();
+        seatReservationService.lockSeat(7L, 42L, "session-1", "jane");
+        inventoryEngine.acknowledge(7L, snapshotVersion + 1);
+        SeatMapDelta first = inventoryEngine.get(7L).publishDelta(LocalDateTime.now());
+        seatReservationService.lockSeat(7L, 43L, "session-2", "john");
+        inventoryEngine.acknowledge(7L, snapshotVersion + 2);
+        SeatMapDelta second = inventoryEngine.get(7L).publishDelta(LocalDateTime.now());
+
+        assertThat(first.getFromVersion()).isEqualTo(snapshotVersion);
+        assertThat(first.getVersion()).isGreaterThan(snapshotVersion);
+        assertThat(second.getFromVersion()).isEqualTo(first.getVersion());
+        assertThat(second.getVersion()).isGreaterThan(first.getVersion());
+        assertThat(second.getSeats()).singleElement()
+            .satisfies(status -> {
+                assertThat(status.getSeatId()).isEqualTo(43L);
+                assertThat(status.getStatus()).isEqualTo(SeatStatusDTO.SeatState.BOOKED);
+            });
+        assertThat(inventoryEngine.get(7L).publishDelta(LocalDateTime.now())).isNull();
+        assertThat(broadcastScreeningIds()).containsExactly(7L, 7L);
+    }
+
+    @Test
+    void lockSeats_WhenOneSeatIsTaken_LocksNothing() {
+        Seat neighbour = Seat.builder().id(43L).hall(hall).rowNumber(4).seatNumber(9).build();
+        SeatLock foreignLock = SeatLock.builder()
+            .id(5L)
+            .seat(neighbour)
+            .screening(screening)
+            .sessionId("other-session")
+            .status(SeatLockStatus.ACTIVE)
+            .expiresAt(LocalDateTime.now().plusMinutes(3))
+            .build();
+        when(screeningRepository.findById(7L)).thenReturn(Optional.of(screening));
+        when(seatRepository.findByHallIdAndActiveTrue(hall.getId())).thenReturn(List.of(seat, neighbour));
+        when(bookingSeatRepository.findActiveSeatsByScreeningId(7L)).thenReturn(List.of());
+        when(seatLockRepository.findActiveLocksByScreening(eq(7L), any(LocalDateTime.class))).thenReturn(List.of(foreignLock));
+
+        assertThatThrownBy(() -> seatReservationService.lockSeats(7L, List.of(42L, 43L), "session-1", "jane"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Seat 43 already locked");
+
+        SeatMapResponse seatMap = seatReservationService.getSeatMap(7L, "session-1", "jane");
+        assertThat(seatMap.getSeats())
+            .filteredOn(status -> status.getSeatId().equals(42L))
+            .singleElement()
+            .satisfies(status -> {
+                assertThat(status.getStatus()).isEqualTo(SeatStatusDTO.SeatState.FREE);
+                assertThat(status.isSelectedByYou()).isFalse();
+            });
+        verify(seatLockRepository, never()).saveAllAndFlush(anyList());
+        assertThat(broadcastScreeningIds()).isEmpty();
+    }
+
+    @Test
+    void getCompactSeatMap_PacksStatesInLayoutOrder() {
+        Seat front = Seat.builder().id(40L).hall(hall).rowNumber(1).seatNumber(1).build();
+        Seat sold = Seat.builder().id(41L).hall(hall).rowNumber(2).seatNumber(1).build();
+        Seat neighbour = Seat.builder().id(43L).hall(hall).rowNumber(4).seatNumber(9).build();
+        BookingSeat soldSeat = BookingSeat.builder().seat(sold).seatStatus(BookingSeat.SeatStatus.OCCUPIED).build();
+        SeatLock ownLock = SeatLock.builder()
+            .seat(seat)
+            .sessionId("session-1")
+            .status(SeatLockStatus.ACTIVE)
+            .expiresAt(LocalDateTime.now().plusMinutes(3))
+            .build();
+        SeatLock foreignLock = SeatLock.builder()
+            .seat(neighbour)
+            .sessionId("other-session")
+            .status(SeatLockStatus.ACTIVE)
+            .expiresAt(LocalDateTime.now().plusMinutes(3))
+            .build();
+        when(screeningRepository.findById(7L)).thenReturn(Optional.of(screening));
+        when(seatRepository.findByHallIdAndActiveTrue(hall.getId())).thenReturn(List.of(neighbour, seat, sold, front));
+        when(bookingSeatRepository.findActiveSeatsByScreeningId(7L)).thenReturn(List.of(soldSeat));
+        when(seatLockRepository.findActiveLocksByScreening(eq(7L), any(LocalDateTime.class))).thenReturn(List.of(ownLock, foreignLock));
+
+        SeatLayoutResponse layout = seatReservationService.getSeatLayout(7L);
+        CompactSeatMapResponse seatMap = seatReservationService.getCompactSeatMap(7L, "session-1", null);
+
+        assertThat(layout.getSeatIds()).containsExactly(40L, 41L, 42L, 43L);
+        assertThat(seatMap.getLayoutId()).isEqualTo(layout.getLayoutId());
+        assertThat(seatMap.getSeatCount()).isEqualTo(4);
+        assertThat(seatMap.getVersion()).isEqualTo(inventoryEngine.get(7L).version());
+        // free, sold, held, held - two bits per seat from the lowest bits up
+        assertThat(seatMap.getStates()).containsExactly((byte) 0b01_01_11_00);
+        assertThat(seatMap.getOwnHolds()).containsExactly((byte) 0b0100);
+    }
+
+    @Test
+    void lockBestAvailable_LocksBestFreeBlockUntilNoneLeft() {
+        Hall smallHall = Hall.builder().id(5L).rowsCount(1).seatsPerRow(5).build();
+        Screening smallScreening = Screening.builder().id(8L).hall(smallHall).build();
+        List<Seat> row = LongStream.rangeClosed(1, 5)
+            .mapToObj(n -> Seat.builder().id(100 + n).hall(smallHall).rowNumber(1).seatNumber((int) n).build())
+            .toList();
+        when(screeningRepository.findById(8L)).thenReturn(Optional.of(smallScreening));
+        when(screeningRepository.getReferenceById(8L)).thenReturn(smallScreening);
+        when(seatRepository.findByHallIdAndActiveTrue(5L)).thenReturn(row);
+        when(bookingSeatRepository.findActiveSeatsByScreeningId(8L)).thenReturn(List.of());
+        when(seatLockRepository.findActiveLocksByScreening(eq(8L), any(LocalDateTime.class))).thenReturn(List.of());
+
+        List<SeatStatusDTO> first = seatReservationService.lockBestAvailable(8L, 2, null, "session-1", null);
+        List<SeatStatusDTO> second = seatReservationService.lockBestAvailable(8L, 2, null, "session-2", null);
+
+        assertThat(first).extracting(SeatStatusDTO::getSeatId).containsExactly(102L, 103L);
+        assertThat(second).extracting(SeatStatusDTO::getSeatId).containsExactly(104L, 105L);
+        assertThat(second).allMatch(SeatStatusDTO::isSelectedByYou);
+        assertThatThrownBy(() -> seatReservationService.lockBestAvailable(8L, 2, null, "session-3", null))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("No 2 adjacent seats");
+        verify(seatLockRepository, times(2)).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    void getAvailability_AddsResidentLocksToCounters() {
+        SeatLock lock = SeatLock.builder()
+            .seat(seat)
+            .sessionId("session-1")
+            .status(SeatLockStatus.ACTIVE)
+            .expiresAt(LocalDateTime.now().plusMinutes(3))
+            .build();
+        when(screeningRepository.findById(7L)).thenReturn(Optional.of(screening));
+        when(seatRepository.findByHallIdAndActiveTrue(hall.getId())).thenReturn(List.of(seat));
+        when(bookingSeatRepository.findActiveSeatsByScreeningId(7L)).thenReturn(List.of());
+        when(seatLockRepository.findActiveLocksByScreening(eq(7L), any(LocalDateTime.class))).thenReturn(List.of(lock));
+        inventoryEngine.get(7L);
+        when(screeningRepository.findSeatCounts(List.of(8L, 7L, 9L))).thenReturn(List.of(
+            new ScreeningSeatCounts(7L, 120, 10, 2),
+            new ScreeningSeatCounts(8L, 50, 50, 0)));
+
+        List<ScreeningAvailabilityDTO> availability = seatReservationService.getAvailability(List.of(8L, 7L, 9L, 7L));
+
+        assertThat(availability).extracting(ScreeningAvailabilityDTO::getScreeningId).containsExactly(8L, 7L);
+        assertThat(availability.get(0).getFree()).isZero();
+        assertThat(availability.get(1).getHeld()).isEqualTo(3);
+        assertThat(availability.get(1).getFree()).isEqualTo(107);
+    }
+
+    @Test
+    void getAvailability_WhenTooManyIds_Throws() {
+        ReflectionTestUtils.setField(seatReservationService, "maxAvailabilityIds", 2);
+
+        assertThatThrownBy(() -> seatReservationService.getAvailability(List.of(1L, 2L, 3L)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("more than 2");
+        verify(screeningRepository, never()).findSeatCounts(any());
+    }
+
+    @Test
+    void lockSeats_WhenTooManySeatsRequested_Throws() {
+        List<Long> seatIds = LongStream.rangeClosed(1, 11).boxed().toList();
+
+        assertThatThrownBy(() -> seatReservationService.lockSeats(7L, seatIds, "session-1", "jane"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("more than 10");
+
+        verify(screeningRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void lockSeat_WhenClaimed_SchedulesExpiry() {
+        when(screeningRepository.findById(7L)).thenReturn(Optional.of(screening));
+        when(screeningRepository.getReferenceById(7L)).thenReturn(screening);
+        when(seatRepository.getReferenceById(42L)).thenReturn(seat);
+        when(seatRepository.findByHallIdAndActiveTrue(hall.getId())).thenReturn(List.of(seat));
+        when(bookingSeatRepository.findActiveSeatsByScreeningId(7L)).thenReturn(List.of());
+        when(seatLockRepository.findActiveLocksByScreening(eq(7L), any(LocalDateTime.class))).thenReturn(List.of());
+
+        SeatStatusDTO status = seatReservationService.lockSeat(7L, 42L, "session-1", "jane");
+
+        assertThat(expiryWheel.size()).isEqualTo(1);
+        assertThat(expiryWheel.advance(status.getLockExpiresAt().plusSeconds(1)))
+            .containsExactly(new SeatLockExpiry(7L, 42L, status.getLockExpiresAt()));
+    }
+
+    @Test
+    void expireLocks_WhenDue_ExpiresInOneUpdateAndFreesExpiredSeatsOnly() {
+        LocalDateTime lapsed = LocalDateTime.now().minusSeconds(1);
+        when(screeningRepository.findById(7L)).thenReturn(Optional.of(screening));
+        when(seatRepository.findByHallIdAndActiveTrue(hall.getId())).thenReturn(List.of(seat));
+        when(bookingSeatRepository.findActiveSeatsByScreeningId(7L)).thenReturn(List.of());
+        when(seatLockRepository.findActiveLocksByScreening(eq(7L), any(LocalDateTime.class))).thenReturn(List.of());
+        SeatInventory inventory = inventoryEngine.get(7L);
+        inventory.hold(42L, new SeatHold(ownerTokens.of("session-1"), null, lapsed));
+        List<SeatLockExpiry> due = List.of(
+            new SeatLockExpiry(7L, 42L, lapsed),
+            new SeatLockExpiry(8L, 11L, lapsed));
+        // The lock of seat 11 was extended after it was scheduled.
+        when(seatLockExpiryRepository.expireDue(eq(due), any(LocalDateTime.class)))
+            .thenReturn(List.of(new SeatLockExpiry(7L, 42L, lapsed)));
+
+        seatReservationService.expireLocks(due);
+
+        assertThat(inventory.activeHoldCount(LocalDateTime.now().minusMinutes(1))).isZero();
+        verify(seatLockExpiryRepository, times(1)).expireDue(anyCollection(), any(LocalDateTime.class));
+        assertThat(broadcastScreeningIds()).containsExactly(7L);
+        assertThat(eventCaptor.getValue().seatIds()).containsExactly(42L);
+    }
+
+    @Test
+    void expireLocks_WhenLocksLapsed_UpdatesInBulkAndBroadcastsExpiredSeats() {
+        LocalDateTime lapsed = LocalDateTime.now().minusSeconds(1);
+        when(seatLockExpiryRepository.expireAll(any(LocalDateTime.class))).thenReturn(List.of(
+            new SeatLockExpiry(9L, 11L, lapsed),
+            new SeatLockExpiry(7L, 42L, lapsed),
+            new SeatLockExpiry(9L, 12L, lapsed)));
+
+        List<Long> screeningIds = seatReservationService.expireLocks();
+
+        assertThat(screeningIds).containsExactly(7L, 9L);
+        verify(seatLockExpiryRepository).expireAll(any(LocalDateTime.class));
+        assertThat(broadcastScreeningIds()).containsExactly(7L, 9L);
+        assertThat(eventCaptor.getAllValues().get(1).seatIds()).containsExactly(11L, 12L);
+    }
+
+    @Test
+    void expireLocks_WhenNothingLapsed_BroadcastsNothing() {
+        when(seatLockExpiryRepository.expireAll(any(LocalDateTime.class))).thenReturn(List.of());
+
+        assertThat(seatReservationService.expireLocks()).isEmpty();
+
+        assertThat(broadcastScreeningIds()).isEmpty();
+    }
+
+    @Test
+    void releaseSessionLocks_WhenSessionsHeldSeats_ReleasesInBulkAndBroadcastsEachScreening() {
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(5);
+        Seat other = Seat.builder().id(43L).hall(hall).rowNumber(4).seatNumber(9).build();
+        when(screeningRepository.findById(7L)).thenReturn(Optional.of(screening));
+        when(seatRepository.findByHallIdAndActiveTrue(hall.getId())).thenReturn(List.of(seat, other));
+        when(bookingSeatRepository.findActiveSeatsByScreeningId(7L)).thenReturn(List.of());
+        when(seatLockRepository.findActiveLocksByScreening(eq(7L), any(LocalDateTime.class))).thenReturn(List.of());
+        SeatInventory inventory = inventoryEngine.get(7L);
+        inventory.hold(42L, new SeatHold(ownerTokens.of("session-1"), "jane", expiresAt));
+        inventory.hold(43L, new SeatHold(ownerTokens.of("session-2"), "john", expiresAt));
+        when(seatLockRepository.findScreeningIdsWithActiveLocksForSessions(List.of("session-1"))).thenReturn(List.of(7L, 9L));
+        when(seatLockRepository.releaseSessionLocks(eq(List.of("session-1")), any(LocalDateTime.class))).thenReturn(3);
+
+        List<Long> screeningIds = seatReservationService.releaseSessionLocks(List.of("session-1"));
+
+        assertThat(screeningIds).containsExactly(7L, 9L);
+        assertThat(inventory.activeHold(42L, LocalDateTime.now())).isNull();
+        assertThat(inventory.activeHold(43L, LocalDateTime.now())).isNotNull();
+        verify(seatLockRepository, times(1)).releaseSessionLocks(anyCollection(), any(LocalDateTime.class));
+        assertThat(broadcastScreeningIds()).containsExactlyInAnyOrder(7L, 9L);
+    }
+
+    @Test
+    void releaseSessionLocks_WhenTransactionRollsBack_RestoresReleasedHolds() {
+        SeatHold hold = new SeatHold(ownerTokens.of("session-1"), "jane", LocalDateTime.now().plusMinutes(5));
+        when(screeningRepository.findById(7L)).thenReturn(Optional.of(screening));
+        when(seatRepository.findByHallIdAndActiveTrue(hall.getId())).thenReturn(List.of(seat));
+        when(bookingSeatRepository.findActiveSeatsByScreeningId(7L)).thenReturn(List.of());
+        when(seatLockRepository.findActiveLocksByScreening(eq(7L), any(LocalDateTime.class))).thenReturn(List.of());
+        SeatInventory inventory = inventoryEngine.get(7L);
+        inventory.hold(42L, hold);
+        when(seatLockRepository.findScreeningIdsWithActiveLocksForSessions(List.of("session-1"))).thenReturn(List.of(7L));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            seatReservationService.releaseSessionLocks(List.of("session-1"));
+            assertThat(inventory.activeHold(42L, LocalDateTime.now())).isNull();
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(inventory.activeHold(42L, LocalDateTime.now())).isEqualTo(hold);
+    }
+
+    @Test
+    void releaseSessionLocks_WhenSessionsHeldNothing_SkipsUpdate() {
+        when(seatLockRepository.findScreeningIdsWithActiveLocksForSessions(List.of("session-1"))).thenReturn(List.of());
+
+        assertThat(seatReservationService.releaseSessionLocks(List.of("session-1"))).isEmpty();
+
+        verify(seatLockRepository, never()).releaseSessionLocks(anyCollection(), any(LocalDateTime.class));
+        assertThat(broadcastScreeningIds()).isEmpty();
     }
 
     @Test
@@ -223,7 +673,7 @@ class SeatReservationServiceTest {
             .doesNotThrowAnyException();
 
         verify(seatLockRepository).findActiveLockForSession(anyLong(), anyLong(), anyString(), any(LocalDateTime.class));
-        verify(seatStatusNotifier, never()).broadcast(anyLong(), anyList());
+        assertThat(broadcastScreeningIds()).isEmpty();
     }
 
     @Test
@@ -250,7 +700,7 @@ class SeatReservationServiceTest {
 
         assertThat(lock.getStatus()).isEqualTo(SeatLockStatus.RELEASED);
         verify(seatLockRepository).findActiveLockForSession(eq(7L), eq(42L), eq("session-1"), any(LocalDateTime.class));
-        verify(seatStatusNotifier).broadcast(anyLong(), anyList());
+        assertThat(broadcastScreeningIds()).hasSize(1);
     }
 
     @Test
@@ -271,7 +721,7 @@ class SeatReservationServiceTest {
         seatReservationService.releaseAll(7L, "session-1");
 
         verify(seatLockRepository).findActiveLocksByScreening(anyLong(), any(LocalDateTime.class));
-        verify(seatStatusNotifier, never()).broadcast(anyLong(), anyList());
+        assertThat(broadcastScreeningIds()).isEmpty();
     }
 
     @Test
@@ -303,6 +753,99 @@ class SeatReservationServiceTest {
         seatReservationService.releaseAll(7L, "session-1");
 
         verify(seatLockRepository, times(2)).findActiveLocksByScreening(anyLong(), any(LocalDateTime.class));
-        verify(seatStatusNotifier).broadcast(anyLong(), anyList());
+        assertThat(broadcastScreeningIds()).hasSize(1);
+    }
+
+    @Test
+    void getSeatMap_WhenCalledRepeatedly_ServesFromInventory() {
+        when(screeningRepository.findById(7L)).thenReturn(Optional.of(screening));
+        when(seatRepository.findByHallIdAndActiveTrue(hall.getId())).thenReturn(List.of(seat));
+        when(bookingSeatRepository.findActiveSeatsByScreeningId(7L)).thenReturn(List.of());
+        when(seatLockRepository.findActiveLocksByScreening(eq(7L), any(LocalDateTime.class))).thenReturn(List.of());
+
+        SeatMapResponse first = seatReservationService.getSeatMap(7L, "session-1", "jane");
+        SeatMapResponse second = seatReservationService.getSeatMap(7L, "session-2", null);
+
+        assertThat(first.getRows()).isEqualTo(10);
+        assertThat(first.getCols()).isEqualTo(12);
+        assertThat(first.getSeats()).singleElement()
+            .satisfies(status -> assertThat(status.getStatus()).isEqualTo(SeatState.FREE));
+        assertThat(second.getSeats()).hasSize(1);
+        verify(screeningRepository, times(1)).findById(7L);
+        verify(seatRepository, times(1)).findByHallIdAndActiveTrue(hall.getId());
+        verify(seatLockRepository, times(1)).findActiveLocksByScreening(eq(7L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void syncBookingSeats_WhenBookingConfirmed_MarksSeatSoldInInventory() {
+        when(screeningRepository.findById(7L)).thenReturn(Optional.of(screening));
+        when(seatRepository.findByHallIdAndActiveTrue(hall.getId())).thenReturn(List.of(seat));
+        when(bookingSeatRepository.findActiveSeatsByScreeningId(7L)).thenReturn(List.of());
+        when(seatLockRepository.findActiveLocksByScreening(eq(7L), any(LocalDateTime.class))).thenReturn(List.of());
+
+        Booking booking = Booking.builder()
+            .id(5L)
+            .screening(screening)
+            .status(Booking.BookingStatus.CONFIRMED)
+            .build();
+        booking.getBookingSeats().add(BookingSeat.builder()
+            .id(6L)
+            .booking(booking)
+            .seat(seat)
+            .seatStatus(BookingSeat.SeatStatus.OCCUPIED)
+            .build());
+
+        seatReservationService.syncBookingSeats(booking);
+
+        assertThat(seatReservationService.getSeatMap(7L, "session-1", "jane").getSeats()).singleElement()
+            .satisfies(status -> assertThat(status.getStatus()).isEqualTo(SeatState.SOLD));
+        assertThat(broadcastScreeningIds()).containsOnlyOnce(7L);
+
+        booking.setStatus(Booking.BookingStatus.CANCELLED);
+        seatReservationService.syncBookingSeats(booking);
+
+        assertThat(seatReservationService.getSeatMap(7L, "session-1", "jane").getSeats()).singleElement()
+            .satisfies(status -> assertThat(status.getStatus()).isEqualTo(SeatState.FREE));
+        verify(bookingSeatRepository, times(1)).findActiveSeatsByScreeningId(7L);
+    }
+
+    @Test
+    void releaseBookingSeats_FreesSeatsOfActiveBookingOnly() {
+        when(screeningRepository.findById(7L)).thenReturn(Optional.of(screening));
+        when(seatRepository.findByHallIdAndActiveTrue(hall.getId())).thenReturn(List.of(seat));
+        when(bookingSeatRepository.findActiveSeatsByScreeningId(7L)).thenReturn(List.of());
+        when(seatLockRepository.findActiveLocksByScreening(eq(7L), any(LocalDateTime.class))).thenReturn(List.of());
+
+        Booking booking = Booking.builder()
+            .id(5L)
+            .screening(screening)
+            .status(Booking.BookingStatus.CONFIRMED)
+            .build();
+        booking.getBookingSeats().add(BookingSeat.builder()
+            .id(6L)
+            .booking(booking)
+            .seat(seat)
+            .seatStatus(BookingSeat.SeatStatus.OCCUPIED)
+            .build());
+        seatReservationService.syncBookingSeats(booking);
+
+        seatReservationService.releaseBookingSeats(booking);
+
+        assertThat(seatReservationService.getSeatMap(7L, "session-1", "jane").getSeats()).singleElement()
+            .satisfies(status -> assertThat(status.getStatus()).isEqualTo(SeatState.FREE));
+        assertThat(broadcastScreeningIds()).hasSize(2);
+
+        // The seat of a cancelled booking may belong to a newer booking by now.
+        seatReservationService.syncBookingSeats(booking);
+        booking.setStatus(Booking.BookingStatus.CANCELLED);
+        seatReservationService.releaseBookingSeats(booking);
+
+        assertThat(seatReservationService.getSeatMap(7L, "session-1", "jane").getSeats()).singleElement()
+            .satisfies(status -> assertThat(status.getStatus()).isEqualTo(SeatState.SOLD));
+    }
+
+    private List<Long> broadcastScreeningIds() {
+        verify(eventPublisher, atLeast(0)).publishEvent(eventCaptor.capture());
+        return eventCaptor.getAllValues().stream().map(SeatMapChangedEvent::screeningId).toList();
     }
 }
@@ -0,0 +1,112 @@
+package com.cinema.service;
+
+import com.cinema.dto.CompactSeatMapUpdate;
+import com.cinema.dto.SeatMapDelta;
+import com.cinema.dto.SeatStatusDTO;
+import com.cinema.dto.SeatStatusDTO.SeatState;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class SeatStatusNotifierServiceTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+    @Mock
+    private SeatMapStreamService seatMapStreams;
+    @Captor
+    private ArgumentCaptor<Message<?>> messageCaptor;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private SeatStatusNotifierService notifier;
+
+    @BeforeEach
+    void setUp() {
+        notifier = new SeatStatusNotifierService(messagingTemplate, objectMapper, seatMapStreams, 16);
+    }
+
+    @Test
+    void broadcast_SendsJsonBytesToSeatTopic() throws Exception {
+        SeatMapDelta delta = delta(5L);
+
+        notifier.broadcast(7L, delta);
+
+        verify(messagingTemplate).send(eq("/topic/screenings/7/seats"), messageCaptor.capture());
+        Message<?> message = messageCaptor.getValue();
+        assertThat(message.getHeaders().get(MessageHeaders.CONTENT_TYPE)).isEqualTo(MimeTypeUtils.APPLICATION_JSON);
+        assertThat(new String((byte[]) message.getPayload(), StandardCharsets.UTF_8))
+            .isEqualTo(objectMapper.writeValueAsString(delta));
+    }
+
+    @Test
+    void broadcast_HandsTheSamePayloadToEventStreams() {
+        notifier.broadcast(7L, delta(5L));
+
+        verify(messagingTemplate).send(eq("/topic/screenings/7/seats"), messageCaptor.capture());
+        verify(seatMapStreams).publish(7L, 4L, 5L, (byte[]) messageCaptor.getValue().getPayload());
+    }
+
+    @Test
+    void broadcast_WhenVersionUnchanged_ReusesSerializedPayload() {
+        notifier.broadcast(7L, delta(5L));
+        notifier.broadcast(7L, delta(5L));
+        notifier.broadcast(7L, delta(6L));
+
+        verify(messagingTemplate, times(3)).send(eq("/topic/screenings/7/seats"), messageCaptor.capture());
+        List<Message<?>> messages = messageCaptor.getAllValues();
+        assertThat(messages.get(1).getPayload()).isSameAs(messages.get(0).getPayload());
+        assertThat(messages.get(2).getPayload()).isNotSameAs(messages.get(1).getPayload());
+    }
+
+    @Test
+    void broadcastCompact_KeepsSnapshotSeparateFromDeltaTopic() {
+        notifier.broadcast(7L, delta(5L));
+        notifier.broadcastCompact(7L, CompactSeatMapUpdate.builder()
+            .screeningId(7L)
+            .version(5L)
+            .layoutId(11)
+            .states(new byte[] {0b01})
+            .build());
+
+        verify(messagingTemplate).send(eq("/topic/screenings/7/seats"), messageCaptor.capture());
+        verify(messagingTemplate).send(eq("/topic/screenings/7/seats/compact"), messageCaptor.capture());
+        assertThat(messageCaptor.getAllValues().get(1).getPayload())
+            .isNotSameAs(messageCaptor.getAllValues().get(0).getPayload());
+    }
+
+    private SeatMapDelta delta(long version) {
+        return SeatMapDelta.builder()
+            .screeningId(7L)
+            .fromVersion(version - 1)
+            .version(version)
+            .seats(List.of(SeatStatusDTO.builder()
+                .seatId(42L)
+                .rowNumber(4)
+                .seatNumber(8)
+                .status(SeatState.BOOKED)
+                .selectedByYou(false)
+                .lockExpiresAt(LocalDateTime.of(2026, 1, 1, 20, 0))
+                .build()))
+            .build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.cinema.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeBookingNumberGeneratorTest {
+
+    private static final long NOW = SnowflakeBookingNumberGenerator.EPOCH_MILLIS + 600L * 24 * 3600 * 1000;
+
+    @Test
+    void next_IssuesCompactNumbersInIssueOrder() {
+        SnowflakeBookingNumberGenerator generator = new SnowflakeBookingNumberGenerator(3);
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            numbers.add(generator.next(NOW + i / 100));
+        }
+
+        assertThat(numbers).allSatisfy(number -> assertThat(number).hasSize(SnowflakeBookingNumberGenerator.LENGTH).matches("[0-9A-HJKMNP-TV-Z]+"));
+        assertThat(numbers).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void next_WhenSequenceOfMillisecondIsUsedUp_ContinuesInNextMillisecond() {
+        SnowflakeBookingNumberGenerator generator = new SnowflakeBookingNumberGenerator(0);
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            numbers.add(generator.next(NOW));
+        }
+
+        assertThat(numbers).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void next_WhenClockStepsBack_StaysOrdered() {
+        SnowflakeBookingNumberGenerator generator = new SnowflakeBookingNumberGenerator(0);
+
+        String before = generator.next(NOW);
+        String after = generator.next(NOW - 5_000);
+
+        assertThat(after).isGreaterThan(before);
+    }
+
+    @Test
+    void next_OnDifferentNodesAtSameInstant_NeverCollides() {
+        Set<String> numbers = new HashSet<>();
+        for (int node = 0; node <= SnowflakeBookingNumberGenerator.MAX_NODE_ID; node++) {
+            numbers.add(new SnowflakeBookingNumberGenerator(node).next(NOW));
+        }
+
+        assertThat(numbers).hasSize(SnowflakeBookingNumberGenerator.MAX_NODE_ID + 1);
+    }
+
+    @Test
+    void constructor_WithNodeIdOutOfRange_ThrowsIllegalArgumentException() {
+        assertThatThrownBy(() -> new SnowflakeBookingNumberGenerator(SnowflakeBookingNumberGenerator.MAX_NODE_ID + 1))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("node id");
+    }
+
+    @Test
+    void constructor_WithoutNodeIdOnASingleNode_RunsAsNodeZero() {
+        SnowflakeBookingNumberGenerator generator = new SnowflakeBookingNumberGenerator(null, "none");
+
+        assertThat(generator.next(NOW)).startsWith(idPart(new SnowflakeBookingNumberGenerator(0).next(NOW)));
+    }
+
+    @Test
+    void next_OnTheSameNodeAndInstant_DiffersInTheRandomPart() {
+        String first = new SnowflakeBookingNumberGenerator(0).next(NOW);
+        String second = new SnowflakeBookingNumberGenerator(0).next(NOW);
+
+        assertThat(idPart(first)).isEqualTo(idPart(second));
+        assertThat(first).isNotEqualTo(second);
+    }
+
+    @Test
+    void constructor_WithoutNodeIdWhenEventsAreShared_ThrowsIllegalState() {
+        assertThatThrownBy(() -> new SnowflakeBookingNumberGenerator(null, "amqp"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("node-id");
+        assertThat(new SnowflakeBookingNumberGenerator(5, "amqp").next(NOW)).hasSize(SnowflakeBookingNumberGenerator.LENGTH);
+    }
+
+    @Test
+    void normalize_ReadsTypedFormsAsIssuedNumber() {
+        SnowflakeBookingNumberGenerator generator = new SnowflakeBookingNumberGenerator(0);
+        String issued = generator.next(NOW);
+        String typed = issued.substring(0, 4).toLowerCase() + "-" + issued.substring(4);
+
+        assertThat(generator.normalize(typed)).isEqualTo(issued);
+        assertThat(generator.normalize("0ab1-cd2e-fg3hi")).isEqualTo("0AB1CD2EFG3H1");
+    }
+
+    @Test
+    void normalize_LeavesLegacyNumbersUntouched() {
+        SnowflakeBookingNumberGenerator generator = new SnowflakeBookingNumberGenerator(0);
+
+        assertThat(generator.normalize("3f2b8c1e-4d5a-4b6c-9e7f-0a1b2c3d4e5f")).isEqualTo("3f2b8c1e-4d5a-4b6c-9e7f-0a1b2c3d4e5f");
+        assertThat(generator.normalize("BK-TODAY-12-345")).isEqualTo("BK-TODAY-12-345");
+    }
+
+    private static String idPart(String bookingNumber) {
+        return bookingNumber.substring(0, SnowflakeBookingNumberGenerator.ID_LENGTH);
+    }
+}
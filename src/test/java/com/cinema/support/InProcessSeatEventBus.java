@@ -0,0 +1,44 @@
+package com.cinema.support;
+
+import com.cinema.seating.SeatEvent;
+import com.cinema.seating.SeatEventBus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Stand-in for the message broker in tests: delivers every published seat
+ * event to all subscribers on the publishing thread. Events make the same
+ * JSON round trip as over AMQP, so they arrive as copies.
+ */
+public class InProcessSeatEventBus implements SeatEventBus {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final List<Consumer<SeatEvent>> listeners = new CopyOnWriteArrayList<>();
+    private final List<SeatEvent> published = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(SeatEvent event) {
+        published.add(event);
+        SeatEvent delivered;
+        try {
+            delivered = objectMapper.readValue(objectMapper.writeValueAsBytes(event), SeatEvent.class);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        listeners.forEach(listener -> listener.accept(delivered));
+    }
+
+    @Override
+    public void subscribe(Consumer<SeatEvent> listener) {
+        listeners.add(listener);
+    }
+
+    public List<SeatEvent> published() {
+        return List.copyOf(published);
+    }
+}